@@ -0,0 +1,302 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.benchmarks;
+
+import org.apache.xml.security.utils.Constants;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import xades4j.algorithms.Algorithm;
+import xades4j.algorithms.CanonicalXMLWithoutComments;
+import xades4j.algorithms.ExclusiveCanonicalXMLWithoutComments;
+import xades4j.production.DataObjectReference;
+import xades4j.production.SignatureAlgorithms;
+import xades4j.production.SignedDataObjects;
+import xades4j.production.XadesBesSigningProfile;
+import xades4j.production.XadesCSigningProfile;
+import xades4j.production.XadesEpesSigningProfile;
+import xades4j.production.XadesFormatExtenderProfile;
+import xades4j.production.XadesSigningProfile;
+import xades4j.production.XadesTSigningProfile;
+import xades4j.properties.DataObjectDesc;
+import xades4j.properties.SignaturePolicyImpliedProperty;
+import xades4j.providers.CertificateValidationProvider;
+import xades4j.providers.KeyingDataProvider;
+import xades4j.providers.SignaturePolicyInfoProvider;
+import xades4j.providers.TimeStampTokenProvider;
+import xades4j.providers.ValidationDataProvider;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
+import xades4j.providers.impl.DirectKeyingDataProvider;
+import xades4j.providers.impl.LocalTimeStampTokenProvider;
+import xades4j.providers.impl.PKIXCertificateValidationProvider;
+import xades4j.providers.impl.TestTimeStampAuthority;
+import xades4j.providers.impl.ValidationDataFromCertValidationProvider;
+import xades4j.utils.DOMHelper;
+import xades4j.utils.TestPki;
+import xades4j.verification.XadesVerificationProfile;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.CertStore;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared setup for the benchmarks: in-memory keys and certificates, an in-process
+ * TSA and synthetic documents. Nothing depends on the network, so that results
+ * can be reproduced offline.
+ *
+ * @author Luís
+ */
+public final class BenchmarkFixtures
+{
+    public enum Form
+    {
+        BES, EPES, T, C
+    }
+
+    public enum KeyType
+    {
+        RSA, EC
+    }
+
+    public enum C14n
+    {
+        C14N(new CanonicalXMLWithoutComments()),
+        EXC_C14N(new ExclusiveCanonicalXMLWithoutComments());
+
+        private final Algorithm algorithm;
+
+        C14n(Algorithm algorithm)
+        {
+            this.algorithm = algorithm;
+        }
+    }
+
+    private static final String DATA_OBJECT_TAG = "data";
+    private static final String DATA_OBJECT_ID_PREFIX = "data-";
+
+    private static final Map<KeyType, KeyingDataProvider> keyingProviders;
+    private static final TestTimeStampAuthority tsa;
+    private static final CertificateValidationProvider validationProvider;
+
+    static
+    {
+        try
+        {
+            KeyPair caKeyPair = TestPki.newRsaKeyPair();
+            X509Certificate caCert = TestPki.newCaCertificate("CN=xades4j Benchmark CA", caKeyPair);
+            X509CRL caCrl = TestPki.newCrl(caCert, caKeyPair.getPrivate());
+
+            keyingProviders = new EnumMap<>(KeyType.class);
+            KeyPair rsaKeyPair = TestPki.newRsaKeyPair();
+            keyingProviders.put(KeyType.RSA, new DirectKeyingDataProvider(
+                    TestPki.newSigningCertificate("CN=xades4j Benchmark RSA Signer", rsaKeyPair.getPublic(), caCert, caKeyPair.getPrivate()),
+                    rsaKeyPair.getPrivate()));
+            KeyPair ecKeyPair = TestPki.newEcKeyPair();
+            keyingProviders.put(KeyType.EC, new DirectKeyingDataProvider(
+                    TestPki.newSigningCertificate("CN=xades4j Benchmark EC Signer", ecKeyPair.getPublic(), caCert, caKeyPair.getPrivate()),
+                    ecKeyPair.getPrivate()));
+
+            tsa = TestTimeStampAuthority.getInstance();
+
+            KeyStore trustAnchors = KeyStore.getInstance(KeyStore.getDefaultType());
+            trustAnchors.load(null);
+            trustAnchors.setCertificateEntry("benchmarkCA", caCert);
+            tsa.addTrustAnchorTo(trustAnchors);
+            // Revocation is checked because XAdES-C needs CRLs.
+            CertStore crls = CertStore.getInstance("Collection", new CollectionCertStoreParameters(
+                    Arrays.asList(caCrl, tsa.getRootCrl())));
+            validationProvider = PKIXCertificateValidationProvider.builder(trustAnchors)
+                    .checkRevocation(true)
+                    .intermediateCertStores(crls)
+                    .build();
+        }
+        catch (Exception ex)
+        {
+            throw new IllegalStateException("BenchmarkFixtures init failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private BenchmarkFixtures()
+    {
+    }
+
+    public static KeyingDataProvider keyingProvider(KeyType keyType)
+    {
+        return keyingProviders.get(keyType);
+    }
+
+    public static CertificateValidationProvider validationProvider()
+    {
+        return validationProvider;
+    }
+
+    public static ValidationDataProvider validationDataProvider()
+    {
+        return new ValidationDataFromCertValidationProvider(validationProvider);
+    }
+
+    public static TimeStampTokenProvider timeStampTokenProvider()
+    {
+        return new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider(), tsa);
+    }
+
+    public static SignatureAlgorithms signatureAlgorithms(C14n c14n)
+    {
+        return new SignatureAlgorithms()
+                .withCanonicalizationAlgorithmForSignature(c14n.algorithm)
+                .withCanonicalizationAlgorithmForTimeStampProperties(c14n.algorithm);
+    }
+
+    public static XadesSigningProfile signingProfile(Form form, KeyType keyType, C14n c14n)
+    {
+        KeyingDataProvider kp = keyingProvider(keyType);
+        SignaturePolicyInfoProvider policyProvider = SignaturePolicyImpliedProperty::new;
+
+        XadesSigningProfile profile;
+        switch (form)
+        {
+            case BES:
+                profile = new XadesBesSigningProfile(kp);
+                break;
+            case EPES:
+                profile = new XadesEpesSigningProfile(kp, policyProvider);
+                break;
+            case T:
+                profile = new XadesTSigningProfile(kp);
+                break;
+            case C:
+                profile = new XadesCSigningProfile(kp, validationDataProvider());
+                break;
+            default:
+                throw new IllegalArgumentException(form.name());
+        }
+
+        return profile
+                .withSignatureAlgorithms(signatureAlgorithms(c14n))
+                .withTimeStampTokenProvider(timeStampTokenProvider());
+    }
+
+    public static XadesVerificationProfile verificationProfile()
+    {
+        return new XadesVerificationProfile(validationProvider);
+    }
+
+    public static XadesFormatExtenderProfile formatExtenderProfile(C14n c14n)
+    {
+        return new XadesFormatExtenderProfile()
+                .withSignatureAlgorithms(signatureAlgorithms(c14n))
+                .withTimeStampTokenProvider(timeStampTokenProvider());
+    }
+
+    /**
+     * Creates a document with {@code referenceCount} data elements, each with an
+     * {@code Id}, whose total text content has approximately {@code documentSize} characters.
+     */
+    public static Document newDocument(int documentSize, int referenceCount) throws Exception
+    {
+        Document doc = newDocumentBuilderFactory().newDocumentBuilder().newDocument();
+        Element root = doc.createElementNS(null, "benchmark");
+        doc.appendChild(root);
+
+        char[] content = new char[Math.max(1, documentSize / referenceCount)];
+        Arrays.fill(content, 'x');
+        String text = new String(content);
+
+        for (int i = 0; i < referenceCount; i++)
+        {
+            Element data = doc.createElementNS(null, DATA_OBJECT_TAG);
+            data.setTextContent(text);
+            DOMHelper.setIdAsXmlId(data, dataObjectId(i));
+            root.appendChild(data);
+        }
+        return doc;
+    }
+
+    /**
+     * Creates the data object descriptions for the data elements of a document
+     * created by {@link #newDocument(int, int)}.
+     */
+    public static SignedDataObjects dataObjects(int referenceCount)
+    {
+        List<DataObjectDesc> objs = new ArrayList<>(referenceCount);
+        for (int i = 0; i < referenceCount; i++)
+        {
+            objs.add(new DataObjectReference('#' + dataObjectId(i)));
+        }
+        return new SignedDataObjects(objs);
+    }
+
+    /**
+     * Gets the {@code Id} of the i-th data element of a document created by
+     * {@link #newDocument(int, int)}.
+     */
+    public static String dataObjectId(int i)
+    {
+        return DATA_OBJECT_ID_PREFIX + i;
+    }
+
+    public static byte[] serialize(Document doc) throws Exception
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(os));
+        return os.toByteArray();
+    }
+
+    /**
+     * Parses a document previously created by {@link #newDocument(int, int)},
+     * registering the {@code Id} attributes of the data elements.
+     */
+    public static Document parse(byte[] serializedDocument) throws Exception
+    {
+        Document doc = newDocumentBuilderFactory()
+                .newDocumentBuilder()
+                .parse(new ByteArrayInputStream(serializedDocument));
+        for (Element e = DOMHelper.getFirstChildElement(doc.getDocumentElement()); e != null; e = DOMHelper.getNextSiblingElement(e))
+        {
+            if (DATA_OBJECT_TAG.equals(e.getLocalName()))
+            {
+                DOMHelper.useIdAsXmlId(e);
+            }
+        }
+        return doc;
+    }
+
+    private static DocumentBuilderFactory newDocumentBuilderFactory()
+    {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf;
+    }
+
+    public static Element signatureElement(Document doc)
+    {
+        return (Element) doc.getElementsByTagNameNS(Constants.SignatureSpecNS, Constants._TAG_SIGNATURE).item(0);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.benchmarks;
+
+import org.apache.xml.security.signature.XMLSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import xades4j.benchmarks.BenchmarkFixtures.C14n;
+import xades4j.benchmarks.BenchmarkFixtures.Form;
+import xades4j.benchmarks.BenchmarkFixtures.KeyType;
+import xades4j.production.XadesSignatureFormatExtender;
+import xades4j.properties.UnsignedProperties;
+import xades4j.properties.UnsignedSignatureProperty;
+import xades4j.providers.ValidationData;
+import xades4j.utils.PropertiesUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Format extension ({@link XadesSignatureFormatExtender#enrichSignature}) of a
+ * XAdES-BES signature to XAdES-T or XAdES-C. A fresh copy of the signature is
+ * parsed for each invocation, outside of the measured code.
+ *
+ * @author Luís
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrichBenchmark
+{
+    @Param({"T", "C"})
+    public Form targetForm;
+
+    @Param({"1024", "1048576"})
+    public int documentSize;
+
+    @Param({"1", "10"})
+    public int referenceCount;
+
+    @Param({"RSA", "EC"})
+    public KeyType keyType;
+
+    @Param({"C14N", "EXC_C14N"})
+    public C14n c14n;
+
+    private XadesSignatureFormatExtender extender;
+    private byte[] serializedSignature;
+    private ValidationData validationData;
+    private XMLSignature signature;
+
+    @Setup(Level.Trial)
+    public void createSignature() throws Exception
+    {
+        Document doc = BenchmarkFixtures.newDocument(documentSize, referenceCount);
+        BenchmarkFixtures.signingProfile(Form.BES, keyType, c14n)
+                .newSigner()
+                .sign(BenchmarkFixtures.dataObjects(referenceCount), doc.getDocumentElement());
+
+        this.serializedSignature = BenchmarkFixtures.serialize(doc);
+        this.validationData = BenchmarkFixtures.validationDataProvider()
+                .getValidationData(BenchmarkFixtures.keyingProvider(keyType).getSigningCertificateChain());
+        this.extender = BenchmarkFixtures.formatExtenderProfile(c14n).getFormatExtender();
+    }
+
+    @Setup(Level.Invocation)
+    public void parseSignature() throws Exception
+    {
+        Document doc = BenchmarkFixtures.parse(this.serializedSignature);
+        this.signature = new XMLSignature(BenchmarkFixtures.signatureElement(doc), "");
+    }
+
+    @Benchmark
+    public XMLSignature enrichSignature() throws Exception
+    {
+        Collection<UnsignedSignatureProperty> usp = new ArrayList<>(3);
+        switch (targetForm)
+        {
+            case C:
+                PropertiesUtils.addXadesCProperties(usp, this.validationData);
+                // fall through: XAdES-C includes XAdES-T.
+            case T:
+                PropertiesUtils.addXadesTProperties(usp);
+                break;
+            default:
+                throw new IllegalArgumentException(targetForm.name());
+        }
+
+        this.extender.enrichSignature(this.signature, new UnsignedProperties(usp));
+        return this.signature;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import xades4j.benchmarks.BenchmarkFixtures.C14n;
+import xades4j.benchmarks.BenchmarkFixtures.Form;
+import xades4j.benchmarks.BenchmarkFixtures.KeyType;
+import xades4j.production.DataObjectReference;
+import xades4j.production.SignedDataObjects;
+import xades4j.production.XadesSignatureResult;
+import xades4j.production.XadesSigner;
+import xades4j.properties.CommitmentTypeProperty;
+import xades4j.properties.DataObjectDesc;
+import xades4j.properties.DataObjectFormatProperty;
+import xades4j.verification.XAdESVerificationResult;
+import xades4j.verification.XadesVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification of XAdES-BES signatures with many qualifying properties.
+ * Each data object has a {@code DataObjectFormat} and a {@code CommitmentTypeIndication},
+ * so that the per-property costs (namely resolving generators and verifiers) dominate
+ * over the cryptographic operations.
+ *
+ * @author Luís
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QualifyingPropertiesBenchmark
+{
+    @Param({"10", "50"})
+    public int referenceCount;
+
+    private XadesSigner signer;
+    private XadesVerifier verifier;
+    private Element signatureElement;
+
+    @Setup(Level.Trial)
+    public void createSignature() throws Exception
+    {
+        this.signer = BenchmarkFixtures.signingProfile(Form.BES, KeyType.EC, C14n.EXC_C14N).newSigner();
+        this.verifier = BenchmarkFixtures.verificationProfile().newVerifier();
+
+        Document doc = BenchmarkFixtures.newDocument(referenceCount, referenceCount);
+        this.signer.sign(dataObjects(), doc.getDocumentElement());
+
+        Document parsed = BenchmarkFixtures.parse(BenchmarkFixtures.serialize(doc));
+        this.signatureElement = BenchmarkFixtures.signatureElement(parsed);
+    }
+
+    private SignedDataObjects dataObjects()
+    {
+        List<DataObjectDesc> objs = new ArrayList<>(referenceCount);
+        for (int i = 0; i < referenceCount; i++)
+        {
+            objs.add(new DataObjectReference('#' + BenchmarkFixtures.dataObjectId(i))
+                    .withDataObjectFormat(new DataObjectFormatProperty("text/plain"))
+                    .withCommitmentType(CommitmentTypeProperty.proofOfOrigin()));
+        }
+        return new SignedDataObjects(objs);
+    }
+
+    @Benchmark
+    public XadesSignatureResult sign() throws Exception
+    {
+        Document doc = BenchmarkFixtures.newDocument(referenceCount, referenceCount);
+        return this.signer.sign(dataObjects(), doc.getDocumentElement());
+    }
+
+    @Benchmark
+    public XAdESVerificationResult verify() throws Exception
+    {
+        return this.verifier.verify(this.signatureElement, null);
+    }
+}
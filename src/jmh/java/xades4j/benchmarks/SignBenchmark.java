@@ -0,0 +1,92 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import xades4j.benchmarks.BenchmarkFixtures.C14n;
+import xades4j.benchmarks.BenchmarkFixtures.Form;
+import xades4j.benchmarks.BenchmarkFixtures.KeyType;
+import xades4j.production.SignedDataObjects;
+import xades4j.production.XadesSignatureResult;
+import xades4j.production.XadesSigner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature production ({@link XadesSigner#sign}) for the different XAdES forms.
+ * A new document is created for each invocation, outside of the measured code.
+ *
+ * @author Luís
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignBenchmark
+{
+    @Param({"BES", "EPES", "T", "C"})
+    public Form form;
+
+    @Param({"1024", "1048576"})
+    public int documentSize;
+
+    @Param({"1", "10"})
+    public int referenceCount;
+
+    @Param({"RSA", "EC"})
+    public KeyType keyType;
+
+    @Param({"C14N", "EXC_C14N"})
+    public C14n c14n;
+
+    private XadesSigner signer;
+    private Document document;
+    private SignedDataObjects dataObjects;
+
+    @Setup(Level.Trial)
+    public void createSigner() throws Exception
+    {
+        this.signer = BenchmarkFixtures.signingProfile(form, keyType, c14n).newSigner();
+    }
+
+    @Setup(Level.Invocation)
+    public void createDocument() throws Exception
+    {
+        this.document = BenchmarkFixtures.newDocument(documentSize, referenceCount);
+        this.dataObjects = BenchmarkFixtures.dataObjects(referenceCount);
+    }
+
+    @Benchmark
+    public XadesSignatureResult sign() throws Exception
+    {
+        return this.signer.sign(this.dataObjects, this.document.getDocumentElement());
+    }
+}
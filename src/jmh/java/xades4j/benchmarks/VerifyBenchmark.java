@@ -0,0 +1,91 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import xades4j.benchmarks.BenchmarkFixtures.C14n;
+import xades4j.benchmarks.BenchmarkFixtures.Form;
+import xades4j.benchmarks.BenchmarkFixtures.KeyType;
+import xades4j.verification.XAdESVerificationResult;
+import xades4j.verification.XadesVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature verification ({@link XadesVerifier#verify}) for signatures in the
+ * different XAdES forms. The signature is produced and re-parsed once per trial.
+ *
+ * @author Luís
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifyBenchmark
+{
+    @Param({"BES", "EPES", "T", "C"})
+    public Form form;
+
+    @Param({"1024", "1048576"})
+    public int documentSize;
+
+    @Param({"1", "10"})
+    public int referenceCount;
+
+    @Param({"RSA", "EC"})
+    public KeyType keyType;
+
+    @Param({"C14N", "EXC_C14N"})
+    public C14n c14n;
+
+    private XadesVerifier verifier;
+    private Element signatureElement;
+
+    @Setup(Level.Trial)
+    public void createSignature() throws Exception
+    {
+        Document doc = BenchmarkFixtures.newDocument(documentSize, referenceCount);
+        BenchmarkFixtures.signingProfile(form, keyType, c14n)
+                .newSigner()
+                .sign(BenchmarkFixtures.dataObjects(referenceCount), doc.getDocumentElement());
+
+        Document parsed = BenchmarkFixtures.parse(BenchmarkFixtures.serialize(doc));
+        this.signatureElement = BenchmarkFixtures.signatureElement(parsed);
+        this.verifier = BenchmarkFixtures.verificationProfile().newVerifier();
+    }
+
+    @Benchmark
+    public XAdESVerificationResult verify() throws Exception
+    {
+        return this.verifier.verify(this.signatureElement, null);
+    }
+}
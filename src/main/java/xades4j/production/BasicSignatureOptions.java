@@ -16,6 +16,8 @@
  */
 package xades4j.production;
 
+import java.util.concurrent.Executor;
+
 /**
  * Configuration of basic signature options such as whether {@code ds:KeyInfo}
  * elements should be included.
@@ -33,6 +35,7 @@ public final class BasicSignatureOptions
     private boolean includePublicKey = false;
     private boolean signKeyInfo = false;
     private boolean omitSigningCertificateProperty = false;
+    private Executor referencesDigestExecutor = null;
 
     /**
      * Configures whether to check that the keyUsage of the signing certificate
@@ -189,6 +192,36 @@ public final class BasicSignatureOptions
         return this.omitSigningCertificateProperty;
     }
 
+    /**
+     * Configures an executor to digest the signed data objects concurrently, which is
+     * useful when signing many detached files. By default, the references are digested
+     * sequentially.
+     * <p>
+     * Only references to data outside of the signature's document (including the anonymous
+     * reference) and without transforms are digested on the executor. This applies to the
+     * references in {@code SignedInfo} and in manifests. When the executor runs tasks
+     * concurrently, the resource resolvers on {@code SignedDataObjects} must be thread-safe.
+     * <p>
+     * The thread producing the signature blocks until the references are digested.
+     * Hence, this executor shouldn't be a bounded one that is also used to produce the
+     * signatures (e.g. the executor passed to {@link XadesSigner#signAll} or
+     * {@link XadesSigner#signAsync}): if all its threads are producing signatures,
+     * the digest tasks are never run and the signatures never complete.
+     *
+     * @param referencesDigestExecutor the executor, or {@code null} to digest the references sequentially
+     * @return the current instance
+     */
+    public BasicSignatureOptions referencesDigestExecutor(Executor referencesDigestExecutor)
+    {
+        this.referencesDigestExecutor = referencesDigestExecutor;
+        return this;
+    }
+
+    Executor referencesDigestExecutor()
+    {
+        return this.referencesDigestExecutor;
+    }
+
     void ensureValid() throws KeyingDataException
     {
         if (this.omitSigningCertificateProperty &&
@@ -0,0 +1,86 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import org.w3c.dom.Node;
+import xades4j.production.XadesSigner.SignatureAppendingStrategy;
+import xades4j.utils.ObjectUtils;
+
+/**
+ * A signature to be produced as part of a batch. It has the same information
+ * as the arguments of {@link XadesSigner#sign(SignedDataObjects, Node, SignatureAppendingStrategy)}.
+ * <p>
+ * Signatures in a batch may be produced in parallel. Each request should target
+ * a different DOM document, since DOM implementations aren't thread-safe.
+ *
+ * @see XadesSigner#signAll(java.util.List, java.util.concurrent.Executor)
+ * @author Luís
+ */
+public final class BatchSignatureRequest
+{
+    private final SignedDataObjects signedDataObjects;
+    private final Node referenceNode;
+    private final SignatureAppendingStrategy appendingStrategy;
+
+    /**
+     * Creates a request for a signature that will be appended as the last child
+     * of the given node.
+     * @param signedDataObjects the data objects to be signed
+     * @param parent the node to which the signature element will be appended
+     */
+    public BatchSignatureRequest(SignedDataObjects signedDataObjects, Node parent)
+    {
+        this(signedDataObjects, parent, SignatureAppendingStrategies.AsLastChild);
+    }
+
+    /**
+     * Creates a request for a signature that will be appended to the DOM tree
+     * using the given strategy and reference node.
+     * @param signedDataObjects the data objects to be signed
+     * @param referenceNode the node used as reference for the appending strategy
+     * @param appendingStrategy the appending strategy
+     */
+    public BatchSignatureRequest(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy)
+    {
+        if (ObjectUtils.anyNull(signedDataObjects, referenceNode, appendingStrategy))
+        {
+            throw new NullPointerException("One or more arguments are null");
+        }
+
+        this.signedDataObjects = signedDataObjects;
+        this.referenceNode = referenceNode;
+        this.appendingStrategy = appendingStrategy;
+    }
+
+    SignedDataObjects getSignedDataObjects()
+    {
+        return signedDataObjects;
+    }
+
+    Node getReferenceNode()
+    {
+        return referenceNode;
+    }
+
+    SignatureAppendingStrategy getAppendingStrategy()
+    {
+        return appendingStrategy;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+/**
+ * The outcome of a signature produced as part of a batch: either the signature
+ * result or the exception that prevented the signature from being produced.
+ *
+ * @see XadesSigner#signAll(java.util.List, java.util.concurrent.Executor)
+ * @author Luís
+ */
+public final class BatchSignatureResult
+{
+    private final XadesSignatureResult result;
+    private final Exception exception;
+
+    private BatchSignatureResult(XadesSignatureResult result, Exception exception)
+    {
+        this.result = result;
+        this.exception = exception;
+    }
+
+    static BatchSignatureResult success(XadesSignatureResult result)
+    {
+        return new BatchSignatureResult(result, null);
+    }
+
+    static BatchSignatureResult failure(Exception exception)
+    {
+        return new BatchSignatureResult(null, exception);
+    }
+
+    /**
+     * Indicates whether the signature was successfully produced.
+     * @return {@code true} if the signature was produced; {@code false} otherwise
+     */
+    public boolean isSuccessful()
+    {
+        return this.exception == null;
+    }
+
+    /**
+     * Gets the signature result.
+     * @return the result or {@code null} if the signature wasn't produced
+     */
+    public XadesSignatureResult getResult()
+    {
+        return result;
+    }
+
+    /**
+     * Gets the exception that prevented the signature from being produced. This
+     * is usually a {@link xades4j.XAdES4jException}, but runtime exceptions (e.g.
+     * due to invalid arguments) are also reported here.
+     * @return the exception or {@code null} if the signature was produced
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+}
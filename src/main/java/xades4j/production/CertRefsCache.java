@@ -0,0 +1,48 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import java.security.cert.X509Certificate;
+import xades4j.properties.data.CertRef;
+import xades4j.utils.BoundedCache;
+
+/**
+ * Remembers the {@code CertRef}s generated for certificates, so that the same
+ * signing certificate chain isn't encoded and digested on every signature. Certificates
+ * are compared by identity, since keying data providers that cache the chain return
+ * the same instances.
+ * <p>
+ * A single instance is shared by the generators of a profile.
+ *
+ * @author Luís
+ */
+final class CertRefsCache
+{
+    private static final int MAX_ENTRIES = 256;
+
+    private final BoundedCache<BoundedCache.IdentityKey, CertRef> entries = new BoundedCache<>(MAX_ENTRIES);
+
+    CertRef get(X509Certificate cert, String digestAlgUri)
+    {
+        return this.entries.get(new BoundedCache.IdentityKey(cert, digestAlgUri));
+    }
+
+    void put(X509Certificate cert, CertRef certRef)
+    {
+        this.entries.put(new BoundedCache.IdentityKey(cert, certRef.getDigestAlgUri()), certRef);
+    }
+}
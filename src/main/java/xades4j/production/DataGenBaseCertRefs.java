@@ -38,15 +38,18 @@ class DataGenBaseCertRefs
     private final SignatureAlgorithms signatureAlgorithms;
     private final MessageDigestEngineProvider messageDigestProvider;
     private final X500NameStyleProvider x500NameStyleProvider;
+    private final CertRefsCache certRefsCache;
 
     protected DataGenBaseCertRefs(
             SignatureAlgorithms signatureAlgorithms,
             MessageDigestEngineProvider messageDigestProvider,
-            X500NameStyleProvider x500NameStyleProvider)
+            X500NameStyleProvider x500NameStyleProvider,
+            CertRefsCache certRefsCache)
     {
         this.signatureAlgorithms = signatureAlgorithms;
         this.messageDigestProvider = messageDigestProvider;
         this.x500NameStyleProvider = x500NameStyleProvider;
+        this.certRefsCache = certRefsCache;
     }
 
     protected PropertyDataObject generate(
@@ -62,10 +65,21 @@ class DataGenBaseCertRefs
         try
         {
             String digestAlgUri = this.signatureAlgorithms.getDigestAlgorithmForReferenceProperties();
-            MessageDigest messageDigest = this.messageDigestProvider.getEngine(digestAlgUri);
+            MessageDigest messageDigest = null;
 
             for (X509Certificate cert : certs)
             {
+                CertRef certRef = this.certRefsCache.get(cert, digestAlgUri);
+                if (certRef != null)
+                {
+                    certRefsData.addCertRef(certRef);
+                    continue;
+                }
+
+                if (null == messageDigest)
+                {
+                    messageDigest = this.messageDigestProvider.getEngine(digestAlgUri);
+                }
                 // "DigestValue contains the base-64 encoded value of the digest
                 // computed on the DER-encoded certificate."
                 // The base-64 encoding is done by JAXB with the configured
@@ -73,11 +87,13 @@ class DataGenBaseCertRefs
                 // For X509 certificates the encoded form return by getEncoded is DER.
                 byte[] digestValue = messageDigest.digest(cert.getEncoded());
 
-                certRefsData.addCertRef(new CertRef(
+                certRef = new CertRef(
                         this.x500NameStyleProvider.toString(cert.getIssuerX500Principal()),
                         cert.getSerialNumber(),
                         digestAlgUri,
-                        digestValue));
+                        digestValue);
+                this.certRefsCache.put(cert, certRef);
+                certRefsData.addCertRef(certRef);
             }
             return certRefsData;
 
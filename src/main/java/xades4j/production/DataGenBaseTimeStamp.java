@@ -22,6 +22,8 @@ import xades4j.algorithms.Algorithm;
 import xades4j.properties.QualifyingProperty;
 import xades4j.properties.data.BaseXAdESTimeStampData;
 import xades4j.properties.data.PropertyDataObject;
+import xades4j.providers.AsyncTimeStampTokenProvider;
+import xades4j.providers.DigestTimeStampTokenProvider;
 import xades4j.providers.TimeStampTokenGenerationException;
 import xades4j.providers.TimeStampTokenProvider;
 import xades4j.providers.TimeStampTokenProvider.TimeStampTokenRes;
@@ -29,6 +31,10 @@ import xades4j.utils.CannotAddDataToDigestInputException;
 import xades4j.utils.TimeStampDigestInput;
 import xades4j.utils.TimeStampDigestInputFactory;
 
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  *
  * @author Luís
@@ -53,12 +59,13 @@ abstract class DataGenBaseTimeStamp<TProp extends QualifyingProperty> implements
 
         try
         {
-            TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(c14n);
-            addPropSpecificTimeStampInput(prop, digestInput, ctx);
-
-            TimeStampTokenRes tsTknRes = this.tsTokenProvider.getTimeStampToken(
-                    digestInput.getBytes(),
-                    this.algorithms.getDigestAlgorithmForTimeStampProperties());
+            // If the token was prefetched, the time-stamp input was computed then.
+            // Properties generated on the same pass don't depend on each other, so
+            // the input is still the same.
+            CompletableFuture<TimeStampTokenRes> prefetched = ctx.takePrefetchedTimeStampToken(prop);
+            TimeStampTokenRes tsTknRes = null == prefetched
+                    ? getTimeStampToken(getTimeStampInput(prop, c14n, ctx))
+                    : getPrefetchedTimeStampToken(prefetched);
             return createPropDataObj(prop, c14n, tsTknRes, ctx);
         }
         catch (UnsupportedAlgorithmException ex)
@@ -75,6 +82,85 @@ abstract class DataGenBaseTimeStamp<TProp extends QualifyingProperty> implements
         }
     }
 
+    /**
+     * Starts getting the time-stamp token for a property ahead of its data generation,
+     * if the time-stamp token provider supports asynchronous requests. The token
+     * is registered on the context and used when the property data is generated.
+     *
+     * @return a future that completes when the token is available; it never
+     *      completes exceptionally because errors are reported when the property
+     *      data is generated
+     */
+    final CompletableFuture<Void> prefetchTimeStampToken(TProp prop, PropertiesDataGenerationContext ctx)
+    {
+        if (!(this.tsTokenProvider instanceof DigestTimeStampTokenProvider || this.tsTokenProvider instanceof AsyncTimeStampTokenProvider))
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        byte[] tsInput;
+        try
+        {
+            tsInput = getTimeStampInput(prop, this.algorithms.getCanonicalizationAlgorithmForTimeStampProperties(), ctx);
+        }
+        catch (CannotAddDataToDigestInputException | UnsupportedAlgorithmException | PropertyDataGenerationException ex)
+        {
+            // Reported when the property data is generated.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String digestAlgUri = this.algorithms.getDigestAlgorithmForTimeStampProperties();
+        CompletableFuture<TimeStampTokenRes> token = this.tsTokenProvider instanceof DigestTimeStampTokenProvider
+                ? ((DigestTimeStampTokenProvider) this.tsTokenProvider).getTimeStampTokenForDigestAsync(tsInput, digestAlgUri)
+                : ((AsyncTimeStampTokenProvider) this.tsTokenProvider).getTimeStampTokenAsync(tsInput, digestAlgUri);
+        ctx.setPrefetchedTimeStampToken(prop, token);
+        return token.handle((res, ex) -> null);
+    }
+
+    /**
+     * Gets the input to be sent to the time-stamp token provider. If the provider
+     * supports precomputed digests, the input is digested as it is produced and
+     * only the digest is returned.
+     */
+    private byte[] getTimeStampInput(TProp prop, Algorithm c14n, PropertiesDataGenerationContext ctx) throws UnsupportedAlgorithmException, CannotAddDataToDigestInputException, PropertyDataGenerationException
+    {
+        if (this.tsTokenProvider instanceof DigestTimeStampTokenProvider)
+        {
+            String digestAlgUri = this.algorithms.getDigestAlgorithmForTimeStampProperties();
+            TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(c14n, Collections.singleton(digestAlgUri));
+            addPropSpecificTimeStampInput(prop, digestInput, ctx);
+            return digestInput.getDigest(digestAlgUri);
+        }
+
+        TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(c14n);
+        addPropSpecificTimeStampInput(prop, digestInput, ctx);
+        return digestInput.getBytes();
+    }
+
+    private TimeStampTokenRes getTimeStampToken(byte[] tsInput) throws TimeStampTokenGenerationException
+    {
+        String digestAlgUri = this.algorithms.getDigestAlgorithmForTimeStampProperties();
+        return this.tsTokenProvider instanceof DigestTimeStampTokenProvider
+                ? ((DigestTimeStampTokenProvider) this.tsTokenProvider).getTimeStampTokenForDigest(tsInput, digestAlgUri)
+                : this.tsTokenProvider.getTimeStampToken(tsInput, digestAlgUri);
+    }
+
+    private static TimeStampTokenRes getPrefetchedTimeStampToken(CompletableFuture<TimeStampTokenRes> prefetched) throws TimeStampTokenGenerationException
+    {
+        try
+        {
+            return prefetched.join();
+        }
+        catch (CompletionException ex)
+        {
+            if (ex.getCause() instanceof TimeStampTokenGenerationException)
+            {
+                throw (TimeStampTokenGenerationException) ex.getCause();
+            }
+            throw new TimeStampTokenGenerationException("Error getting the time-stamp token", ex.getCause());
+        }
+    }
+
     protected abstract void addPropSpecificTimeStampInput(
             TProp prop,
             TimeStampDigestInput digestInput,
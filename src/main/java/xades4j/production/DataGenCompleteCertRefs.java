@@ -35,9 +35,10 @@ class DataGenCompleteCertRefs
     public DataGenCompleteCertRefs(
             SignatureAlgorithms signatureAlgorithms,
             MessageDigestEngineProvider messageDigestProvider,
-            X500NameStyleProvider x500NameStyleProvider)
+            X500NameStyleProvider x500NameStyleProvider,
+            CertRefsCache certRefsCache)
     {
-        super(signatureAlgorithms, messageDigestProvider, x500NameStyleProvider);
+        super(signatureAlgorithms, messageDigestProvider, x500NameStyleProvider, certRefsCache);
     }
 
     @Override
@@ -33,6 +33,8 @@ public final class DataObjectReference extends DataObjectDesc
 
     private final String uri;
     private String type;
+    private String digestAlgorithmUri;
+    private byte[] digestValue;
 
     /**
      * Creates a new data object reference. Additional information is added through
@@ -82,4 +84,47 @@ public final class DataObjectReference extends DataObjectDesc
     {
         return type;
     }
+
+    /**
+     * Supplies the digest value of the data object, computed beforehand (for
+     * instance, while the data was being received). The resulting
+     * {@code ds:Reference} uses the given value, and the data object is not
+     * dereferenced when the signature is produced. If transforms are specified,
+     * the digest value must have been computed over their output.
+     * <p>
+     * The digest algorithm must be the one configured for data object references
+     * (see {@link SignatureAlgorithms#withDigestAlgorithmForDataObjectReferences(String)});
+     * otherwise, signature production fails.
+     * <p>
+     * Since the data object is not dereferenced, it cannot be covered by data
+     * object time-stamps. The value is not checked against the data object.
+     * Signature verification is not affected: the data object is dereferenced
+     * and digested as usual.
+     *
+     * @param digestAlgorithmUri the URI of the digest algorithm
+     * @param digestValue        the digest value
+     * @return the current instance
+     *
+     * @throws NullPointerException if any parameter is {@code null}
+     */
+    public DataObjectReference withDigest(String digestAlgorithmUri, byte[] digestValue)
+    {
+        if (null == digestAlgorithmUri || null == digestValue)
+        {
+            throw new NullPointerException("Digest algorithm and value cannot be null");
+        }
+        this.digestAlgorithmUri = digestAlgorithmUri;
+        this.digestValue = digestValue.clone();
+        return this;
+    }
+
+    String getDigestAlgorithmUri()
+    {
+        return digestAlgorithmUri;
+    }
+
+    byte[] getDigestValue()
+    {
+        return digestValue;
+    }
 }
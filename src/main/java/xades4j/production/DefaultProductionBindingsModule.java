@@ -17,6 +17,7 @@
 package xades4j.production;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import xades4j.properties.AllDataObjsCommitmentTypeProperty;
@@ -71,6 +72,8 @@ class DefaultProductionBindingsModule extends AbstractModule
         bind(MessageDigestEngineProvider.class).to(DefaultMessageDigestProvider.class);
         bind(X500NameStyleProvider.class).to(DefaultX500NameStyleProvider.class);
         bind(TimeStampTokenProvider.class).to(HttpTimeStampTokenProvider.class);
+        // A single instance per profile so that connections to the TSA are reused.
+        bind(HttpTimeStampTokenProvider.class).in(Scopes.SINGLETON);
         bind(HttpTsaConfiguration.class).toProvider(() -> {
             throw new IllegalStateException("HttpTsaConfiguration must be configured in the profile in order to use an HTTP-based time-stamp token provider.");
         });
@@ -79,7 +82,9 @@ class DefaultProductionBindingsModule extends AbstractModule
         // PropertiesDataObjectsGenerator is not configurable but the individual
         // generators may have dependencies.
         bind(PropertiesDataObjectsGenerator.class).to(PropertiesDataObjectsGeneratorImpl.class);
-        bind(PropertyDataGeneratorsMapper.class).to(PropertyDataGeneratorsMapperImpl.class);
+        bind(PropertyDataGeneratorsMapper.class).to(PropertyDataGeneratorsMapperImpl.class).in(Scopes.SINGLETON);
+        // Shared by the certificate references generators of the profile.
+        bind(CertRefsCache.class).in(Scopes.SINGLETON);
         // Ensure empty set when no bindings are defined
         Multibinder.newSetBinder(binder(), CustomPropertiesDataObjsStructureVerifier.class);
 
@@ -0,0 +1,130 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import java.net.URI;
+import java.nio.file.Path;
+import xades4j.properties.DataObjectDesc;
+
+/**
+ * Represents a reference to a data object whose contents are stored in a local
+ * file. The resulting {@code ds:Reference} has the given URI, but the data is
+ * read from the file when the reference is digested, which enables detached
+ * signatures over large files without registering a resource resolver.
+ * <p>
+ * If no transforms are specified, the file is digested by mapping it into
+ * memory, instead of being streamed through the XML-DSIG transforms pipeline.
+ * Furthermore, if a digest value is supplied, the file isn't read to produce
+ * the {@code ds:Reference}.
+ *
+ * @author Luís
+ */
+public final class FileDataObjectReference extends DataObjectDesc
+{
+    private final String uri;
+    private final Path file;
+    private String type;
+    private String digestAlgorithmUri;
+    private byte[] digestValue;
+
+    /**
+     * Creates a new file data object reference. Additional information is
+     * added through the different methods in {@link DataObjectDesc}.
+     *
+     * @param uri  the URI that identifies the data object on the signature
+     * @param file the local file that contains the data object
+     *
+     * @throws NullPointerException if {@code uri} or {@code file} are {@code null}
+     * @throws IllegalArgumentException if {@code uri} is not RFC 2396 compliant
+     */
+    public FileDataObjectReference(String uri, Path file)
+    {
+        if (null == uri || null == file)
+        {
+            throw new NullPointerException("URI and file cannot be null");
+        }
+        this.uri = URI.create(uri.trim()).toString();
+        this.file = file;
+    }
+
+    /**
+     * Sets the type of the {@code ds:Reference}.
+     *
+     * @param type the type URI
+     * @return the current instance
+     */
+    public FileDataObjectReference withType(String type)
+    {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Supplies a digest value of the file contents that was previously computed
+     * (for instance, when the file was stored). The resulting {@code ds:Reference}
+     * uses the given value. If transforms are specified, the digest value must
+     * have been computed over their output.
+     * <p>
+     * The digest algorithm must be the one configured for data object references
+     * (see {@link SignatureAlgorithms#withDigestAlgorithmForDataObjectReferences(String)});
+     * otherwise, signature production fails.
+     * <p>
+     * The value is not validated against the file contents. The file is still
+     * read if the reference is covered by data object time-stamps.
+     *
+     * @param digestAlgorithmUri the URI of the digest algorithm
+     * @param digestValue        the digest value
+     * @return the current instance
+     *
+     * @throws NullPointerException if any parameter is {@code null}
+     */
+    public FileDataObjectReference withDigest(String digestAlgorithmUri, byte[] digestValue)
+    {
+        if (null == digestAlgorithmUri || null == digestValue)
+        {
+            throw new NullPointerException("Digest algorithm and value cannot be null");
+        }
+        this.digestAlgorithmUri = digestAlgorithmUri;
+        this.digestValue = digestValue.clone();
+        return this;
+    }
+
+    String getUri()
+    {
+        return uri;
+    }
+
+    Path getFile()
+    {
+        return file;
+    }
+
+    String getType()
+    {
+        return type;
+    }
+
+    String getDigestAlgorithmUri()
+    {
+        return digestAlgorithmUri;
+    }
+
+    byte[] getDigestValue()
+    {
+        return digestValue;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import xades4j.XAdES4jException;
+
+/**
+ * Thrown when completing a prepared signature if the supplied signature value
+ * doesn't verify over its {@code ds:SignedInfo} with the signing certificate's key
+ * (for instance, because it isn't encoded as defined in XML-DSIG).
+ * @see XadesSigner#complete(PreparedSignature, byte[])
+ * @author Luís
+ */
+public class InvalidSignatureValueException extends XAdES4jException
+{
+    public InvalidSignatureValueException()
+    {
+        this(null);
+    }
+
+    public InvalidSignatureValueException(Throwable cause)
+    {
+        super("The signature value is not valid for the prepared signature", cause);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * A signature whose {@code ds:SignedInfo} is complete but that wasn't signed yet.
+ * This is the outcome of the first phase of two-phase signature production, in
+ * which the signature value is computed outside of the signer (for instance, on
+ * a remote signing service or HSM).
+ * <p>
+ * The signature element is already appended to the document. It is finished
+ * with {@link XadesSigner#complete(PreparedSignature, byte[])}, on the same
+ * signer that prepared it, or removed with {@link #discard()}. An instance can
+ * be completed or discarded only once.
+ *
+ * @see XadesSigner#prepare(SignedDataObjects, org.w3c.dom.Node, XadesSigner.SignatureAppendingStrategy)
+ * @author Luís
+ */
+public final class PreparedSignature
+{
+    private final XadesSigner signer;
+    private final SignerBES.SignatureInProgress signatureInProgress;
+    private final byte[] signedInfoOctets;
+    private final String signatureAlgorithmUri;
+    private final X509Certificate signingCertificate;
+    private boolean finished;
+
+    PreparedSignature(
+            XadesSigner signer,
+            SignerBES.SignatureInProgress signatureInProgress,
+            byte[] signedInfoOctets,
+            String signatureAlgorithmUri,
+            X509Certificate signingCertificate)
+    {
+        this.signer = signer;
+        this.signatureInProgress = signatureInProgress;
+        this.signedInfoOctets = signedInfoOctets;
+        this.signatureAlgorithmUri = signatureAlgorithmUri;
+        this.signingCertificate = signingCertificate;
+    }
+
+    /**
+     * Gets the canonicalized {@code ds:SignedInfo}. These are the octets that
+     * must be signed with the algorithm returned by {@link #getSignatureAlgorithmUri()}.
+     * @return the canonicalized {@code ds:SignedInfo}
+     */
+    public byte[] getSignedInfoOctets()
+    {
+        return signedInfoOctets.clone();
+    }
+
+    /**
+     * Gets the URI of the signature algorithm on {@code ds:SignatureMethod}.
+     * @return the signature algorithm URI
+     */
+    public String getSignatureAlgorithmUri()
+    {
+        return signatureAlgorithmUri;
+    }
+
+    /**
+     * Gets the certificate whose key must be used to sign.
+     * @return the signing certificate
+     */
+    public X509Certificate getSigningCertificate()
+    {
+        return signingCertificate;
+    }
+
+    /**
+     * Removes the signature from the document. Used when the signature value
+     * can't be obtained.
+     * @throws IllegalStateException if the signature was already completed or discarded
+     */
+    public void discard()
+    {
+        finish().revert();
+    }
+
+    /**
+     * Gets the signature in progress, for completion by the given signer. The
+     * signature is only marked as completed by {@link #markCompleted()}, so that
+     * it can still be completed or discarded if the completion fails beforehand.
+     */
+    SignerBES.SignatureInProgress getSignatureInProgress(XadesSigner completingSigner)
+    {
+        if (completingSigner != this.signer)
+        {
+            throw new IllegalArgumentException("The signature was prepared by a different signer");
+        }
+        synchronized (this)
+        {
+            checkNotFinished();
+        }
+        return this.signatureInProgress;
+    }
+
+    /**
+     * Marks the signature as completed.
+     * @throws IllegalStateException if the signature was already completed or discarded
+     */
+    void markCompleted()
+    {
+        finish();
+    }
+
+    private synchronized SignerBES.SignatureInProgress finish()
+    {
+        checkNotFinished();
+        this.finished = true;
+        return this.signatureInProgress;
+    }
+
+    private void checkNotFinished()
+    {
+        if (this.finished)
+        {
+            throw new IllegalStateException("The signature was already completed or discarded");
+        }
+    }
+}
@@ -25,13 +25,17 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import xades4j.XAdES4jXMLSigException;
 import xades4j.properties.DataObjectDesc;
+import xades4j.properties.QualifyingProperty;
+import xades4j.providers.TimeStampTokenProvider.TimeStampTokenRes;
 import xades4j.utils.DOMHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static xades4j.production.SignerBES.idFor;
 import static xades4j.utils.StringUtils.isNullOrEmptyString;
@@ -51,6 +55,7 @@ public final class PropertiesDataGenerationContext
     private final Document sigDocument;
     private final ElementIdGenerator idGenerator;
     private XMLSignature targetXmlSignature;
+    private final Map<QualifyingProperty, CompletableFuture<TimeStampTokenRes>> prefetchedTimeStampTokens = new IdentityHashMap<>();
 
     /**
      * A simple constructor to be used when only unsigned signature properties
@@ -170,6 +175,28 @@ public final class PropertiesDataGenerationContext
         this.targetXmlSignature = targetXmlSignature;
     }
 
+    /**
+     * Registers a time-stamp token that was requested for a property ahead of its
+     * data generation (e.g. asynchronously).
+     */
+    synchronized void setPrefetchedTimeStampToken(
+            QualifyingProperty prop,
+            CompletableFuture<TimeStampTokenRes> token)
+    {
+        this.prefetchedTimeStampTokens.put(prop, token);
+    }
+
+    /**
+     * Gets (and removes) the time-stamp token that was requested for a property
+     * ahead of its data generation.
+     *
+     * @return the token or {@code null} if no token was requested for the property
+     */
+    synchronized CompletableFuture<TimeStampTokenRes> takePrefetchedTimeStampToken(QualifyingProperty prop)
+    {
+        return this.prefetchedTimeStampTokens.remove(prop);
+    }
+
     /**
      * Creates a DOM {@code Element} in the signature's document. This can be useful
      * when generating {@link xades4j.properties.data.GenericDOMData} data objects.
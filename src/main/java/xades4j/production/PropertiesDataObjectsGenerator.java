@@ -21,6 +21,8 @@ import xades4j.properties.SignedProperties;
 import xades4j.properties.data.PropertyDataStructureException;
 import xades4j.properties.data.SigAndDataObjsPropertiesData;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  *
  * @author Luís
@@ -34,4 +36,16 @@ interface PropertiesDataObjectsGenerator
     SigAndDataObjsPropertiesData generateUnsignedPropertiesData(
             UnsignedProperties unsignedProps,
             PropertiesDataGenerationContext ctx) throws PropertyDataGenerationException, PropertyDataStructureException;
+
+    /**
+     * Starts any asynchronous work needed to generate the data objects for the
+     * given unsigned properties (namely, getting time-stamp tokens). The results
+     * are kept on the context and used by {@code generateUnsignedPropertiesData}.
+     *
+     * @return a future that completes when the work is done; it never completes
+     *      exceptionally, as errors are reported when the data objects are generated
+     */
+    CompletableFuture<Void> prefetchUnsignedPropertiesData(
+            UnsignedProperties unsignedProps,
+            PropertiesDataGenerationContext ctx);
 }
@@ -21,6 +21,8 @@ import xades4j.properties.SignedProperties;
 import jakarta.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import xades4j.properties.QualifyingProperty;
 import xades4j.utils.SigAndDataObjPropsPair;
 import xades4j.properties.data.PropertiesDataObjectsStructureVerifier;
@@ -64,6 +66,17 @@ class PropertiesDataObjectsGeneratorImpl implements PropertiesDataObjectsGenerat
         return genPropsData(unsignedProps, ctx);
     }
 
+    @Override
+    public CompletableFuture<Void> prefetchUnsignedPropertiesData(
+            UnsignedProperties unsignedProps,
+            PropertiesDataGenerationContext ctx)
+    {
+        List<CompletableFuture<Void>> prefetches = new ArrayList<>();
+        doPrefetchPropsData(unsignedProps.getSigProps(), ctx, prefetches);
+        doPrefetchPropsData(unsignedProps.getDataObjProps(), ctx, prefetches);
+        return CompletableFuture.allOf(prefetches.toArray(new CompletableFuture<?>[0]));
+    }
+
     /****************************************************************************/
     private SigAndDataObjsPropertiesData genPropsData(
             SigAndDataObjPropsPair<? extends QualifyingProperty, ? extends QualifyingProperty> props,
@@ -93,4 +106,29 @@ class PropertiesDataObjectsGeneratorImpl implements PropertiesDataObjectsGenerat
         dataObjectsStructureVerifier.verifiyPropertiesDataStructure(propsData);
         return propsData;
     }
+
+    private <TProp extends QualifyingProperty> void doPrefetchPropsData(
+            Collection<TProp> props,
+            PropertiesDataGenerationContext ctx,
+            List<CompletableFuture<Void>> prefetches)
+    {
+        for (TProp p : props)
+        {
+            PropertyDataObjectGenerator<TProp> dataGen;
+            try
+            {
+                dataGen = this.propsDataGensMapper.getGenerator(p);
+            }
+            catch (PropertyDataGeneratorNotAvailableException ex)
+            {
+                // Reported when the data objects are generated.
+                continue;
+            }
+
+            if (dataGen instanceof DataGenBaseTimeStamp)
+            {
+                prefetches.add(((DataGenBaseTimeStamp<TProp>) dataGen).prefetchTimeStampToken(p, ctx));
+            }
+        }
+    }
 }
@@ -18,25 +18,31 @@ package xades4j.production;
 
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.Provider;
 import com.google.inject.TypeLiteral;
 import com.google.inject.util.Types;
 import jakarta.inject.Inject;
 import xades4j.properties.QualifyingProperty;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Resolves the generators through the injector.
+ * Resolves the generators through the injector. The provider for each property
+ * type is looked up once and reused afterwards.
  * @author Luís
  */
 class PropertyDataGeneratorsMapperImpl implements PropertyDataGeneratorsMapper
 {
     private final Injector injector;
+    private final ConcurrentMap<Class<?>, Provider<?>> providers;
 
     @Inject
     public PropertyDataGeneratorsMapperImpl(Injector injector)
     {
         this.injector = injector;
+        this.providers = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -45,11 +51,17 @@ class PropertyDataGeneratorsMapperImpl implements PropertyDataGeneratorsMapper
     {
         try
         {
-            ParameterizedType pt = Types.newParameterizedType(PropertyDataObjectGenerator.class, p.getClass());
-            return (PropertyDataObjectGenerator<TProp>)injector.getInstance(Key.get(TypeLiteral.get(pt)));
+            Provider<?> provider = this.providers.computeIfAbsent(p.getClass(), this::lookupProvider);
+            return (PropertyDataObjectGenerator<TProp>)provider.get();
         } catch (RuntimeException ex)
         {
             throw new PropertyDataGeneratorNotAvailableException(p, ex);
         }
     }
+
+    private Provider<?> lookupProvider(Class<?> propClass)
+    {
+        ParameterizedType pt = Types.newParameterizedType(PropertyDataObjectGenerator.class, propClass);
+        return injector.getProvider(Key.get(TypeLiteral.get(pt)));
+    }
 }
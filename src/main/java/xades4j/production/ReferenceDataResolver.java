@@ -0,0 +1,170 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import org.apache.xml.security.parser.XMLParserException;
+import org.apache.xml.security.signature.XMLSignatureDigestInput;
+import org.apache.xml.security.signature.XMLSignatureFileInput;
+import org.apache.xml.security.signature.XMLSignatureInput;
+import org.apache.xml.security.utils.XMLUtils;
+import org.apache.xml.security.utils.resolver.ResourceResolverContext;
+import org.apache.xml.security.utils.resolver.ResourceResolverException;
+import org.apache.xml.security.utils.resolver.ResourceResolverSpi;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import xades4j.utils.MessageDigestUtils;
+
+/**
+ * Resource resolver bound to a single {@code ds:Reference} element being
+ * produced. It either provides the final digest value of the referenced data,
+ * which is used by XML-DSIG instead of digesting it, or the contents of a local
+ * file to be transformed.
+ * <p>
+ * When the digest value is provided for a local file, the file contents are
+ * still available to other consumers of the reference data, such as the inputs
+ * of data object time-stamps. When only the digest value is known, the reference
+ * data has no contents.
+ *
+ * @author Luís
+ */
+final class ReferenceDataResolver extends ResourceResolverSpi
+{
+    private final Element reference;
+    private final Path file;
+    private final MessageDigest digestEngine;
+    private volatile byte[] digestValue;
+
+    private ReferenceDataResolver(Element reference, Path file, MessageDigest digestEngine, byte[] digestValue)
+    {
+        this.reference = reference;
+        this.file = file;
+        this.digestEngine = digestEngine;
+        this.digestValue = digestValue;
+    }
+
+    static ReferenceDataResolver forContents(Element reference, Path file)
+    {
+        return new ReferenceDataResolver(reference, file, null, null);
+    }
+
+    static ReferenceDataResolver forDigest(Element reference, Path file, MessageDigest digestEngine)
+    {
+        return new ReferenceDataResolver(reference, file, digestEngine, null);
+    }
+
+    static ReferenceDataResolver forDigest(Element reference, Path file, byte[] digestValue)
+    {
+        return new ReferenceDataResolver(reference, file, null, digestValue);
+    }
+
+    static ReferenceDataResolver forDigest(Element reference, byte[] digestValue)
+    {
+        return new ReferenceDataResolver(reference, null, null, digestValue);
+    }
+
+    @Override
+    public XMLSignatureInput engineResolveURI(ResourceResolverContext context) throws ResourceResolverException
+    {
+        try
+        {
+            if (this.digestEngine == null && this.digestValue == null)
+            {
+                return new XMLSignatureFileInput(this.file);
+            }
+
+            byte[] digest = this.digestValue;
+            if (digest == null)
+            {
+                // The reference may be dereferenced more than once (e.g. for time-stamps),
+                // so the file is digested only the first time.
+                digest = MessageDigestUtils.digestFile(this.digestEngine, this.file);
+                this.digestValue = digest;
+            }
+
+            String encodedDigest = Base64.getEncoder().encodeToString(digest);
+            return this.file == null
+                    ? new XMLSignatureDigestInput(encodedDigest)
+                    : new FileDigestInput(encodedDigest, this.file);
+        }
+        catch (IOException ex)
+        {
+            throw new ResourceResolverException(ex, context.uriToResolve, context.baseUri, "generic.EmptyMessage");
+        }
+    }
+
+    @Override
+    public boolean engineCanResolveURI(ResourceResolverContext context)
+    {
+        return context.attr != null && context.attr.getOwnerElement() == this.reference;
+    }
+
+    /**
+     * Reference data whose digest value is used by XML-DSIG, but whose contents
+     * can still be read from the file.
+     */
+    private static final class FileDigestInput extends XMLSignatureInput
+    {
+        private final String digest;
+        private final Path file;
+
+        FileDigestInput(String digest, Path file)
+        {
+            this.digest = digest;
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasUnprocessedInput()
+        {
+            return true;
+        }
+
+        @Override
+        public InputStream getUnprocessedInput() throws IOException
+        {
+            return Files.newInputStream(this.file);
+        }
+
+        @Override
+        protected Node convertToNode() throws XMLParserException, IOException
+        {
+            try (InputStream is = getUnprocessedInput())
+            {
+                return XMLUtils.read(is, isSecureValidation());
+            }
+        }
+
+        @Override
+        public void write(OutputStream os, boolean c14n11) throws IOException
+        {
+            Files.copy(this.file, os);
+        }
+
+        @Override
+        public String getPreCalculatedDigest()
+        {
+            return this.digest;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.production;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.apache.xml.security.exceptions.XMLSecurityException;
+import org.apache.xml.security.signature.Reference;
+import org.apache.xml.security.signature.XMLSignatureException;
+import org.apache.xml.security.signature.XMLSignatureInput;
+import org.apache.xml.security.transforms.Transforms;
+import org.apache.xml.security.utils.Constants;
+import org.apache.xml.security.utils.DigesterOutputStream;
+import org.apache.xml.security.utils.UnsyncBufferedOutputStream;
+import org.apache.xml.security.utils.XMLUtils;
+import xades4j.utils.DOMHelper;
+import xades4j.utils.FutureUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Generates the digest values of references, digesting the references whose data
+ * is outside of the signature's document concurrently.
+ * <p>
+ * Only references without transforms are digested on the executor; their data is
+ * resolved and digested on the tasks and the {@code DigestValue} elements are set
+ * on the calling thread afterwards. The remaining references (e.g. same-document
+ * references, which may change the DOM while being processed) are digested by
+ * XML-DSIG on the calling thread, before any task is started.
+ * <p>
+ * The calling thread blocks until all the tasks finish. If it is itself a thread
+ * of a bounded executor used for the tasks, they may never run; see
+ * {@link BasicSignatureOptions#referencesDigestExecutor(Executor)}.
+ *
+ * @author Luís
+ */
+final class ReferencesDigester
+{
+    private ReferencesDigester()
+    {
+    }
+
+    static void generateDigestValues(List<Reference> references, Executor executor) throws XMLSecurityException
+    {
+        List<Reference> concurrentReferences = new ArrayList<>(references.size());
+        for (Reference r : references)
+        {
+            if (canDigestConcurrently(r))
+            {
+                concurrentReferences.add(r);
+            }
+            else
+            {
+                r.generateDigestValue();
+            }
+        }
+
+        if (concurrentReferences.size() < 2)
+        {
+            for (Reference r : concurrentReferences)
+            {
+                r.generateDigestValue();
+            }
+            return;
+        }
+
+        // The tasks read the Reference elements.
+        for (Reference r : concurrentReferences)
+        {
+            DOMHelper.expandSubtree(r.getElement());
+        }
+
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>(concurrentReferences.size());
+        for (Reference r : concurrentReferences)
+        {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return calculateDigest(r);
+                }
+                catch (XMLSecurityException ex)
+                {
+                    throw new CompletionException(ex);
+                }
+            }, executor));
+        }
+
+        List<byte[]> digests = FutureUtils.joinAll(futures, XMLSecurityException.class);
+
+        for (int i = 0; i < digests.size(); i++)
+        {
+            Reference r = concurrentReferences.get(i);
+            if (null == digests.get(i))
+            {
+                r.generateDigestValue();
+            }
+            else
+            {
+                // Equivalent to what Reference.generateDigestValue does with the value it computes.
+                DOMHelper.getChildElementsByTagNameNS(r.getElement(), Constants.SignatureSpecNS, Constants._TAG_DIGESTVALUE)
+                        .get(0)
+                        .setTextContent(XMLUtils.encodeToString(digests.get(i)));
+            }
+        }
+    }
+
+    private static boolean canDigestConcurrently(Reference r) throws XMLSecurityException
+    {
+        String uri = r.getURI();
+        if (uri != null && (uri.isEmpty() || uri.charAt(0) == '#'))
+        {
+            return false;
+        }
+        Transforms transforms = r.getTransforms();
+        return null == transforms || transforms.getLength() == 0;
+    }
+
+    /**
+     * Digests the data of a reference without transforms, as Reference.generateDigestValue
+     * does.
+     *
+     * @return the digest value, or {@code null} if the data was resolved to nodes; these
+     *      are left to XML-DSIG, which may use different canonicalization when signing
+     */
+    private static byte[] calculateDigest(Reference r) throws XMLSecurityException
+    {
+        XMLSignatureInput input = r.getContentsBeforeTransformation();
+        if (input.getPreCalculatedDigest() != null)
+        {
+            return XMLUtils.decode(input.getPreCalculatedDigest());
+        }
+        if (!input.hasUnprocessedInput())
+        {
+            return null;
+        }
+
+        MessageDigestAlgorithm mda = r.getMessageDigestAlgorithm();
+        try (InputStream is = input.getUnprocessedInput();
+             DigesterOutputStream digesterOs = new DigesterOutputStream(mda);
+             OutputStream os = new UnsyncBufferedOutputStream(digesterOs))
+        {
+            is.transferTo(os);
+            os.flush();
+            return digesterOs.getDigestValue();
+        }
+        catch (IOException ex)
+        {
+            throw new XMLSignatureException(ex);
+        }
+    }
+}
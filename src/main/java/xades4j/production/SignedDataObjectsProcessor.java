@@ -25,9 +25,11 @@ import org.apache.xml.security.signature.XMLSignatureException;
 import org.apache.xml.security.transforms.Transforms;
 import org.apache.xml.security.utils.resolver.ResourceResolverSpi;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import xades4j.UnsupportedAlgorithmException;
 import xades4j.algorithms.Algorithm;
 import xades4j.properties.DataObjectDesc;
+import xades4j.providers.MessageDigestEngineProvider;
 import xades4j.utils.ResolverAnonymous;
 import xades4j.utils.TransformUtils;
 import xades4j.xml.marshalling.algorithms.AlgorithmsParametersMarshallingProvider;
@@ -63,12 +65,17 @@ final class SignedDataObjectsProcessor
 
     private final SignatureAlgorithms signatureAlgorithms;
     private final AlgorithmsParametersMarshallingProvider algorithmsParametersMarshaller;
+    private final MessageDigestEngineProvider messageDigestProvider;
 
     @Inject
-    SignedDataObjectsProcessor(SignatureAlgorithms signatureAlgorithms, AlgorithmsParametersMarshallingProvider algorithmsParametersMarshaller)
+    SignedDataObjectsProcessor(
+            SignatureAlgorithms signatureAlgorithms,
+            AlgorithmsParametersMarshallingProvider algorithmsParametersMarshaller,
+            MessageDigestEngineProvider messageDigestProvider)
     {
         this.signatureAlgorithms = signatureAlgorithms;
         this.algorithmsParametersMarshaller = algorithmsParametersMarshaller;
+        this.messageDigestProvider = messageDigestProvider;
     }
 
     /**
@@ -108,11 +115,6 @@ final class SignedDataObjectsProcessor
         Map<DataObjectDesc, Reference> referenceMappings = new IdentityHashMap<>(dataObjects.size());
         Set<Manifest> manifests = new HashSet<>();
 
-        for (ResourceResolverSpi resolver : resourceResolvers)
-        {
-            container.addResourceResolver(resolver);
-        }
-
         String digestMethodUri = this.signatureAlgorithms.getDigestAlgorithmForDataObjectReferences();
         /**/
         try
@@ -131,6 +133,17 @@ final class SignedDataObjectsProcessor
 
                     refUri = dataObjRef.getUri();
                     refType = dataObjRef.getType();
+                    checkSuppliedDigestAlgorithm(dataObjRef.getDigestAlgorithmUri(), digestMethodUri);
+                }
+                else if (dataObjDesc instanceof FileDataObjectReference)
+                {
+                    // The Reference uri and type are the ones specified on the object. The
+                    // data is provided by a resolver bound to the Reference (see below).
+                    FileDataObjectReference fileRef = (FileDataObjectReference) dataObjDesc;
+
+                    refUri = fileRef.getUri();
+                    refType = fileRef.getType();
+                    checkSuppliedDigestAlgorithm(fileRef.getDigestAlgorithmUri(), digestMethodUri);
                 }
                 else if (dataObjDesc instanceof EnvelopedXmlObject)
                 {
@@ -192,7 +205,7 @@ final class SignedDataObjectsProcessor
                 }
                 else
                 {
-                    throw new ClassCastException("Unsupported SignedDataObjectDesc. Must be one of DataObjectReference, EnvelopedXmlObject, EnvelopedManifest and AnonymousDataObjectReference");
+                    throw new ClassCastException("Unsupported SignedDataObjectDesc. Must be one of DataObjectReference, FileDataObjectReference, EnvelopedXmlObject, EnvelopedManifest and AnonymousDataObjectReference");
                 }
 
                 Transforms transforms = processTransforms(dataObjDesc, container.getDocument());
@@ -210,6 +223,12 @@ final class SignedDataObjectsProcessor
                 // need to check for duplicate entries on the map.
                 Reference ref = container.item(index);
                 referenceMappings.put(dataObjDesc, ref);
+
+                ResourceResolverSpi refResolver = createReferenceResolver(dataObjDesc, ref.getElement(), digestMethodUri);
+                if (refResolver != null)
+                {
+                    container.addResourceResolver(refResolver);
+                }
             }
 
         } catch (XMLSignatureException ex)
@@ -227,9 +246,69 @@ final class SignedDataObjectsProcessor
             throw new IllegalStateException(ex);
         }
 
+        // Added after the resolvers bound to specific References, which take precedence.
+        for (ResourceResolverSpi resolver : resourceResolvers)
+        {
+            container.addResourceResolver(resolver);
+        }
+
         return new Result(referenceMappings, manifests);
     }
 
+    /**
+     * Checks that a digest value supplied for a data object was computed with the
+     * algorithm used for data object references, if any digest value was supplied.
+     */
+    private static void checkSuppliedDigestAlgorithm(
+            String suppliedDigestMethodUri,
+            String digestMethodUri) throws UnsupportedAlgorithmException
+    {
+        if (suppliedDigestMethodUri != null && !suppliedDigestMethodUri.equals(digestMethodUri))
+        {
+            throw new UnsupportedAlgorithmException(
+                    "The supplied digest value must be computed with the digest algorithm for data object references (" + digestMethodUri + ")",
+                    suppliedDigestMethodUri);
+        }
+    }
+
+    /**
+     * Creates the resolver that provides the data for a {@code ds:Reference} whose
+     * data object is not dereferenced through its URI, if any.
+     */
+    private ResourceResolverSpi createReferenceResolver(
+            DataObjectDesc dataObjDesc,
+            Element refElement,
+            String digestMethodUri) throws UnsupportedAlgorithmException
+    {
+        if (dataObjDesc instanceof DataObjectReference)
+        {
+            byte[] digestValue = ((DataObjectReference) dataObjDesc).getDigestValue();
+            return digestValue == null ? null : ReferenceDataResolver.forDigest(refElement, digestValue);
+        }
+
+        if (!(dataObjDesc instanceof FileDataObjectReference))
+        {
+            return null;
+        }
+
+        FileDataObjectReference fileRef = (FileDataObjectReference) dataObjDesc;
+        if (fileRef.getDigestValue() != null)
+        {
+            return ReferenceDataResolver.forDigest(refElement, fileRef.getFile(), fileRef.getDigestValue());
+        }
+
+        if (!fileRef.getTransforms().isEmpty())
+        {
+            // The file contents have to go through the transforms pipeline.
+            return ReferenceDataResolver.forContents(refElement, fileRef.getFile());
+        }
+
+        return ReferenceDataResolver.forDigest(
+                refElement,
+                fileRef.getFile(),
+                this.messageDigestProvider.getEngine(digestMethodUri));
+    }
+
     private Transforms processTransforms(
             DataObjectDesc dataObjDesc,
             Document document) throws UnsupportedAlgorithmException
@@ -17,14 +17,18 @@
 package xades4j.production;
 
 import jakarta.inject.Inject;
+import org.apache.xml.security.algorithms.SignatureAlgorithm;
 import org.apache.xml.security.exceptions.XMLSecurityException;
 import org.apache.xml.security.signature.Manifest;
 import org.apache.xml.security.signature.ObjectContainer;
+import org.apache.xml.security.signature.Reference;
+import org.apache.xml.security.signature.SignedInfo;
 import org.apache.xml.security.signature.XMLSignature;
 import org.apache.xml.security.signature.XMLSignatureException;
 import org.apache.xml.security.transforms.Transforms;
 import org.apache.xml.security.utils.Constants;
 import org.apache.xml.security.utils.ElementProxy;
+import org.apache.xml.security.utils.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -52,11 +56,15 @@ import xades4j.xml.marshalling.SignedPropertiesMarshaller;
 import xades4j.xml.marshalling.UnsignedPropertiesMarshaller;
 import xades4j.xml.marshalling.algorithms.AlgorithmsParametersMarshallingProvider;
 
+import java.io.IOException;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static xades4j.utils.CanonicalizerUtils.checkC14NAlgorithm;
 
@@ -151,11 +159,151 @@ class SignerBES implements XadesSigner
             throw new IllegalArgumentException("Data objects list is empty");
         }
 
-        this.basicSignatureOptions.ensureValid();
+        return sign(signedDataObjects, referenceNode, appendingStrategy, getSigningKeyingData());
+    }
 
-        Document signatureDocument = DOMHelper.getOwnerDocument(referenceNode);
-        ElementIdGenerator idGenerator = this.idGeneratorFactory.create();
+    @Override
+    public final CompletableFuture<XadesSignatureResult> signAsync(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            Executor executor)
+    {
+        if (ObjectUtils.anyNull(signedDataObjects, referenceNode, appendingStrategy, executor))
+        {
+            throw new NullPointerException("One or more arguments are null");
+        }
+        if (signedDataObjects.isEmpty())
+        {
+            throw new IllegalArgumentException("Data objects list is empty");
+        }
+
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try
+                    {
+                        return getSigningKeyingData();
+                    }
+                    catch (XAdES4jException ex)
+                    {
+                        throw new CompletionException(ex);
+                    }
+                }, executor)
+                .thenCompose(keyingData -> signAsync(signedDataObjects, referenceNode, appendingStrategy, keyingData, executor));
+    }
+
+    @Override
+    public final List<BatchSignatureResult> signAll(
+            List<BatchSignatureRequest> requests,
+            Executor executor) throws XAdES4jException
+    {
+        if (null == requests || null == executor)
+        {
+            throw new NullPointerException("Requests and executor cannot be null");
+        }
+
+        // Shared by all the signatures in the batch.
+        SigningKeyingData keyingData = getSigningKeyingData();
+
+        List<CompletableFuture<BatchSignatureResult>> futures = new ArrayList<>(requests.size());
+        for (BatchSignatureRequest r : requests)
+        {
+            if (r.getSignedDataObjects().isEmpty())
+            {
+                futures.add(CompletableFuture.completedFuture(
+                        BatchSignatureResult.failure(new IllegalArgumentException("Data objects list is empty"))));
+                continue;
+            }
+
+            futures.add(signAsync(
+                    r.getSignedDataObjects(),
+                    r.getReferenceNode(),
+                    r.getAppendingStrategy(),
+                    keyingData,
+                    executor).handle((result, ex) -> {
+                if (null == ex)
+                {
+                    return BatchSignatureResult.success(result);
+                }
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof Exception)
+                {
+                    return BatchSignatureResult.failure((Exception) cause);
+                }
+                throw new CompletionException(cause);
+            }));
+        }
+
+        List<BatchSignatureResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<BatchSignatureResult> f : futures)
+        {
+            results.add(f.join());
+        }
+        return results;
+    }
+
+    @Override
+    public final PreparedSignature prepare(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy) throws XAdES4jException
+    {
+        if (ObjectUtils.anyNull(signedDataObjects, referenceNode, appendingStrategy))
+        {
+            throw new NullPointerException("One or more arguments are null");
+        }
+        if (signedDataObjects.isEmpty())
+        {
+            throw new IllegalArgumentException("Data objects list is empty");
+        }
+
+        List<X509Certificate> signingCertificateChain = getSigningKeyingData().signingCertificateChain;
+        SignatureInProgress sig = prepareSignature(signedDataObjects, referenceNode, appendingStrategy, signingCertificateChain);
+
+        byte[] signedInfoOctets;
+        SignedInfo signedInfo = sig.signature.getSignedInfo();
+        try
+        {
+            generateDigestValues(signedInfo);
+            signedInfoOctets = signedInfo.getCanonicalizedOctetStream();
+        }
+        catch (XMLSecurityException | IOException ex)
+        {
+            sig.revert();
+            throw new XAdES4jXMLSigException(ex.getMessage(), ex);
+        }
+
+        return new PreparedSignature(
+                this,
+                sig,
+                signedInfoOctets,
+                signedInfo.getSignatureMethodURI(),
+                signingCertificateChain.get(0));
+    }
+
+    @Override
+    public final XadesSignatureResult complete(
+            PreparedSignature preparedSignature,
+            byte[] signatureValue) throws XAdES4jException
+    {
+        if (null == preparedSignature || null == signatureValue)
+        {
+            throw new NullPointerException("Prepared signature and signature value cannot be null");
+        }
+
+        SignatureInProgress sig = preparedSignature.getSignatureInProgress(this);
+        // Checked before anything is generated over the value (e.g. a time-stamp).
+        verifySignatureValue(sig.signature, preparedSignature, signatureValue);
+        preparedSignature.markCompleted();
+        setSignatureValue(sig.signature, signatureValue);
+
+        sig.propsDataGenCtx.setTargetXmlSignature(sig.signature);
+        return completeSignature(sig);
+    }
 
+    private SigningKeyingData getSigningKeyingData() throws XAdES4jException
+    {
+        this.basicSignatureOptions.ensureValid();
 
         // Signing certificate chain (may contain only the signing certificate).
         List<X509Certificate> signingCertificateChain = this.keyingProvider.getSigningCertificateChain();
@@ -163,6 +311,129 @@ class SignerBES implements XadesSigner
         {
             throw new SigningCertChainException("Signing certificate not provided");
         }
+        return new SigningKeyingData(signingCertificateChain);
+    }
+
+    private XadesSignatureResult sign(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            SigningKeyingData keyingData) throws XAdES4jException
+    {
+        return completeSignature(beginSignature(signedDataObjects, referenceNode, appendingStrategy, keyingData));
+    }
+
+    /**
+     * Produces a signature without blocking while the unsigned properties data
+     * is prefetched (e.g. time-stamp tokens being obtained asynchronously). The
+     * remaining processing steps run on the given executor.
+     */
+    private CompletableFuture<XadesSignatureResult> signAsync(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            SigningKeyingData keyingData,
+            Executor executor)
+    {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try
+                    {
+                        return beginSignature(signedDataObjects, referenceNode, appendingStrategy, keyingData);
+                    }
+                    catch (XAdES4jException ex)
+                    {
+                        throw new CompletionException(ex);
+                    }
+                }, executor)
+                .thenCompose(sig -> {
+                    CompletableFuture<Void> prefetch;
+                    try
+                    {
+                        prefetch = this.propsDataObjectsGenerator.prefetchUnsignedPropertiesData(
+                                sig.qualifProps.getUnsignedProperties(),
+                                sig.propsDataGenCtx);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        sig.revert();
+                        throw ex;
+                    }
+                    return prefetch.thenApplyAsync(v -> {
+                        try
+                        {
+                            return completeSignature(sig);
+                        }
+                        catch (XAdES4jException ex)
+                        {
+                            throw new CompletionException(ex);
+                        }
+                    }, executor);
+                });
+    }
+
+    /**
+     * Creates and applies the signature, up to the generation of the unsigned
+     * properties.
+     */
+    private SignatureInProgress beginSignature(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            SigningKeyingData keyingData) throws XAdES4jException
+    {
+        SignatureInProgress sig = prepareSignature(
+                signedDataObjects,
+                referenceNode,
+                appendingStrategy,
+                keyingData.signingCertificateChain);
+
+        // Apply the signature
+        try
+        {
+            if (null == this.basicSignatureOptions.referencesDigestExecutor())
+            {
+                sig.signature.sign(keyingData.getSigningKey());
+            }
+            else
+            {
+                // XMLSignature.sign would digest all the references again.
+                SignedInfo signedInfo = sig.signature.getSignedInfo();
+                generateDigestValues(signedInfo);
+                SignatureAlgorithm signatureAlgorithm = signedInfo.getSignatureAlgorithm();
+                signatureAlgorithm.initSign(keyingData.getSigningKey());
+                signatureAlgorithm.update(signedInfo.getCanonicalizedOctetStream());
+                setSignatureValue(sig.signature, signatureAlgorithm.sign());
+            }
+        }
+        catch (XMLSecurityException | IOException ex)
+        {
+            sig.revert();
+            throw new XAdES4jXMLSigException(ex.getMessage(), ex);
+        }
+        catch (XAdES4jException ex)
+        {
+            sig.revert();
+            throw ex;
+        }
+
+        sig.propsDataGenCtx.setTargetXmlSignature(sig.signature);
+        return sig;
+    }
+
+    /**
+     * Creates the signature, up to the point where the signature value can be
+     * computed.
+     */
+    private SignatureInProgress prepareSignature(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            List<X509Certificate> signingCertificateChain) throws XAdES4jException
+    {
+        Document signatureDocument = DOMHelper.getOwnerDocument(referenceNode);
+        ElementIdGenerator idGenerator = this.idGeneratorFactory.create();
+
         X509Certificate signingCertificate = signingCertificateChain.get(0);
 
         // The XMLSignature (ds:Signature).
@@ -273,34 +544,94 @@ class SignerBES implements XadesSigner
                         digestAlgUri, ex);
             }
 
-            // Apply the signature
-            try
-            {
-                PrivateKey signingKey = keyingProvider.getSigningKey(signingCertificate);
-                signature.sign(signingKey);
-            }
-            catch (XMLSignatureException ex)
-            {
-                throw new XAdES4jXMLSigException(ex.getMessage(), ex);
-            }
+            return new SignatureInProgress(signature, qualifProps, qualifyingPropsElem, propsDataGenCtx, referenceNode, appendingStrategy);
+        }
+        catch (XAdES4jException ex)
+        {
+            appendingStrategy.revert(signature.getElement(), referenceNode);
+            throw ex;
+        }
+    }
 
+    /**
+     * Generates and marshals the unsigned properties of an applied signature.
+     */
+    private XadesSignatureResult completeSignature(SignatureInProgress sig) throws XAdES4jException
+    {
+        try
+        {
             /* Marshal unsigned properties */
             // Generate the unsigned properties data objects. The data objects structure
             // is verifier in the process.
-            propsDataGenCtx.setTargetXmlSignature(signature);
             SigAndDataObjsPropertiesData unsignedPropsData = this.propsDataObjectsGenerator.generateUnsignedPropertiesData(
-                    qualifProps.getUnsignedProperties(),
-                    propsDataGenCtx);
+                    sig.qualifProps.getUnsignedProperties(),
+                    sig.propsDataGenCtx);
             // Marshal the unsigned properties to the final QualifyingProperties node.
-            this.unsignedPropsMarshaller.marshal(unsignedPropsData, qualifyingPropsElem);
+            this.unsignedPropsMarshaller.marshal(unsignedPropsData, sig.qualifyingPropsElem);
         }
         catch (XAdES4jException ex)
         {
-            appendingStrategy.revert(signature.getElement(), referenceNode);
+            sig.revert();
             throw ex;
         }
 
-        return new XadesSignatureResult(signature, qualifProps);
+        return new XadesSignatureResult(sig.signature, sig.qualifProps);
+    }
+
+    /**
+     * A signature whose unsigned properties weren't generated yet. It may not have
+     * been applied yet (two-phase production).
+     */
+    static final class SignatureInProgress
+    {
+        final XMLSignature signature;
+        final QualifyingProperties qualifProps;
+        final Element qualifyingPropsElem;
+        final PropertiesDataGenerationContext propsDataGenCtx;
+        final Node referenceNode;
+        final SignatureAppendingStrategy appendingStrategy;
+
+        SignatureInProgress(
+                XMLSignature signature,
+                QualifyingProperties qualifProps,
+                Element qualifyingPropsElem,
+                PropertiesDataGenerationContext propsDataGenCtx,
+                Node referenceNode,
+                SignatureAppendingStrategy appendingStrategy)
+        {
+            this.signature = signature;
+            this.qualifProps = qualifProps;
+            this.qualifyingPropsElem = qualifyingPropsElem;
+            this.propsDataGenCtx = propsDataGenCtx;
+            this.referenceNode = referenceNode;
+            this.appendingStrategy = appendingStrategy;
+        }
+
+        void revert()
+        {
+            this.appendingStrategy.revert(this.signature.getElement(), this.referenceNode);
+        }
+    }
+
+
+    /**
+     * The signing certificate chain. The corresponding key is requested to the
+     * {@code KeyingDataProvider} for each signature, on the thread that produces
+     * it; providers may cache the key themselves.
+     */
+    private final class SigningKeyingData
+    {
+        private final List<X509Certificate> signingCertificateChain;
+
+        SigningKeyingData(List<X509Certificate> signingCertificateChain)
+        {
+            this.signingCertificateChain = signingCertificateChain;
+        }
+
+        PrivateKey getSigningKey() throws XAdES4jException
+        {
+            return keyingProvider.getSigningKey(this.signingCertificateChain.get(0));
+        }
     }
 
     private String getDigestAlgUri()
@@ -351,21 +682,105 @@ class SignerBES implements XadesSigner
         return signature;
     }
 
-    private static void digestManifests(Iterable<Manifest> manifests) throws XAdES4jXMLSigException
+    private void digestManifests(Iterable<Manifest> manifests) throws XAdES4jXMLSigException
     {
+        Executor digestExecutor = this.basicSignatureOptions.referencesDigestExecutor();
         try
         {
+            if (null == digestExecutor)
+            {
+                for (Manifest m : manifests)
+                {
+                    m.generateDigestValues();
+                }
+                return;
+            }
+
+            // Manifests are independent; their references are digested together.
+            List<Reference> references = new ArrayList<>();
             for (Manifest m : manifests)
             {
-                m.generateDigestValues();
+                for (int i = 0; i < m.getLength(); i++)
+                {
+                    references.add(m.item(i));
+                }
             }
+            ReferencesDigester.generateDigestValues(references, digestExecutor);
         }
-        catch (XMLSignatureException ex)
+        catch (XMLSecurityException ex)
         {
             throw new XAdES4jXMLSigException("Error digesting manifest", ex);
         }
     }
 
+    private void generateDigestValues(SignedInfo signedInfo) throws XMLSecurityException
+    {
+        Executor digestExecutor = this.basicSignatureOptions.referencesDigestExecutor();
+        if (null == digestExecutor)
+        {
+            signedInfo.generateDigestValues();
+            return;
+        }
+
+        List<Reference> references = new ArrayList<>(signedInfo.getLength());
+        for (int i = 0; i < signedInfo.getLength(); i++)
+        {
+            references.add(signedInfo.item(i));
+        }
+        ReferencesDigester.generateDigestValues(references, digestExecutor);
+    }
+
+    private static void verifySignatureValue(
+            XMLSignature signature,
+            PreparedSignature preparedSignature,
+            byte[] signatureValue) throws XAdES4jException
+    {
+        SignatureAlgorithm signatureAlgorithm;
+        try
+        {
+            signatureAlgorithm = signature.getSignedInfo().getSignatureAlgorithm();
+            signatureAlgorithm.initVerify(preparedSignature.getSigningCertificate().getPublicKey());
+            signatureAlgorithm.update(preparedSignature.getSignedInfoOctets());
+        }
+        catch (XMLSecurityException ex)
+        {
+            throw new XAdES4jXMLSigException(ex.getMessage(), ex);
+        }
+
+        boolean valid;
+        try
+        {
+            valid = signatureAlgorithm.verify(signatureValue);
+        }
+        catch (XMLSecurityException ex)
+        {
+            // E.g. an (EC)DSA value that isn't in the XML-DSIG format.
+            throw new InvalidSignatureValueException(ex);
+        }
+        if (!valid)
+        {
+            throw new InvalidSignatureValueException();
+        }
+    }
+
+    private static void setSignatureValue(XMLSignature signature, byte[] signatureValue)
+    {
+        // Equivalent to what XMLSignature.sign does with the value it computes
+        // (XMLSignature.setSignatureValueElement on xmlsec 4.0), including the line
+        // breaks around values longer than 76 characters. This has to be reviewed
+        // when updating xmlsec; SignerBESTest compares the two outputs.
+        Element signatureValueElem = DOMHelper.getChildElementsByTagNameNS(
+                signature.getElement(),
+                Constants.SignatureSpecNS, Constants._TAG_SIGNATUREVALUE
+        ).get(0);
+        String base64SignatureValue = XMLUtils.encodeToString(signatureValue);
+        if (base64SignatureValue.length() > 76 && !XMLUtils.ignoreLineBreaks())
+        {
+            base64SignatureValue = "\n" + base64SignatureValue + "\n";
+        }
+        signatureValueElem.setTextContent(base64SignatureValue);
+    }
+
     /**
      * Override in subclasses to collect the signature properties that are mandatory
      * in the corresponding format.
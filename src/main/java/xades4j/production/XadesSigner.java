@@ -20,6 +20,12 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import xades4j.XAdES4jException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 /**
  * Interface for a producer of signatures. The features of the produced signatures
  * depend on the profile configuration.
@@ -86,4 +92,170 @@ public interface XadesSigner
             SignedDataObjects signedDataObjects,
             Node referenceNode,
             SignatureAppendingStrategy appendingStrategy) throws XAdES4jException;
+
+    /**
+     * Asynchronously applies a signature over a set of data objects and appends it
+     * to the DOM tree using the given strategy and reference node. The signature is
+     * produced on the given executor.
+     * <p>
+     * On the signers created by {@link XadesSigningProfile}, if the configured
+     * {@link xades4j.providers.TimeStampTokenProvider} is an
+     * {@link xades4j.providers.AsyncTimeStampTokenProvider}, no thread is held
+     * while the time-stamp tokens for the unsigned properties (e.g. the XAdES-T
+     * signature time-stamp) are being obtained. This allows a small executor to
+     * have many signatures in progress at once.
+     * <p>
+     * If the executor runs tasks concurrently, the providers configured on the
+     * profile must be thread-safe and concurrent signatures should target different
+     * DOM documents. The executor shouldn't be the one configured on
+     * {@link BasicSignatureOptions#referencesDigestExecutor(Executor)} if it is bounded.
+     * <p>
+     * The default implementation runs {@link #sign(SignedDataObjects, Node, SignatureAppendingStrategy)}
+     * on the given executor, holding a thread while the time-stamp tokens are obtained.
+     * @param signedDataObjects the data objects to be signed
+     * @param referenceNode the node used as reference for the appending strategy
+     * @param appendingStrategy the appending strategy
+     * @param executor the executor used to produce the signature
+     * @return a future for the signature result, which is completed exceptionally
+     *      with a {@link XAdES4jException} if an error occurs
+     * @see SignatureAppendingStrategies
+     */
+    default CompletableFuture<XadesSignatureResult> signAsync(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy,
+            Executor executor)
+    {
+        if (null == executor)
+        {
+            throw new NullPointerException("Executor cannot be null");
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return sign(signedDataObjects, referenceNode, appendingStrategy);
+            }
+            catch (XAdES4jException ex)
+            {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * Applies signatures over multiple sets of data objects. The work that doesn't
+     * depend on the data objects (such as getting the signing certificate chain
+     * from the {@link xades4j.providers.KeyingDataProvider}) is done once for the
+     * whole batch; the signatures are then produced on the given executor. The
+     * signing key is obtained for each signature, on the thread that produces it.
+     * <p>
+     * If the executor runs tasks concurrently, the providers configured on the
+     * profile must be thread-safe and each request should target a different DOM
+     * document. The executor shouldn't be the one configured on
+     * {@link BasicSignatureOptions#referencesDigestExecutor(Executor)} if it is bounded.
+     * <p>
+     * This method blocks until all the signatures are handled.
+     * <p>
+     * The default implementation doesn't share any work: each request is handled
+     * on the given executor by {@link #sign(SignedDataObjects, Node, SignatureAppendingStrategy)}.
+     * @param requests the signatures to produce
+     * @param executor the executor used to produce the signatures
+     * @return the result of each signature, in the same order as {@code requests}
+     * @throws XAdES4jException if an error occurs on the work shared by all the
+     *      signatures; errors on individual signatures are reported on the corresponding
+     *      {@link BatchSignatureResult}
+     */
+    default List<BatchSignatureResult> signAll(
+            List<BatchSignatureRequest> requests,
+            Executor executor) throws XAdES4jException
+    {
+        if (null == requests || null == executor)
+        {
+            throw new NullPointerException("Requests and executor cannot be null");
+        }
+
+        List<CompletableFuture<BatchSignatureResult>> futures = new ArrayList<>(requests.size());
+        for (BatchSignatureRequest r : requests)
+        {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return BatchSignatureResult.success(sign(
+                            r.getSignedDataObjects(),
+                            r.getReferenceNode(),
+                            r.getAppendingStrategy()));
+                }
+                catch (XAdES4jException | RuntimeException ex)
+                {
+                    return BatchSignatureResult.failure(ex);
+                }
+            }, executor));
+        }
+
+        List<BatchSignatureResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<BatchSignatureResult> f : futures)
+        {
+            results.add(f.join());
+        }
+        return results;
+    }
+
+    /**
+     * First phase of two-phase signature production, for when the signature value
+     * is computed outside of the signer (for instance, on a remote signing service
+     * or HSM). The signature is created and appended to the DOM tree using the given
+     * strategy and reference node, and its {@code ds:SignedInfo} is finished,
+     * including the digests of all the references.
+     * <p>
+     * Only the signing certificate chain is obtained from the {@link xades4j.providers.KeyingDataProvider};
+     * the signing key is not used. Many signatures can be prepared before completing
+     * any of them, which allows the external signing operations to be pipelined or
+     * batched. Each prepared signature must target a different DOM document or be
+     * completed before other signatures are added to its document.
+     * <p>
+     * The default implementation doesn't support two-phase signature production.
+     * @param signedDataObjects the data objects to be signed
+     * @param referenceNode the node used as reference for the appending strategy
+     * @param appendingStrategy the appending strategy
+     * @return the prepared signature, which provides the octets to be signed
+     * @see #complete(PreparedSignature, byte[])
+     * @throws UnsupportedOperationException if the signer doesn't support two-phase
+     *      signature production
+     * @throws XAdES4jException if an error occurs
+     */
+    default PreparedSignature prepare(
+            SignedDataObjects signedDataObjects,
+            Node referenceNode,
+            SignatureAppendingStrategy appendingStrategy) throws XAdES4jException
+    {
+        throw new UnsupportedOperationException("Two-phase signature production is not supported");
+    }
+
+    /**
+     * Second phase of two-phase signature production. The signature value is added
+     * to a signature prepared by this signer and the unsigned properties are generated.
+     * <p>
+     * The signature value must be encoded as defined in XML-DSIG for the signature
+     * algorithm (e.g. for (EC)DSA it is the concatenation of {@code r} and {@code s},
+     * not a DER structure). The value is verified with the key of the signing certificate
+     * before the unsigned properties are generated; if it is invalid, the prepared
+     * signature is left unfinished, so that it can be completed with another value
+     * or discarded.
+     * @param preparedSignature the signature prepared on the first phase
+     * @param signatureValue the signature over {@link PreparedSignature#getSignedInfoOctets()}
+     * @return the signature result
+     * @throws IllegalArgumentException if the signature was prepared by another signer
+     * @throws IllegalStateException if the signature was already completed or discarded
+     * @throws UnsupportedOperationException if the signer doesn't support two-phase
+     *      signature production
+     * @throws InvalidSignatureValueException if the signature value is not valid
+     * @throws XAdES4jException if an error occurs
+     */
+    default XadesSignatureResult complete(
+            PreparedSignature preparedSignature,
+            byte[] signatureValue) throws XAdES4jException
+    {
+        throw new UnsupportedOperationException("Two-phase signature production is not supported");
+    }
 }
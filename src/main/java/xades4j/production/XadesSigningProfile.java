@@ -32,6 +32,10 @@ import xades4j.xml.marshalling.SignedPropertiesMarshaller;
 import xades4j.xml.marshalling.UnsignedPropertiesMarshaller;
 import xades4j.xml.marshalling.algorithms.AlgorithmParametersBindingsModule;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * A profile for signature production. This class and its subclasses are the entry
  * point for producing signatures. A profile is a configuration for the signature
@@ -61,6 +65,10 @@ import xades4j.xml.marshalling.algorithms.AlgorithmParametersBindingsModule;
  * <p>
  * Repeated dependency bindings will not cause an immediate error. An exception
  * will be thrown when an instance of {@code XadesSigner} is requested.
+ * <p>
+ * The dependency graph is built when the first signer is requested and reused
+ * afterwards, as long as the profile is not changed. As such, creating signers
+ * from an already used profile is cheap.
  *
  * @author Luís
  * @see XadesBesSigningProfile
@@ -111,6 +119,57 @@ public abstract class XadesSigningProfile
         return this.profileCore.getInstance(getSignerClass(), overridableModules, sealedModules);
     }
 
+    /**
+     * Creates a new {@code XadesSigner} based on the current state of the profile,
+     * but using the given {@code KeyingDataProvider} instead of the one configured
+     * on the profile.
+     * <p>
+     * The profile's dependency graph is built once and reused across calls, which
+     * makes this method suitable for creating signers on a per-request basis (e.g.
+     * when keying data differs per tenant). The keying data provider must not be
+     * a dependency of other components explicitly configured on the profile.
+     *
+     * @param keyingProvider the keying data provider for the new signer
+     * @return a {@code XadesSigner} accordingly to this profile
+     * @throws XadesProfileResolutionException if the dependencies of the signer (direct and indirect) cannot be resolved
+     */
+    public final XadesSigner newSigner(KeyingDataProvider keyingProvider) throws XadesProfileResolutionException
+    {
+        if (null == keyingProvider)
+        {
+            throw new NullPointerException("Keying data provider cannot be null");
+        }
+
+        return this.profileCore.getInstance(getSignerClass(), overridableModules, sealedModules,
+                Collections.<Class<?>, Object>singletonMap(KeyingDataProvider.class, keyingProvider));
+    }
+
+    /**
+     * Creates a new {@code XadesSigner} based on the current state of the profile,
+     * but using the given {@code KeyingDataProvider} and {@code BasicSignatureOptions}
+     * instead of the ones configured on the profile.
+     *
+     * @param keyingProvider        the keying data provider for the new signer
+     * @param basicSignatureOptions the options for the new signer
+     * @return a {@code XadesSigner} accordingly to this profile
+     * @throws XadesProfileResolutionException if the dependencies of the signer (direct and indirect) cannot be resolved
+     * @see #newSigner(KeyingDataProvider)
+     */
+    public final XadesSigner newSigner(
+            KeyingDataProvider keyingProvider,
+            BasicSignatureOptions basicSignatureOptions) throws XadesProfileResolutionException
+    {
+        if (null == keyingProvider || null == basicSignatureOptions)
+        {
+            throw new NullPointerException("Keying data provider and signature options cannot be null");
+        }
+
+        Map<Class<?>, Object> instanceBindings = new HashMap<>(2);
+        instanceBindings.put(KeyingDataProvider.class, keyingProvider);
+        instanceBindings.put(BasicSignatureOptions.class, basicSignatureOptions);
+        return this.profileCore.getInstance(getSignerClass(), overridableModules, sealedModules, instanceBindings);
+    }
+
     protected abstract Class<? extends XadesSigner> getSignerClass();
 
     protected final <T> XadesSigningProfile withOptionalBinding(Class<T> clazz)
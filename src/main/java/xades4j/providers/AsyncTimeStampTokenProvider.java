@@ -0,0 +1,46 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link TimeStampTokenProvider} that can also get time-stamp tokens without
+ * blocking the calling thread while the token is being obtained (e.g. during
+ * the round trip to a TSA).
+ * <p>
+ * When the configured provider implements this interface, signers use it on
+ * {@link xades4j.production.XadesSigner#signAsync signAsync}, so that no thread
+ * is held while time-stamps are in flight.
+ *
+ * @author Luís
+ * @see xades4j.providers.impl.HttpTimeStampTokenProvider
+ */
+public interface AsyncTimeStampTokenProvider extends TimeStampTokenProvider
+{
+    /**
+     * Gets a time-stamp token asynchronously.
+     * @param tsDigestInput the input for the digest to be sent to the TSA
+     * @param digestAlgUri the digest algorithm that should be used to calculate the digest
+     * @return a future for the time-stamp token data, which is completed exceptionally
+     *      with a {@link TimeStampTokenGenerationException} if there's an error
+     *      getting the time-stamp
+     */
+    CompletableFuture<TimeStampTokenRes> getTimeStampTokenAsync(
+            byte[] tsDigestInput,
+            String digestAlgUri);
+}
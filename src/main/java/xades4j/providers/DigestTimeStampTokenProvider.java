@@ -0,0 +1,57 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link TimeStampTokenProvider} that can also get time-stamp tokens for a
+ * precomputed digest of the time-stamp input (the message imprint). This allows
+ * the digest to be calculated as the input is produced, without keeping the whole
+ * input in memory.
+ * <p>
+ * When the configured provider implements this interface, it is used in favor
+ * of the methods that receive the whole input.
+ *
+ * @author Luís
+ * @see xades4j.providers.impl.HttpTimeStampTokenProvider
+ */
+public interface DigestTimeStampTokenProvider extends TimeStampTokenProvider
+{
+    /**
+     * Gets a time-stamp token for a precomputed digest.
+     * @param tsDigest the digest of the time-stamp input
+     * @param digestAlgUri the digest algorithm that was used to calculate the digest
+     * @return the time-stamp token data
+     * @throws TimeStampTokenGenerationException if there's an error getting the time-stamp
+     */
+    TimeStampTokenRes getTimeStampTokenForDigest(
+            byte[] tsDigest,
+            String digestAlgUri) throws TimeStampTokenGenerationException;
+
+    /**
+     * Gets a time-stamp token for a precomputed digest asynchronously.
+     * @param tsDigest the digest of the time-stamp input
+     * @param digestAlgUri the digest algorithm that was used to calculate the digest
+     * @return a future for the time-stamp token data, which is completed exceptionally
+     *      with a {@link TimeStampTokenGenerationException} if there's an error
+     *      getting the time-stamp
+     */
+    CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(
+            byte[] tsDigest,
+            String digestAlgUri);
+}
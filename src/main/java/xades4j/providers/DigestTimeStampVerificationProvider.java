@@ -0,0 +1,68 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers;
+
+import java.util.Date;
+
+/**
+ * A {@link TimeStampVerificationProvider} that can also verify time-stamp tokens
+ * against a precomputed digest of the time-stamp input (the message imprint). This
+ * allows the digest to be calculated as the input is produced, without keeping
+ * the whole input in memory.
+ * <p>
+ * When the configured provider implements this interface, it is used in favor
+ * of the method that receives the whole input.
+ *
+ * @author Luís
+ * @see xades4j.providers.impl.DefaultTimeStampVerificationProvider
+ */
+public interface DigestTimeStampVerificationProvider extends TimeStampVerificationProvider
+{
+    /**
+     * Parses a time-stamp token, so that it can be verified against a precomputed
+     * digest. The token is parsed once: the digest algorithm is obtained from the
+     * returned object, which is then used to verify the token.
+     * @param timeStampToken the encoded time-stamp token
+     * @return the parsed token
+     * @throws TimeStampTokenVerificationException if the token cannot be parsed or
+     *      the algorithm is not supported
+     */
+    ParsedTimeStampToken parseToken(byte[] timeStampToken) throws TimeStampTokenVerificationException;
+
+    /**
+     * A time-stamp token parsed by a {@link DigestTimeStampVerificationProvider}.
+     */
+    interface ParsedTimeStampToken
+    {
+        /**
+         * Gets the digest algorithm used on the message imprint of the token.
+         * @return the digest algorithm URI
+         */
+        String getDigestAlgorithm();
+
+        /**
+         * Verifies the token. This includes verifying the digest value and the
+         * token signature, including the TSA certificate.
+         * @param tsDigest the digest of the input purportedly used in time-stamp creation,
+         *      calculated from the current signature with the algorithm returned by
+         *      {@link #getDigestAlgorithm()}
+         * @return the time-stamp
+         * @throws TimeStampTokenVerificationException if the token cannot be validated (see subclasses of the exception)
+         */
+        Date verify(byte[] tsDigest) throws TimeStampTokenVerificationException;
+    }
+}
@@ -27,24 +27,32 @@ import org.bouncycastle.tsp.TimeStampRequestGenerator;
 import org.bouncycastle.tsp.TimeStampResponse;
 import org.bouncycastle.tsp.TimeStampToken;
 import xades4j.UnsupportedAlgorithmException;
+import xades4j.providers.AsyncTimeStampTokenProvider;
+import xades4j.providers.DigestTimeStampTokenProvider;
 import xades4j.providers.MessageDigestEngineProvider;
 import xades4j.providers.TimeStampTokenGenerationException;
-import xades4j.providers.TimeStampTokenProvider;
 
 import java.io.IOException;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Implementation of {@code TimeStampTokenProvider} that gets time-stamp tokens
  * from a TSA. Requests are issued with {@code certReq} set to
  * {@code true}.
+ * <p>
+ * Tokens can also be obtained for precomputed digests and asynchronously. By
+ * default the response is obtained synchronously on the calling thread; subclasses
+ * that can communicate with the TSA without blocking should override
+ * {@code getResponseAsync}.
  *
  * @author luis
  */
-public abstract class AbstractTimeStampTokenProvider implements TimeStampTokenProvider {
+public abstract class AbstractTimeStampTokenProvider implements AsyncTimeStampTokenProvider, DigestTimeStampTokenProvider {
     private static final Map<String, ASN1ObjectIdentifier> digestUriToOidMappings;
 
     static {
@@ -74,20 +82,76 @@ public abstract class AbstractTimeStampTokenProvider implements TimeStampTokenPr
 
     @Override
     public final TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException {
-        byte[] digest;
+        return getTimeStampTokenForDigest(digest(tsDigestInput, digestAlgUri), digestAlgUri);
+    }
+
+    @Override
+    public final CompletableFuture<TimeStampTokenRes> getTimeStampTokenAsync(byte[] tsDigestInput, String digestAlgUri) {
+        try {
+            return getTimeStampTokenForDigestAsync(digest(tsDigestInput, digestAlgUri), digestAlgUri);
+        } catch (TimeStampTokenGenerationException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public final TimeStampTokenRes getTimeStampTokenForDigest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException {
+        TimeStampRequest tsRequest = createTimeStampRequest(tsDigest, digestAlgUri);
+        byte[] response = getResponse(getEncoded(tsRequest));
+        return processTimeStampResponse(tsRequest, response);
+    }
+
+    @Override
+    public final CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(byte[] tsDigest, String digestAlgUri) {
+        TimeStampRequest tsRequest;
+        byte[] encodedRequest;
+        try {
+            tsRequest = createTimeStampRequest(tsDigest, digestAlgUri);
+            encodedRequest = getEncoded(tsRequest);
+        } catch (TimeStampTokenGenerationException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        return getResponseAsync(encodedRequest).thenApply(response -> {
+            try {
+                return processTimeStampResponse(tsRequest, response);
+            } catch (TimeStampTokenGenerationException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+    }
+
+    private byte[] digest(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException {
         try {
             MessageDigest md = messageDigestProvider.getEngine(digestAlgUri);
-            digest = md.digest(tsDigestInput);
+            return md.digest(tsDigestInput);
         } catch (UnsupportedAlgorithmException ex) {
             throw new TimeStampTokenGenerationException("Digest algorithm not supported", ex);
         }
+    }
+
+    private TimeStampRequest createTimeStampRequest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException {
+        ASN1ObjectIdentifier digestAlgOid = identifierForDigest(digestAlgUri);
+        if (null == digestAlgOid) {
+            throw new TimeStampTokenGenerationException("Digest algorithm not supported: " + digestAlgUri);
+        }
 
-        TimeStampRequest tsRequest = this.tsRequestGenerator.generate(
-                identifierForDigest(digestAlgUri),
-                digest,
+        return this.tsRequestGenerator.generate(
+                digestAlgOid,
+                tsDigest,
                 BigInteger.valueOf(System.currentTimeMillis()));
+    }
 
-        TimeStampResponse tsResponse = getTimeStampResponse(tsRequest);
+    private static byte[] getEncoded(TimeStampRequest tsRequest) throws TimeStampTokenGenerationException {
+        try {
+            return tsRequest.getEncoded();
+        } catch (IOException ex) {
+            throw new TimeStampTokenGenerationException("Encoding error", ex);
+        }
+    }
+
+    private static TimeStampTokenRes processTimeStampResponse(TimeStampRequest tsRequest, byte[] response) throws TimeStampTokenGenerationException {
+        TimeStampResponse tsResponse = getTimeStampResponse(response);
         if (tsResponse.getStatus() != PKIStatus.GRANTED && tsResponse.getStatus() != PKIStatus.GRANTED_WITH_MODS) {
             throw new TimeStampTokenGenerationException("Time stamp token not granted. " + tsResponse.getStatusString());
         }
@@ -109,11 +173,10 @@ public abstract class AbstractTimeStampTokenProvider implements TimeStampTokenPr
         return tsTokenRes;
     }
 
-    private TimeStampResponse getTimeStampResponse(TimeStampRequest tsRequest) throws TimeStampTokenGenerationException {
+    private static TimeStampResponse getTimeStampResponse(byte[] response) throws TimeStampTokenGenerationException {
         TimeStampResponse tsResponse;
         try {
-            byte[] responseStream = getResponse(tsRequest.getEncoded());
-            tsResponse = new TimeStampResponse(responseStream);
+            tsResponse = new TimeStampResponse(response);
         } catch (TSPException ex) {
             throw new TimeStampTokenGenerationException("Invalid time stamp response", ex);
         } catch (IOException ex) {
@@ -124,4 +187,16 @@ public abstract class AbstractTimeStampTokenProvider implements TimeStampTokenPr
     }
 
     abstract byte[] getResponse(byte[] encodedRequest) throws TimeStampTokenGenerationException;
+
+    /**
+     * Gets the response for a time-stamp request asynchronously. The default
+     * implementation invokes {@code getResponse} on the calling thread.
+     */
+    CompletableFuture<byte[]> getResponseAsync(byte[] encodedRequest) {
+        try {
+            return CompletableFuture.completedFuture(getResponse(encodedRequest));
+        } catch (TimeStampTokenGenerationException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
 }
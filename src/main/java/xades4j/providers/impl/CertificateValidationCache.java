@@ -0,0 +1,203 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import xades4j.providers.ValidationData;
+
+import java.security.cert.X509CRL;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cache of successful certificate validations used by {@link PKIXCertificateValidationProvider}.
+ * <p>
+ * Entries are keyed by the leaf certificate (or the selection criteria, if the
+ * certificate is not on the validation context), the other certificates on the
+ * context and the validation date, truncated to a configurable granularity.
+ * A cached result is only used if the validation date is within the validity
+ * period of all the certificates and CRLs in the result. Entries expire after
+ * a configurable time-to-live, so that changes on the certificate stores are
+ * eventually taken into account, and the least recently used entries are evicted
+ * when the maximum size is reached.
+ * <p>
+ * Failed validations are not cached.
+ *
+ * @author Luís
+ */
+final class CertificateValidationCache
+{
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final long dateGranularityMillis;
+    private final Map<Key, CachedResult> entries;
+
+    CertificateValidationCache(int maxEntries, Duration timeToLive, Duration validationDateGranularity)
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException("Maximum number of entries must be positive");
+        }
+        if (null == timeToLive || null == validationDateGranularity)
+        {
+            throw new NullPointerException("Time-to-live and validation date granularity cannot be null");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero() || validationDateGranularity.isNegative())
+        {
+            throw new IllegalArgumentException("Time-to-live must be positive and validation date granularity cannot be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.dateGranularityMillis = Math.max(1, validationDateGranularity.toMillis());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest)
+            {
+                return size() > CertificateValidationCache.this.maxEntries;
+            }
+        };
+    }
+
+    ValidationData get(X509CertSelector certSelector, Date validationDate, Collection<X509Certificate> otherCerts)
+    {
+        Key key = new Key(certSelector, validationDate, otherCerts);
+        CachedResult e;
+        synchronized (this.entries)
+        {
+            e = this.entries.get(key);
+            if (e != null && System.nanoTime() - e.createdAt > this.timeToLiveNanos)
+            {
+                this.entries.remove(key);
+                return null;
+            }
+        }
+
+        if (e != null && e.isValidAt(validationDate))
+        {
+            return e.validationData;
+        }
+        return null;
+    }
+
+    void put(X509CertSelector certSelector, Date validationDate, Collection<X509Certificate> otherCerts, ValidationData validationData)
+    {
+        Key key = new Key(certSelector, validationDate, otherCerts);
+        CachedResult e = new CachedResult(validationData);
+        synchronized (this.entries)
+        {
+            this.entries.put(key, e);
+        }
+    }
+
+    private final class Key
+    {
+        private final Object leafIdentity;
+        private final long dateBucket;
+        private final Set<X509Certificate> otherCerts;
+
+        Key(X509CertSelector certSelector, Date validationDate, Collection<X509Certificate> otherCerts)
+        {
+            Set<X509Certificate> others = otherCerts == null ? Collections.emptySet() : new HashSet<>(otherCerts);
+            X509Certificate leafCert = null;
+            for (X509Certificate c : others)
+            {
+                if (certSelector.match(c))
+                {
+                    leafCert = c;
+                    break;
+                }
+            }
+
+            // If the leaf certificate is not on the context, it will be selected from
+            // the stores using the same criteria, which are listed by toString.
+            this.leafIdentity = leafCert != null ? leafCert : certSelector.toString();
+            this.dateBucket = Math.floorDiv(validationDate.getTime(), dateGranularityMillis);
+            this.otherCerts = others;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.dateBucket == other.dateBucket
+                    && this.leafIdentity.equals(other.leafIdentity)
+                    && this.otherCerts.equals(other.otherCerts);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.leafIdentity, this.dateBucket, this.otherCerts);
+        }
+    }
+
+    private static final class CachedResult
+    {
+        private final ValidationData validationData;
+        private final long createdAt;
+        private final long validFrom;
+        private final long validUntil;
+
+        CachedResult(ValidationData validationData)
+        {
+            this.validationData = validationData;
+            this.createdAt = System.nanoTime();
+
+            long from = Long.MIN_VALUE;
+            long until = Long.MAX_VALUE;
+            for (X509Certificate c : validationData.getCerts())
+            {
+                from = Math.max(from, c.getNotBefore().getTime());
+                until = Math.min(until, c.getNotAfter().getTime());
+            }
+            for (X509CRL crl : validationData.getCrls())
+            {
+                from = Math.max(from, crl.getThisUpdate().getTime());
+                if (crl.getNextUpdate() != null)
+                {
+                    until = Math.min(until, crl.getNextUpdate().getTime());
+                }
+            }
+            this.validFrom = from;
+            this.validUntil = until;
+        }
+
+        boolean isValidAt(Date date)
+        {
+            long t = date.getTime();
+            return t >= this.validFrom && t <= this.validUntil;
+        }
+    }
+}
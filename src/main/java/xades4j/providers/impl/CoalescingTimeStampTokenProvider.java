@@ -0,0 +1,221 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import xades4j.UnsupportedAlgorithmException;
+import xades4j.providers.AsyncTimeStampTokenProvider;
+import xades4j.providers.DigestTimeStampTokenProvider;
+import xades4j.providers.MessageDigestEngineProvider;
+import xades4j.providers.TimeStampTokenGenerationException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@code TimeStampTokenProvider} that coalesces concurrent requests for the same
+ * message imprint. If a token for a given digest and digest algorithm is already
+ * being obtained, subsequent requests wait for the same token instead of issuing
+ * another request to the TSA.
+ * <p>
+ * Only in-flight requests are shared; once a token is obtained, new requests
+ * get a new token. This is useful to limit the load on a rate-limited TSA when
+ * the same data may be time-stamped concurrently (e.g. retries or duplicate
+ * signatures of the same content). Instances should be shared by the signers
+ * (for instance, by registering the same instance on the signing profile).
+ * <p>
+ * The delegate provider is always given the digest of the time-stamp input. When
+ * this provider is given the whole input, it calculates the digest itself; signers
+ * use the digest methods, so the input doesn't need to be kept in memory.
+ *
+ * @author Luís
+ */
+public final class CoalescingTimeStampTokenProvider implements AsyncTimeStampTokenProvider, DigestTimeStampTokenProvider
+{
+    private final DigestTimeStampTokenProvider tsTokenProvider;
+    private final MessageDigestEngineProvider messageDigestProvider;
+    private final ConcurrentMap<RequestKey, CompletableFuture<TimeStampTokenRes>> inFlight;
+
+    /**
+     * @param tsTokenProvider the provider used to actually get the tokens
+     */
+    public CoalescingTimeStampTokenProvider(DigestTimeStampTokenProvider tsTokenProvider)
+    {
+        this(tsTokenProvider, new DefaultMessageDigestProvider());
+    }
+
+    /**
+     * @param tsTokenProvider the provider used to actually get the tokens
+     * @param messageDigestProvider the provider used to digest the time-stamp inputs
+     *      that are given as a whole
+     */
+    public CoalescingTimeStampTokenProvider(
+            DigestTimeStampTokenProvider tsTokenProvider,
+            MessageDigestEngineProvider messageDigestProvider)
+    {
+        if (null == tsTokenProvider || null == messageDigestProvider)
+        {
+            throw new NullPointerException("Time-stamp token provider and message digest provider cannot be null");
+        }
+        this.tsTokenProvider = tsTokenProvider;
+        this.messageDigestProvider = messageDigestProvider;
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException
+    {
+        return getTimeStampTokenForDigest(digest(tsDigestInput, digestAlgUri), digestAlgUri);
+    }
+
+    @Override
+    public CompletableFuture<TimeStampTokenRes> getTimeStampTokenAsync(byte[] tsDigestInput, String digestAlgUri)
+    {
+        try
+        {
+            return getTimeStampTokenForDigestAsync(digest(tsDigestInput, digestAlgUri), digestAlgUri);
+        }
+        catch (TimeStampTokenGenerationException ex)
+        {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    @Override
+    public TimeStampTokenRes getTimeStampTokenForDigest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException
+    {
+        RequestKey key = new RequestKey(tsDigest, digestAlgUri);
+        CompletableFuture<TimeStampTokenRes> token = new CompletableFuture<>();
+        CompletableFuture<TimeStampTokenRes> existing = this.inFlight.putIfAbsent(key, token);
+
+        if (existing != null)
+        {
+            return join(existing);
+        }
+
+        try
+        {
+            TimeStampTokenRes res = this.tsTokenProvider.getTimeStampTokenForDigest(tsDigest, digestAlgUri);
+            token.complete(res);
+            return res;
+        }
+        catch (TimeStampTokenGenerationException | RuntimeException ex)
+        {
+            token.completeExceptionally(ex);
+            throw ex;
+        }
+        finally
+        {
+            this.inFlight.remove(key, token);
+        }
+    }
+
+    @Override
+    public CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(byte[] tsDigest, String digestAlgUri)
+    {
+        RequestKey key = new RequestKey(tsDigest, digestAlgUri);
+        CompletableFuture<TimeStampTokenRes> token = new CompletableFuture<>();
+        CompletableFuture<TimeStampTokenRes> existing = this.inFlight.putIfAbsent(key, token);
+
+        if (existing != null)
+        {
+            return existing.thenApply(res -> res);
+        }
+
+        CompletableFuture<TimeStampTokenRes> request;
+        try
+        {
+            request = this.tsTokenProvider.getTimeStampTokenForDigestAsync(tsDigest, digestAlgUri);
+        }
+        catch (RuntimeException ex)
+        {
+            request = CompletableFuture.failedFuture(ex);
+        }
+
+        request.whenComplete((res, ex) -> {
+            this.inFlight.remove(key, token);
+            if (ex != null)
+            {
+                token.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+            else
+            {
+                token.complete(res);
+            }
+        });
+        return token.thenApply(res -> res);
+    }
+
+    private byte[] digest(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException
+    {
+        try
+        {
+            return this.messageDigestProvider.getEngine(digestAlgUri).digest(tsDigestInput);
+        }
+        catch (UnsupportedAlgorithmException ex)
+        {
+            throw new TimeStampTokenGenerationException("Digest algorithm not supported", ex);
+        }
+    }
+
+    private static TimeStampTokenRes join(CompletableFuture<TimeStampTokenRes> token) throws TimeStampTokenGenerationException
+    {
+        try
+        {
+            return token.join();
+        }
+        catch (CompletionException ex)
+        {
+            if (ex.getCause() instanceof TimeStampTokenGenerationException)
+            {
+                throw (TimeStampTokenGenerationException) ex.getCause();
+            }
+            throw new TimeStampTokenGenerationException("Error getting the time-stamp token", ex.getCause());
+        }
+    }
+
+    private static final class RequestKey
+    {
+        private final ByteBuffer tsDigest;
+        private final String digestAlgUri;
+
+        RequestKey(byte[] tsDigest, String digestAlgUri)
+        {
+            this.tsDigest = ByteBuffer.wrap(tsDigest.clone());
+            this.digestAlgUri = digestAlgUri;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof RequestKey))
+            {
+                return false;
+            }
+            RequestKey other = (RequestKey) o;
+            return this.tsDigest.equals(other.tsDigest) && this.digestAlgUri.equals(other.digestAlgUri);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * this.tsDigest.hashCode() + this.digestAlgUri.hashCode();
+        }
+    }
+}
@@ -25,15 +25,23 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.Security;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The default implementation of {@code MessageDigestEngineProvider}. It supports
  * <a href="http://santuario.apache.org/">Apache Santuario</a> available algorithms
+ * <p>
+ * An engine is created through the JCA on the first request for each algorithm
+ * and kept as a prototype; subsequent requests get clones of the prototype, which
+ * avoids the algorithm name mapping and provider lookup. Each request gets its
+ * own engine, so the returned engines don't need to be released.
  *
  * @author Luís
  */
 public class DefaultMessageDigestProvider implements MessageDigestEngineProvider {
     private final String messageDigestProvider;
+    private final ConcurrentMap<String, MessageDigest> prototypes = new ConcurrentHashMap<>();
 
     static {
         Init.init();
@@ -71,7 +79,29 @@ public class DefaultMessageDigestProvider implements MessageDigestEngineProvider
     @Override
     public MessageDigest getEngine(String digestAlgorithmURI) throws UnsupportedAlgorithmException
     {
+        if (null == digestAlgorithmURI) {
+            return createEngine(null);
+        }
+
+        MessageDigest prototype = this.prototypes.get(digestAlgorithmURI);
+        if (null == prototype) {
+            prototype = createEngine(digestAlgorithmURI);
+            MessageDigest existing = this.prototypes.putIfAbsent(digestAlgorithmURI, prototype);
+            if (existing != null) {
+                prototype = existing;
+            }
+        }
+
+        // The prototype is never updated, so it can be cloned concurrently.
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            return createEngine(digestAlgorithmURI);
+        }
+    }
 
+    private MessageDigest createEngine(String digestAlgorithmURI) throws UnsupportedAlgorithmException
+    {
         String digestAlgorithmName = JCEMapper.translateURItoJCEID(digestAlgorithmURI);
         if (null == digestAlgorithmName) {
             throw new UnsupportedAlgorithmException("Digest algorithm not supported by the provider", digestAlgorithmURI);
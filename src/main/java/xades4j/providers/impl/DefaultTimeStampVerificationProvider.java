@@ -43,23 +43,24 @@ import org.bouncycastle.util.Selector;
 import xades4j.UnsupportedAlgorithmException;
 import xades4j.XAdES4jException;
 import xades4j.providers.CertificateValidationProvider;
+import xades4j.providers.DigestTimeStampVerificationProvider;
 import xades4j.providers.MessageDigestEngineProvider;
 import xades4j.providers.TimeStampTokenDigestException;
 import xades4j.providers.TimeStampTokenSignatureException;
 import xades4j.providers.TimeStampTokenStructureException;
 import xades4j.providers.TimeStampTokenTSACertException;
 import xades4j.providers.TimeStampTokenVerificationException;
-import xades4j.providers.TimeStampVerificationProvider;
 import xades4j.providers.ValidationData;
 
 /**
  * Default implementation of {@code TimeStampVerificationProvider}. It verifies
  * the token signature, including the TSA certificate, and the digest imprint.
+ * Tokens can also be verified against precomputed digests.
  * <p>
  * The implementation is based on Bouncy Castle and <b>only supports DER-encoded tokens</b>.
  * @author Luís
  */
-public class DefaultTimeStampVerificationProvider implements TimeStampVerificationProvider
+public class DefaultTimeStampVerificationProvider implements DigestTimeStampVerificationProvider
 {
 
     private static final Map<ASN1ObjectIdentifier, String> digestOidToUriMappings;
@@ -102,6 +103,64 @@ public class DefaultTimeStampVerificationProvider implements TimeStampVerificati
 
     @Override
     public Date verifyToken(byte[] timeStampToken, byte[] tsDigestInput) throws TimeStampTokenVerificationException
+    {
+        TimeStampToken tsToken = decodeToken(timeStampToken);
+        verifyTokenSignature(tsToken);
+
+        org.bouncycastle.tsp.TimeStampTokenInfo tsTokenInfo = tsToken.getTimeStampInfo();
+
+        try
+        {
+            String digestAlgUri = uriForDigest(tsTokenInfo.getMessageImprintAlgOID());
+            MessageDigest md = messageDigestProvider.getEngine(digestAlgUri);
+            if (!MessageDigest.isEqual(md.digest(tsDigestInput), tsTokenInfo.getMessageImprintDigest()))
+            {
+                throw new TimeStampTokenDigestException();
+            }
+        }
+        catch (UnsupportedAlgorithmException ex)
+        {
+            throw new TimeStampTokenVerificationException("The token's digest algorithm is not supported", ex);
+        }
+
+        return tsTokenInfo.getGenTime();
+    }
+
+    @Override
+    public ParsedTimeStampToken parseToken(byte[] timeStampToken) throws TimeStampTokenVerificationException
+    {
+        TimeStampToken tsToken = decodeToken(timeStampToken);
+        String digestAlgUri = uriForDigest(tsToken.getTimeStampInfo().getMessageImprintAlgOID());
+        if (null == digestAlgUri)
+        {
+            throw new TimeStampTokenVerificationException("The token's digest algorithm is not supported");
+        }
+
+        return new ParsedTimeStampToken()
+        {
+            @Override
+            public String getDigestAlgorithm()
+            {
+                return digestAlgUri;
+            }
+
+            @Override
+            public Date verify(byte[] tsDigest) throws TimeStampTokenVerificationException
+            {
+                verifyTokenSignature(tsToken);
+
+                org.bouncycastle.tsp.TimeStampTokenInfo tsTokenInfo = tsToken.getTimeStampInfo();
+                if (!MessageDigest.isEqual(tsDigest, tsTokenInfo.getMessageImprintDigest()))
+                {
+                    throw new TimeStampTokenDigestException();
+                }
+
+                return tsTokenInfo.getGenTime();
+            }
+        };
+    }
+
+    private static TimeStampToken decodeToken(byte[] timeStampToken) throws TimeStampTokenStructureException
     {
         TimeStampToken tsToken;
         try(ASN1InputStream asn1is = new ASN1InputStream(timeStampToken))
@@ -115,7 +174,11 @@ public class DefaultTimeStampVerificationProvider implements TimeStampVerificati
         {
             throw new TimeStampTokenStructureException("Invalid token", ex);
         }
+        return tsToken;
+    }
 
+    private void verifyTokenSignature(TimeStampToken tsToken) throws TimeStampTokenVerificationException
+    {
         X509Certificate tsaCert;
         try
         {
@@ -154,26 +217,8 @@ public class DefaultTimeStampVerificationProvider implements TimeStampVerificati
         {
             throw new TimeStampTokenVerificationException("Error when verifying the token signature", ex);
         }
-
-        org.bouncycastle.tsp.TimeStampTokenInfo tsTokenInfo = tsToken.getTimeStampInfo();
-
-        try
-        {
-            String digestAlgUri = uriForDigest(tsTokenInfo.getMessageImprintAlgOID());
-            MessageDigest md = messageDigestProvider.getEngine(digestAlgUri);
-            if (!MessageDigest.isEqual(md.digest(tsDigestInput), tsTokenInfo.getMessageImprintDigest()))
-            {
-                throw new TimeStampTokenDigestException();
-            }
-        }
-        catch (UnsupportedAlgorithmException ex)
-        {
-            throw new TimeStampTokenVerificationException("The token's digest algorithm is not supported", ex);
-        }
-
-        return tsTokenInfo.getGenTime();
     }
-    
+
     /** Selector selecting all certificates. */
     private static class AllCertificatesSelector implements Selector<X509CertificateHolder> {
 
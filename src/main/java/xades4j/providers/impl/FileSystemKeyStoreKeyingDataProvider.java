@@ -20,6 +20,7 @@ import java.io.File;
 import java.security.KeyStore;
 import java.security.Provider;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 
 /**
  * A specification of {@link KeyStoreKeyingDataProvider} for file-system keystores.
@@ -57,7 +58,8 @@ public final class FileSystemKeyStoreKeyingDataProvider extends KeyStoreKeyingDa
                 builder.certificateSelector,
                 builder.storePasswordProvider,
                 builder.entryPasswordProvider,
-                builder.fullChain);
+                builder.fullChain,
+                builder.cacheTimeToLive);
     }
 
     @Override
@@ -83,6 +85,7 @@ public final class FileSystemKeyStoreKeyingDataProvider extends KeyStoreKeyingDa
         private KeyEntryPasswordProvider entryPasswordProvider;
         private boolean fullChain;
         private Provider provider;
+        private Duration cacheTimeToLive;
 
         private Builder(String keyStoreType, String keyStorePath, SigningCertificateSelector certificateSelector)
         {
@@ -149,5 +152,24 @@ public final class FileSystemKeyStoreKeyingDataProvider extends KeyStoreKeyingDa
             this.provider = provider;
             return this;
         }
+
+        /**
+         * Enables caching of the signing certificate chain and key. They are obtained
+         * from the keystore on first access and then reused until the given time-to-live
+         * elapses or {@link KeyStoreKeyingDataProvider#refresh()} is invoked.
+         *
+         * @param timeToLive how long the keying data is cached ({@code null} or zero to disable caching)
+         * @return the current instance
+         * @throws IllegalArgumentException if {@code timeToLive} is negative
+         */
+        public Builder cacheKeyingData(Duration timeToLive)
+        {
+            if (timeToLive != null && timeToLive.isNegative())
+            {
+                throw new IllegalArgumentException("Cache time-to-live cannot be negative");
+            }
+            this.cacheTimeToLive = timeToLive;
+            return this;
+        }
     }
 }
@@ -20,24 +20,42 @@ import jakarta.inject.Inject;
 import xades4j.providers.MessageDigestEngineProvider;
 import xades4j.providers.TimeStampTokenGenerationException;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Implementation of {@code AbstractTimeStampTokenProvider} that gets time-stamp tokens
  * from a HTTP TSA. Requests are issued with {@code certReq} set to {@code true}.
  * If username and password are set supplied, HTTP basic authentication will be used.
+ * <p>
+ * Requests are issued through an {@link HttpClient} owned by the provider, meaning
+ * that connections to the TSA are kept alive and reused between time-stamps (HTTP/2
+ * is used when supported by the TSA). Timeouts and the maximum number of concurrent
+ * requests are taken from the {@link HttpTsaConfiguration}. Instances of this class
+ * are thread-safe and the default bindings use a single instance per profile.
+ * <p>
+ * Time-stamp tokens obtained asynchronously don't hold any thread while waiting
+ * for the TSA. If the maximum number of concurrent requests is reached, asynchronous
+ * requests are queued and sent once a slot is available, while synchronous requests
+ * wait for a slot on the calling thread.
  *
  * @author luis
  */
 public final class HttpTimeStampTokenProvider extends AbstractTimeStampTokenProvider {
     private final HttpTsaConfiguration tsaHttpData;
     private final String base64TsaUsrAndPwd;
+    private final URI tsaUri;
+    private final HttpClient httpClient;
+    private final RequestSlots concurrentRequests;
 
     @Inject
     public HttpTimeStampTokenProvider(MessageDigestEngineProvider messageDigestProvider, HttpTsaConfiguration tsaHttpData) {
@@ -49,51 +67,153 @@ public final class HttpTimeStampTokenProvider extends AbstractTimeStampTokenProv
         } else {
             base64TsaUsrAndPwd = null;
         }
+
+        this.tsaUri = URI.create(tsaHttpData.getUrl());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(tsaHttpData.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.concurrentRequests = tsaHttpData.getMaxConcurrentRequests() > 0
+                ? new RequestSlots(tsaHttpData.getMaxConcurrentRequests())
+                : null;
     }
 
     protected byte[] getResponse(byte[] encodedRequest) throws TimeStampTokenGenerationException {
-        HttpURLConnection connection = null;
-        try {
-            connection = createHttpConnection();
-            connection.setDoInput(true);
-            connection.setDoOutput(true);
-            connection.setRequestMethod("POST");
-            connection.setRequestProperty("Content-type", "application/timestamp-query");
-            connection.setRequestProperty("Content-length", String.valueOf(encodedRequest.length));
-
-            OutputStream out = connection.getOutputStream();
-            out.write(encodedRequest);
-            out.flush();
-
-            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-                throw new TimeStampTokenGenerationException(String.format("TSA returned HTTP %d %s", connection.getResponseCode(), connection.getResponseMessage()));
-            }
+        HttpRequest request = createHttpRequest(encodedRequest);
 
-          try (BufferedInputStream input = new BufferedInputStream(connection.getInputStream())) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = input.read(buffer)) > -1) {
-              baos.write(buffer, 0, len);
-            }
-            baos.flush();
+        try {
+            acquireRequestSlot();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TimeStampTokenGenerationException("Interrupted while waiting to connect to the TSA", ex);
+        }
 
-            return baos.toByteArray();
-          }
+        HttpResponse<byte[]> response;
+        try {
+            response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
         } catch (IOException ex) {
             throw new TimeStampTokenGenerationException("Error when connecting to the TSA", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TimeStampTokenGenerationException("Interrupted while connecting to the TSA", ex);
         } finally {
-            if (connection != null) connection.disconnect();
+            releaseRequestSlot();
+        }
+
+        return getResponseBody(response);
+    }
+
+    @Override
+    CompletableFuture<byte[]> getResponseAsync(byte[] encodedRequest) {
+        HttpRequest request = createHttpRequest(encodedRequest);
+
+        CompletableFuture<Void> slot = this.concurrentRequests != null
+                ? this.concurrentRequests.acquire()
+                : CompletableFuture.completedFuture(null);
+        return slot.thenCompose(v -> this.httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .handle((response, failure) -> {
+                    releaseRequestSlot();
+                    try {
+                        if (failure != null) {
+                            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                            throw new TimeStampTokenGenerationException("Error when connecting to the TSA", cause);
+                        }
+                        return getResponseBody(response);
+                    } catch (TimeStampTokenGenerationException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+    }
+
+    private static byte[] getResponseBody(HttpResponse<byte[]> response) throws TimeStampTokenGenerationException {
+        if (response.statusCode() != 200) {
+            throw new TimeStampTokenGenerationException(String.format("TSA returned HTTP %d", response.statusCode()));
         }
+
+        return response.body();
     }
 
-    private HttpURLConnection createHttpConnection() throws IOException {
-        HttpURLConnection connection = (HttpURLConnection) new URL(this.tsaHttpData.getUrl()).openConnection();
+    private HttpRequest createHttpRequest(byte[] encodedRequest) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(this.tsaUri)
+                .timeout(this.tsaHttpData.getRequestTimeout())
+                .header("Content-Type", "application/timestamp-query")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encodedRequest));
 
         if (this.base64TsaUsrAndPwd != null) {
-            connection.setRequestProperty("Authorization", "Basic " + this.base64TsaUsrAndPwd);
+            builder.header("Authorization", "Basic " + this.base64TsaUsrAndPwd);
         }
 
-        return connection;
+        return builder.build();
+    }
+
+    private void acquireRequestSlot() throws InterruptedException {
+        if (this.concurrentRequests == null) {
+            return;
+        }
+
+        CompletableFuture<Void> slot = this.concurrentRequests.acquire();
+        try {
+            slot.get();
+        } catch (InterruptedException ex) {
+            if (!slot.cancel(false)) {
+                // The slot was handed over in the meantime.
+                this.concurrentRequests.release();
+            }
+            throw ex;
+        } catch (ExecutionException ex) {
+            // Slots are never completed exceptionally.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void releaseRequestSlot() {
+        if (this.concurrentRequests != null) {
+            this.concurrentRequests.release();
+        }
+    }
+
+    /**
+     * Limits the number of concurrent requests without blocking: a slot is given
+     * as a future that completes when the slot is available. Waiting requests get
+     * the released slots in order.
+     */
+    private static final class RequestSlots {
+        private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int available;
+
+        RequestSlots(int maxConcurrentRequests) {
+            this.available = maxConcurrentRequests;
+        }
+
+        CompletableFuture<Void> acquire() {
+            synchronized (this) {
+                if (this.available > 0) {
+                    this.available--;
+                    return CompletableFuture.completedFuture(null);
+                }
+                CompletableFuture<Void> slot = new CompletableFuture<>();
+                this.waiting.add(slot);
+                return slot;
+            }
+        }
+
+        void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = this.waiting.poll();
+                    if (null == next) {
+                        this.available++;
+                        return;
+                    }
+                }
+                // Completed outside the lock, since it runs the dependent actions
+                // (i.e. sends the request). Cancelled waiters are skipped.
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
     }
 }
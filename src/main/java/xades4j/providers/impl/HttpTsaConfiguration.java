@@ -16,11 +16,17 @@
  */
 package xades4j.providers.impl;
 
+import java.time.Duration;
+
 /**
  * Configuration to access a TSA over HTTP. This class is typically used with
  * {@link HttpTimeStampTokenProvider} by registering an instance with the
  * appropriate URL and (optionally) username and password on the
  * signing/verification profile.
+ * <p>
+ * Connection and request timeouts, as well as the maximum number of concurrent
+ * requests to the TSA, can also be configured. These should be set before the
+ * configuration is used.
  *
  * @author Luís
  */
@@ -29,6 +35,9 @@ public final class HttpTsaConfiguration
     private final String url;
     private final String username;
     private final String password;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private int maxConcurrentRequests = 0;
 
     public HttpTsaConfiguration(String url, String username, String password)
     {
@@ -66,4 +75,76 @@ public final class HttpTsaConfiguration
     {
         return password;
     }
+
+    /**
+     * Configures the timeout for establishing a connection to the TSA. Defaults
+     * to 10 seconds.
+     *
+     * @param timeout the timeout
+     * @return the current instance
+     */
+    public HttpTsaConfiguration connectTimeout(Duration timeout)
+    {
+        this.connectTimeout = checkTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Configures the timeout for getting a response from the TSA for each
+     * time-stamp request. Defaults to 30 seconds.
+     *
+     * @param timeout the timeout
+     * @return the current instance
+     */
+    public HttpTsaConfiguration requestTimeout(Duration timeout)
+    {
+        this.requestTimeout = checkTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Configures the maximum number of requests that may be in-flight to the TSA
+     * at the same time. Additional requests wait for a slot to be available.
+     * Defaults to 0, meaning that concurrency is not limited.
+     *
+     * @param maxRequests the maximum number of concurrent requests, or 0 for unlimited
+     * @return the current instance
+     */
+    public HttpTsaConfiguration maxConcurrentRequests(int maxRequests)
+    {
+        if (maxRequests < 0)
+        {
+            throw new IllegalArgumentException("maxRequests must not be negative");
+        }
+        this.maxConcurrentRequests = maxRequests;
+        return this;
+    }
+
+    public Duration getConnectTimeout()
+    {
+        return connectTimeout;
+    }
+
+    public Duration getRequestTimeout()
+    {
+        return requestTimeout;
+    }
+
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests;
+    }
+
+    private static Duration checkTimeout(Duration timeout)
+    {
+        if (timeout == null)
+        {
+            throw new NullPointerException("timeout must not be null");
+        }
+        if (timeout.isNegative() || timeout.isZero())
+        {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        return timeout;
+    }
 }
@@ -27,6 +27,7 @@ import java.security.PrivateKey;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -57,6 +58,11 @@ import xades4j.verification.UnexpectedJCAException;
  *  <li>Get the protection to access that entry</li>
  *  <li>Return the entry's private key</li>
  * </ol>
+ * <p>
+ * Optionally, the signing certificate chain and key can be cached, in which case
+ * the procedures above are done only when the cache is empty or expired. This
+ * avoids accessing the keystore (e.g. a round trip to a PKCS#11 device) on every
+ * signature. The cached data can be discarded with {@link #refresh()}.
  *
  * @author Luís
  * @see FileSystemKeyStoreKeyingDataProvider
@@ -149,7 +155,9 @@ public abstract class KeyStoreKeyingDataProvider implements KeyingDataProvider
     private final KeyStorePasswordProvider storePasswordProvider;
     private final KeyEntryPasswordProvider entryPasswordProvider;
     private final boolean returnFullChain;
+    private final long cacheTimeToLiveNanos;
 
+    private volatile CachedKeyingData cachedKeyingData;
     private KeyStore keyStore;
     private final Object lockObj;
     private boolean initialized;
@@ -167,17 +175,77 @@ public abstract class KeyStoreKeyingDataProvider implements KeyingDataProvider
             KeyStorePasswordProvider storePasswordProvider,
             KeyEntryPasswordProvider entryPasswordProvider,
             boolean returnFullChain)
+    {
+        this(builderCreator, certificateSelector, storePasswordProvider, entryPasswordProvider, returnFullChain, null);
+    }
+
+    /**
+     * @param builderCreator
+     * @param certificateSelector
+     * @param storePasswordProvider
+     * @param entryPasswordProvider
+     * @param returnFullChain       return the full certificate chain, if available
+     * @param cacheTimeToLive       how long the signing certificate chain and key are cached ({@code null} to disable caching)
+     */
+    protected KeyStoreKeyingDataProvider(
+            KeyStoreBuilderCreator builderCreator,
+            SigningCertificateSelector certificateSelector,
+            KeyStorePasswordProvider storePasswordProvider,
+            KeyEntryPasswordProvider entryPasswordProvider,
+            boolean returnFullChain,
+            Duration cacheTimeToLive)
     {
         this.builderCreator = builderCreator;
         this.certificateSelector = certificateSelector;
         this.storePasswordProvider = storePasswordProvider;
         this.entryPasswordProvider = entryPasswordProvider;
         this.returnFullChain = returnFullChain;
+        this.cacheTimeToLiveNanos = toNanos(cacheTimeToLive);
 
         this.lockObj = new Object();
         this.initialized = false;
     }
 
+    private static long toNanos(Duration cacheTimeToLive)
+    {
+        if (null == cacheTimeToLive)
+        {
+            return 0;
+        }
+        if (cacheTimeToLive.isNegative())
+        {
+            throw new IllegalArgumentException("Cache time-to-live cannot be negative");
+        }
+        try
+        {
+            return cacheTimeToLive.toNanos();
+        }
+        catch (ArithmeticException ex)
+        {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Discards the cached signing certificate chain and key, if caching is enabled.
+     * They are obtained from the keystore on the next access. This can be used when
+     * the keystore contents are known to have changed (e.g. certificate renewal).
+     */
+    public void refresh()
+    {
+        this.cachedKeyingData = null;
+    }
+
+    private CachedKeyingData getCachedKeyingData()
+    {
+        CachedKeyingData cached = this.cachedKeyingData;
+        if (cached != null && System.nanoTime() - cached.loadTime >= this.cacheTimeToLiveNanos)
+        {
+            return null;
+        }
+        return cached;
+    }
+
     private void ensureInitialized() throws UnexpectedJCAException
     {
         synchronized (this.lockObj)
@@ -217,6 +285,22 @@ public abstract class KeyStoreKeyingDataProvider implements KeyingDataProvider
 
     @Override
     public List<X509Certificate> getSigningCertificateChain() throws SigningCertChainException, UnexpectedJCAException
+    {
+        if (0 == this.cacheTimeToLiveNanos)
+        {
+            return loadSigningCertificateChain();
+        }
+
+        CachedKeyingData cached = getCachedKeyingData();
+        if (null == cached)
+        {
+            cached = new CachedKeyingData(Collections.unmodifiableList(loadSigningCertificateChain()));
+            this.cachedKeyingData = cached;
+        }
+        return cached.signingCertificateChain;
+    }
+
+    private List<X509Certificate> loadSigningCertificateChain() throws SigningCertChainException, UnexpectedJCAException
     {
         ensureInitialized();
         try
@@ -271,6 +355,29 @@ public abstract class KeyStoreKeyingDataProvider implements KeyingDataProvider
 
     @Override
     public PrivateKey getSigningKey(X509Certificate signingCert) throws SigningKeyException, UnexpectedJCAException
+    {
+        if (0 == this.cacheTimeToLiveNanos)
+        {
+            return loadSigningKey(signingCert);
+        }
+
+        CachedKeyingData cached = getCachedKeyingData();
+        if (null == cached || !cached.signingCertificateChain.get(0).equals(signingCert))
+        {
+            // Not the certificate returned from the cache.
+            return loadSigningKey(signingCert);
+        }
+
+        PrivateKey signingKey = cached.signingKey;
+        if (null == signingKey)
+        {
+            signingKey = loadSigningKey(signingCert);
+            cached.signingKey = signingKey;
+        }
+        return signingKey;
+    }
+
+    private PrivateKey loadSigningKey(X509Certificate signingCert) throws SigningKeyException, UnexpectedJCAException
     {
         ensureInitialized();
         try
@@ -311,4 +418,17 @@ public abstract class KeyStoreKeyingDataProvider implements KeyingDataProvider
             String entryAlias,
             X509Certificate entryCert,
             KeyEntryPasswordProvider entryPasswordProvider);
+
+    private static final class CachedKeyingData
+    {
+        final List<X509Certificate> signingCertificateChain;
+        final long loadTime;
+        volatile PrivateKey signingKey;
+
+        CachedKeyingData(List<X509Certificate> signingCertificateChain)
+        {
+            this.signingCertificateChain = signingCertificateChain;
+            this.loadTime = System.nanoTime();
+        }
+    }
 }
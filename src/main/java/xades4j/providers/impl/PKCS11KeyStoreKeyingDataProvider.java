@@ -25,6 +25,7 @@ import java.security.Provider;
 import java.security.ProviderException;
 import java.security.Security;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 
 /**
  * A specification of {@link KeyStoreKeyingDataProvider} for PKCS#11 keystores.
@@ -69,7 +70,7 @@ public final class PKCS11KeyStoreKeyingDataProvider extends KeyStoreKeyingDataPr
                 throw new ProviderException("PKCS11 provider already installed");
             }
             return KeyStore.Builder.newInstance("PKCS11", provider, loadProtection);
-        }, builder.certificateSelector, builder.storePasswordProvider, builder.entryPasswordProvider, builder.fullChain);
+        }, builder.certificateSelector, builder.storePasswordProvider, builder.entryPasswordProvider, builder.fullChain, builder.cacheTimeToLive);
     }
 
     private static String serializeConfiguration(String name, String nativeLibraryPath, Integer slotId)
@@ -128,6 +129,7 @@ public final class PKCS11KeyStoreKeyingDataProvider extends KeyStoreKeyingDataPr
         private Integer slotId;
         private KeyStorePasswordProvider storePasswordProvider;
         private KeyEntryPasswordProvider entryPasswordProvider;
+        private Duration cacheTimeToLive;
 
         private Builder(String nativeLibraryPath, SigningCertificateSelector certificateSelector)
         {
@@ -207,6 +209,25 @@ public final class PKCS11KeyStoreKeyingDataProvider extends KeyStoreKeyingDataPr
             this.fullChain = fullChain;
             return this;
         }
+
+        /**
+         * Enables caching of the signing certificate chain and key. They are obtained
+         * from the keystore on first access and then reused until the given time-to-live
+         * elapses or {@link KeyStoreKeyingDataProvider#refresh()} is invoked.
+         *
+         * @param timeToLive how long the keying data is cached ({@code null} or zero to disable caching)
+         * @return the current instance
+         * @throws IllegalArgumentException if {@code timeToLive} is negative
+         */
+        public Builder cacheKeyingData(Duration timeToLive)
+        {
+            if (timeToLive != null && timeToLive.isNegative())
+            {
+                throw new IllegalArgumentException("Cache time-to-live cannot be negative");
+            }
+            this.cacheTimeToLive = timeToLive;
+            return this;
+        }
     }
 
     public static boolean isProviderAvailable()
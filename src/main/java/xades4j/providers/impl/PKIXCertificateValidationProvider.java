@@ -21,21 +21,26 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.security.PublicKey;
 import java.security.cert.CertPathBuilder;
 import java.security.cert.CertPathBuilderException;
 import java.security.cert.CertStore;
 import java.security.cert.CertStoreException;
+import java.security.cert.Certificate;
 import java.security.cert.CollectionCertStoreParameters;
 import java.security.cert.PKIXBuilderParameters;
 import java.security.cert.PKIXCertPathBuilderResult;
+import java.security.cert.TrustAnchor;
 import java.security.cert.X509CRL;
 import java.security.cert.X509CRLSelector;
 import java.security.cert.X509CertSelector;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -58,6 +63,9 @@ import xades4j.verification.UnexpectedJCAException;
  * <p>
  * The {@link PKIXCertificateValidationProvider#builder(KeyStore)} builder} method can be used to configure and create
  * a new instance.
+ * <p>
+ * The trust anchors are read from the {@code KeyStore} on the first validation and reused afterwards. Validation
+ * results may also be cached (see {@link Builder#cacheValidationResults(int, Duration, Duration)}).
  *
  * @author Luís
  */
@@ -71,6 +79,9 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
     private final CertStore[] intermCertsAndCrls;
     private final CertPathBuilder certPathBuilder;
     private final String signatureProvider;
+    private final CertificateValidationCache validationCache;
+    private final VerifiedCrlsCache verifiedCrls;
+    private volatile Set<TrustAnchor> trustAnchorsSet;
 
     /**
      * Create a builder to configure a new {@link PKIXCertificateValidationProvider}.
@@ -93,6 +104,8 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
                 : CertPathBuilder.getInstance("PKIX", builder.certPathBuilderProvider);
         this.signatureProvider = builder.signatureProvider;
         this.intermCertsAndCrls = builder.certStores;
+        this.validationCache = builder.validationCache;
+        this.verifiedCrls = new VerifiedCrlsCache();
     }
 
     @Override
@@ -100,6 +113,25 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
             X509CertSelector certSelector,
             Date validationDate,
             Collection<X509Certificate> otherCerts) throws CertificateValidationException, UnexpectedJCAException
+    {
+        if (null == this.validationCache)
+        {
+            return doValidate(certSelector, validationDate, otherCerts);
+        }
+
+        ValidationData validationData = this.validationCache.get(certSelector, validationDate, otherCerts);
+        if (null == validationData)
+        {
+            validationData = doValidate(certSelector, validationDate, otherCerts);
+            this.validationCache.put(certSelector, validationDate, otherCerts, validationData);
+        }
+        return validationData;
+    }
+
+    private ValidationData doValidate(
+            X509CertSelector certSelector,
+            Date validationDate,
+            Collection<X509Certificate> otherCerts) throws CertificateValidationException, UnexpectedJCAException
     {
         PKIXBuilderParameters builderParams = getPkixBuilderParameters(certSelector);
 
@@ -163,7 +195,7 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
         PKIXBuilderParameters builderParams;
         try
         {
-            builderParams = new PKIXBuilderParameters(trustAnchors, certSelector);
+            builderParams = new PKIXBuilderParameters(getTrustAnchors(), certSelector);
         }
         catch (KeyStoreException ex)
         {
@@ -176,6 +208,31 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
         return builderParams;
     }
 
+    private Set<TrustAnchor> getTrustAnchors() throws KeyStoreException
+    {
+        Set<TrustAnchor> anchors = this.trustAnchorsSet;
+        if (null == anchors)
+        {
+            // Same as PKIXParameters(KeyStore), but done only once.
+            anchors = new HashSet<>();
+            for (Enumeration<String> aliases = this.trustAnchors.aliases(); aliases.hasMoreElements(); )
+            {
+                String alias = aliases.nextElement();
+                if (this.trustAnchors.isCertificateEntry(alias))
+                {
+                    Certificate cert = this.trustAnchors.getCertificate(alias);
+                    if (cert instanceof X509Certificate)
+                    {
+                        anchors.add(new TrustAnchor((X509Certificate) cert, null));
+                    }
+                }
+            }
+            anchors = Collections.unmodifiableSet(anchors);
+            this.trustAnchorsSet = anchors;
+        }
+        return anchors;
+    }
+
     private Collection<X509CRL> getCRLsForCertPath(
             List<X509Certificate> certPath,
             Date validationDate) throws CertificateValidationException
@@ -219,20 +276,26 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
         }
 
         // Verify the CRLs' signatures. The issuers' certificates were validated
-        // as part of the cert path creation.
+        // as part of the cert path creation. CRLs that were already verified
+        // with the same key are not verified again.
         for (X509CRL crl : crls)
         {
             try
             {
-                X509Certificate crlIssuerCert = issuersCerts.get(crl.getIssuerX500Principal());
+                PublicKey crlIssuerKey = issuersCerts.get(crl.getIssuerX500Principal()).getPublicKey();
+                if (this.verifiedCrls.isVerified(crl, crlIssuerKey))
+                {
+                    continue;
+                }
                 if (null == this.signatureProvider)
                 {
-                    crl.verify(crlIssuerCert.getPublicKey());
+                    crl.verify(crlIssuerKey);
                 }
                 else
                 {
-                    crl.verify(crlIssuerCert.getPublicKey(), this.signatureProvider);
+                    crl.verify(crlIssuerKey, this.signatureProvider);
                 }
+                this.verifiedCrls.setVerified(crl, crlIssuerKey);
             }
             catch (Exception ex)
             {
@@ -250,6 +313,7 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
         private int maxPathLength;
         private String certPathBuilderProvider;
         private String signatureProvider;
+        private CertificateValidationCache validationCache;
 
         private Builder(KeyStore trustAnchors)
         {
@@ -329,5 +393,28 @@ public final class PKIXCertificateValidationProvider implements CertificateValid
             this.signatureProvider = signatureProvider;
             return this;
         }
+
+        /**
+         * Enables caching of successful validation results. A cached result is reused for validations of the same
+         * certificate, with the same certificates from the validation context, whose validation dates are within the
+         * same period of {@code validationDateGranularity} and within the validity of the certificates and CRLs in the
+         * result. Disabled by default.
+         * <p>
+         * Changes on the certificate stores (e.g. new CRLs) are only taken into account after the cached results
+         * expire. Changes on the trust anchors {@code KeyStore} are never taken into account, since the trust
+         * anchors are read only once regardless of this cache.
+         *
+         * @param maxEntries                the maximum number of cached results
+         * @param timeToLive                how long a result is kept in the cache
+         * @param validationDateGranularity the validation dates within each period of this duration are considered
+         *                                  the same for caching purposes. Use {@link Duration#ZERO} to cache by exact
+         *                                  date (with millisecond precision)
+         * @return the current instance
+         */
+        public Builder cacheValidationResults(int maxEntries, Duration timeToLive, Duration validationDateGranularity)
+        {
+            this.validationCache = new CertificateValidationCache(maxEntries, timeToLive, validationDateGranularity);
+            return this;
+        }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import xades4j.providers.KeyingDataProvider;
+import xades4j.providers.SigningCertChainException;
+import xades4j.providers.SigningKeyException;
+import xades4j.verification.UnexpectedJCAException;
+
+/**
+ * A {@code KeyingDataProvider} that spreads signing operations over a pool of
+ * providers that give access to the same signing key. Each thread is assigned one
+ * of the providers (round-robin) on first use and keeps using it afterwards.
+ * <p>
+ * This is intended for hardware tokens and HSMs, where a single provider instance
+ * serializes the operations on the device. For instance, a pool of {@link PKCS11KeyStoreKeyingDataProvider}s,
+ * each with a different provider name and possibly a different slot (HSM partition),
+ * results in independent PKCS#11 sessions, which allows signing throughput to scale
+ * with the number of sessions:
+ * <pre>
+ * KeyingDataProvider kp = PooledKeyingDataProvider.create(4, i -&gt; PKCS11KeyStoreKeyingDataProvider
+ *         .builder(nativeLibraryPath, certificateSelector)
+ *         .providerName("hsm-" + i)
+ *         .slot(i)
+ *         .build());
+ * </pre>
+ * All the providers in the pool must return the same signing certificate. Since each
+ * one is initialized independently, their (possibly slow) initialization doesn't
+ * serialize either.
+ * <p>
+ * The signers created by {@link xades4j.production.XadesSigningProfile} get the
+ * signing key on the thread that produces each signature, including on
+ * {@link xades4j.production.XadesSigner#signAll(java.util.List, java.util.concurrent.Executor) signAll}.
+ *
+ * @author Luís
+ */
+public final class PooledKeyingDataProvider implements KeyingDataProvider
+{
+    private final List<KeyingDataProvider> providers;
+    private final AtomicInteger nextProvider;
+    private final ThreadLocal<KeyingDataProvider> threadProvider;
+
+    /**
+     * Creates a pool with the given providers.
+     *
+     * @param providers the providers
+     * @throws NullPointerException     if {@code providers} or any of its elements is {@code null}
+     * @throws IllegalArgumentException if {@code providers} is empty
+     */
+    public PooledKeyingDataProvider(List<? extends KeyingDataProvider> providers)
+    {
+        if (null == providers || providers.contains(null))
+        {
+            throw new NullPointerException("Providers cannot be null");
+        }
+        if (providers.isEmpty())
+        {
+            throw new IllegalArgumentException("At least one provider is needed");
+        }
+
+        this.providers = new ArrayList<>(providers);
+        this.nextProvider = new AtomicInteger();
+        this.threadProvider = ThreadLocal.withInitial(
+                () -> this.providers.get(Math.floorMod(this.nextProvider.getAndIncrement(), this.providers.size())));
+    }
+
+    /**
+     * Creates a pool with the given number of providers.
+     *
+     * @param size            the number of providers
+     * @param providerFactory creates the provider for each index, from {@code 0} to {@code size - 1}
+     * @return the pooled provider
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static PooledKeyingDataProvider create(int size, IntFunction<? extends KeyingDataProvider> providerFactory)
+    {
+        if (size <= 0)
+        {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+
+        List<KeyingDataProvider> providers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            providers.add(providerFactory.apply(i));
+        }
+        return new PooledKeyingDataProvider(providers);
+    }
+
+    @Override
+    public List<X509Certificate> getSigningCertificateChain() throws SigningCertChainException, UnexpectedJCAException
+    {
+        return this.threadProvider.get().getSigningCertificateChain();
+    }
+
+    @Override
+    public PrivateKey getSigningKey(X509Certificate signingCert) throws SigningKeyException, UnexpectedJCAException
+    {
+        return this.threadProvider.get().getSigningKey(signingCert);
+    }
+
+    /**
+     * Gets the number of providers in the pool.
+     *
+     * @return the pool size
+     */
+    public int size()
+    {
+        return this.providers.size();
+    }
+}
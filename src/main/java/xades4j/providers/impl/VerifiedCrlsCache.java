@@ -0,0 +1,117 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.PublicKey;
+import java.security.cert.X509CRL;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers which CRLs had their signatures successfully verified with a given
+ * issuer key, so that the (possibly big) CRLs returned by the certificate stores
+ * are verified only once. CRLs are compared by identity, since hashing them goes
+ * through their whole encoding.
+ * <p>
+ * The CRLs are weakly referenced: once a CRL is no longer used elsewhere (e.g. the
+ * store reloaded it), its entries are discarded. Entries are also discarded after
+ * the CRL's {@code nextUpdate}.
+ *
+ * @author Luís
+ */
+final class VerifiedCrlsCache
+{
+    private final Map<CrlKey, Map<PublicKey, Long>> entries = new HashMap<>();
+    private final ReferenceQueue<X509CRL> collectedCrls = new ReferenceQueue<>();
+
+    synchronized boolean isVerified(X509CRL crl, PublicKey issuerKey)
+    {
+        removeCollected();
+
+        CrlKey key = new CrlKey(crl, null);
+        Map<PublicKey, Long> crlEntries = this.entries.get(key);
+        Long expiry = null == crlEntries ? null : crlEntries.get(issuerKey);
+        if (null == expiry)
+        {
+            return false;
+        }
+        if (System.currentTimeMillis() > expiry)
+        {
+            this.entries.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    synchronized void setVerified(X509CRL crl, PublicKey issuerKey)
+    {
+        removeCollected();
+
+        Date nextUpdate = crl.getNextUpdate();
+        this.entries
+                .computeIfAbsent(new CrlKey(crl, this.collectedCrls), k -> new HashMap<>(2))
+                .put(issuerKey, null == nextUpdate ? Long.MAX_VALUE : nextUpdate.getTime());
+    }
+
+    private void removeCollected()
+    {
+        Object ref;
+        while ((ref = this.collectedCrls.poll()) != null)
+        {
+            this.entries.remove(ref);
+        }
+    }
+
+    /**
+     * A weak reference to a CRL, compared by identity. After the CRL is collected,
+     * the key is only equal to itself.
+     */
+    private static final class CrlKey extends WeakReference<X509CRL>
+    {
+        private final int hash;
+
+        CrlKey(X509CRL crl, ReferenceQueue<X509CRL> queue)
+        {
+            super(crl, queue);
+            this.hash = System.identityHashCode(crl);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof CrlKey))
+            {
+                return false;
+            }
+            X509CRL crl = get();
+            return crl != null && crl == ((CrlKey) o).get();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+}
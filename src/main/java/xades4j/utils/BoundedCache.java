@@ -0,0 +1,127 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe cache with a maximum number of entries, for values that are
+ * expensive to compute from keys that are expected to repeat (e.g. certificate
+ * digests). The cache is cleared when it reaches the maximum size, which only
+ * happens if new keys keep being used; no eviction policy is needed.
+ * <p>
+ * Objects whose equality is expensive, such as CRLs, which are compared through
+ * their encoding, can be part of a key by identity using {@link IdentityKey}.
+ * This is effective when the objects come from a source that returns the same
+ * instances, such as a certificate store.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Luís
+ */
+public final class BoundedCache<K, V>
+{
+    private final int maxEntries;
+    private final ConcurrentMap<K, V> entries;
+
+    /**
+     * @param maxEntries the maximum number of entries
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive
+     */
+    public BoundedCache(int maxEntries)
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException("Maximum number of entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param key the key
+     * @return the value for {@code key} or {@code null} if there is none
+     */
+    public V get(K key)
+    {
+        return this.entries.get(key);
+    }
+
+    /**
+     * Adds an entry, clearing the cache first if it is full.
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value)
+    {
+        if (this.entries.size() >= this.maxEntries)
+        {
+            this.entries.clear();
+        }
+        this.entries.put(key, value);
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     */
+    public void remove(K key)
+    {
+        this.entries.remove(key);
+    }
+
+    /**
+     * A key made of an object compared by identity and a discriminator compared
+     * by equality (e.g. a CRL and the key used to verify it).
+     */
+    public static final class IdentityKey
+    {
+        private final Object instance;
+        private final Object discriminator;
+
+        /**
+         * @param instance the object compared by identity
+         * @param discriminator the object compared by equality
+         */
+        public IdentityKey(Object instance, Object discriminator)
+        {
+            if (null == instance || null == discriminator)
+            {
+                throw new NullPointerException("Instance and discriminator cannot be null");
+            }
+            this.instance = instance;
+            this.discriminator = discriminator;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof IdentityKey))
+            {
+                return false;
+            }
+            IdentityKey other = (IdentityKey) o;
+            return this.instance == other.instance && this.discriminator.equals(other.discriminator);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(this.instance) + this.discriminator.hashCode();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import org.bouncycastle.asn1.ASN1OctetString;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.cert.CRL;
+import java.security.cert.CRLSelector;
+import java.security.cert.CertSelector;
+import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLSelector;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable index of certificates and CRLs. X509 certificates are indexed by
+ * subject, subject key identifier and issuer/serial number; X509 CRLs are indexed
+ * by issuer. Lookups with selectors that use one of those criteria only test
+ * the matching entries; other lookups go through all the entries.
+ *
+ * @author Luís
+ */
+final class CertStoreIndex
+{
+    private static final String SKI_OID = "2.5.29.14";
+
+    private final List<Certificate> certs;
+    private final List<CRL> crls;
+    private final Map<X500Principal, List<X509Certificate>> certsBySubject;
+    private final Map<ByteBuffer, List<X509Certificate>> certsBySki;
+    private final Map<IssuerSerial, List<X509Certificate>> certsByIssuerSerial;
+    private final Map<X500Principal, List<X509CRL>> crlsByIssuer;
+
+    CertStoreIndex(Collection<?> contents)
+    {
+        this.certs = new ArrayList<>();
+        this.crls = new ArrayList<>();
+        this.certsBySubject = new HashMap<>();
+        this.certsBySki = new HashMap<>();
+        this.certsByIssuerSerial = new HashMap<>();
+        this.crlsByIssuer = new HashMap<>();
+
+        for (Object o : contents)
+        {
+            if (o instanceof Certificate)
+            {
+                addCertificate((Certificate) o);
+            }
+            else if (o instanceof CRL)
+            {
+                addCrl((CRL) o);
+            }
+        }
+    }
+
+    private void addCertificate(Certificate cert)
+    {
+        this.certs.add(cert);
+        if (cert instanceof X509Certificate)
+        {
+            X509Certificate x509Cert = (X509Certificate) cert;
+            addTo(this.certsBySubject, x509Cert.getSubjectX500Principal(), x509Cert);
+            addTo(this.certsByIssuerSerial, new IssuerSerial(x509Cert.getIssuerX500Principal(), x509Cert.getSerialNumber()), x509Cert);
+            ByteBuffer ski = getSubjectKeyIdentifier(x509Cert);
+            if (ski != null)
+            {
+                addTo(this.certsBySki, ski, x509Cert);
+            }
+        }
+    }
+
+    private void addCrl(CRL crl)
+    {
+        this.crls.add(crl);
+        if (crl instanceof X509CRL)
+        {
+            X509CRL x509Crl = (X509CRL) crl;
+            addTo(this.crlsByIssuer, x509Crl.getIssuerX500Principal(), x509Crl);
+        }
+    }
+
+    private static <K, V> void addTo(Map<K, List<V>> map, K key, V value)
+    {
+        map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(value);
+    }
+
+    /**
+     * Gets the value of the subject key identifier extension in the same format
+     * as {@link X509CertSelector#getSubjectKeyIdentifier()}, i.e. the DER encoding
+     * of the key identifier OCTET STRING.
+     */
+    private static ByteBuffer getSubjectKeyIdentifier(X509Certificate cert)
+    {
+        byte[] extValue = cert.getExtensionValue(SKI_OID);
+        if (null == extValue)
+        {
+            return null;
+        }
+        try
+        {
+            return ByteBuffer.wrap(ASN1OctetString.getInstance(extValue).getOctets());
+        }
+        catch (IllegalArgumentException ex)
+        {
+            // Bad encoding; the certificate is still found by other criteria.
+            return null;
+        }
+    }
+
+    Collection<Certificate> getCertificates(CertSelector selector)
+    {
+        if (null == selector)
+        {
+            return new ArrayList<>(this.certs);
+        }
+
+        Collection<? extends Certificate> candidates = this.certs;
+        if (selector instanceof X509CertSelector)
+        {
+            X509CertSelector x509Selector = (X509CertSelector) selector;
+            if (x509Selector.getCertificate() != null)
+            {
+                candidates = lookup(this.certsBySubject, x509Selector.getCertificate().getSubjectX500Principal());
+            }
+            else if (x509Selector.getSubject() != null)
+            {
+                candidates = lookup(this.certsBySubject, x509Selector.getSubject());
+            }
+            else if (x509Selector.getSubjectKeyIdentifier() != null)
+            {
+                candidates = lookup(this.certsBySki, ByteBuffer.wrap(x509Selector.getSubjectKeyIdentifier()));
+            }
+            else if (x509Selector.getIssuer() != null && x509Selector.getSerialNumber() != null)
+            {
+                candidates = lookup(this.certsByIssuerSerial, new IssuerSerial(x509Selector.getIssuer(), x509Selector.getSerialNumber()));
+            }
+        }
+
+        Collection<Certificate> res = new ArrayList<>();
+        for (Certificate c : candidates)
+        {
+            if (selector.match(c))
+            {
+                res.add(c);
+            }
+        }
+        return res;
+    }
+
+    Collection<CRL> getCRLs(CRLSelector selector)
+    {
+        if (null == selector)
+        {
+            return new ArrayList<>(this.crls);
+        }
+
+        Collection<? extends CRL> candidates = this.crls;
+        if (selector instanceof X509CRLSelector && ((X509CRLSelector) selector).getIssuers() != null)
+        {
+            List<CRL> byIssuer = new ArrayList<>();
+            for (X500Principal issuer : ((X509CRLSelector) selector).getIssuers())
+            {
+                byIssuer.addAll(lookup(this.crlsByIssuer, issuer));
+            }
+            candidates = byIssuer;
+        }
+
+        Collection<CRL> res = new ArrayList<>();
+        for (CRL crl : candidates)
+        {
+            if (selector.match(crl))
+            {
+                res.add(crl);
+            }
+        }
+        return res;
+    }
+
+    private static <K, V> List<V> lookup(Map<K, List<V>> map, K key)
+    {
+        return map.getOrDefault(key, Collections.emptyList());
+    }
+
+    private static final class IssuerSerial
+    {
+        private final X500Principal issuer;
+        private final BigInteger serialNumber;
+
+        IssuerSerial(X500Principal issuer, BigInteger serialNumber)
+        {
+            this.issuer = issuer;
+            this.serialNumber = serialNumber;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof IssuerSerial))
+            {
+                return false;
+            }
+            IssuerSerial other = (IssuerSerial) o;
+            return this.issuer.equals(other.issuer) && this.serialNumber.equals(other.serialNumber);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.issuer, this.serialNumber);
+        }
+    }
+}
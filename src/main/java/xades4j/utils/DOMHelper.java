@@ -20,6 +20,7 @@ import org.apache.xml.security.utils.Constants;
 import org.apache.xml.security.utils.HelperNodeList;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -192,6 +193,30 @@ public class DOMHelper
         return nl;
     }
 
+    /**
+     * Visits all the nodes in a subtree, including attributes. Reading a DOM may
+     * update its internal state (e.g. deferred node expansion in Xerces); after
+     * this method, the subtree can be read concurrently as long as it isn't changed.
+     * @param node the root of the subtree
+     */
+    public static void expandSubtree(Node node)
+    {
+        NamedNodeMap attrs = node.getAttributes();
+        if (attrs != null)
+        {
+            for (int i = 0; i < attrs.getLength(); i++)
+            {
+                attrs.item(i).getNodeValue();
+            }
+        }
+        node.getNodeValue();
+
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling())
+        {
+            expandSubtree(child);
+        }
+    }
+
     /**
      * Sets the "Id" attribute of an element and sets it as the element's XML ID.
      * @param e the element where the ID should be set
@@ -16,33 +16,63 @@
  */
 package xades4j.utils;
 
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.security.InvalidAlgorithmParameterException;
-import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.security.cert.CRL;
 import java.security.cert.CRLException;
+import java.security.cert.CRLSelector;
+import java.security.cert.CertSelector;
 import java.security.cert.CertStore;
+import java.security.cert.CertStoreSpi;
+import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
-import java.security.cert.CollectionCertStoreParameters;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Creates a {@code CertStore} from the contents of a file-system directory. The
  * directories are recusively searched for X509 certificates or CRLs files that
  * have one of the specified extensions. If the JCE provider is not supplied, the
  * CertificateFactory is obtained without specifying a provider.
+ * <p>
+ * The certificates are indexed by subject, subject key identifier and issuer/serial
+ * number, and the CRLs by issuer, so that the lookups done when building certification
+ * paths don't need to go through the whole content.
+ * <p>
+ * Changes on the directory can be picked up by calling {@link #startWatching()}.
+ * Changed files are re-read and a new index is built and swapped in, without
+ * blocking the lookups on the store.
  * @author Luís
  */
-public class FileSystemDirectoryCertStore
+public class FileSystemDirectoryCertStore implements Closeable
 {
     private static final String[] DEFAULT_CERT_FILE_EXT = { "cer", "crt" };
     private static final String[] DEFAULT_CRL_FILE_EXT = { "crl" };
 
+    private final Path baseDir;
+    private final String[] certsFilesExts;
+    private final String[] crlsFilesExts;
+    private final CertificateFactory cf;
     private final CertStore content;
+    /**/
+    private final Map<Path, Object> filesContents;
+    private volatile CertStoreIndex index;
+    private WatchService watchService;
 
     /**
      * Creates a new instance over a directory. The {@code cer} and {@code crt}
@@ -129,57 +159,192 @@ public class FileSystemDirectoryCertStore
         if (!dir.exists() || !dir.isDirectory())
             throw new IllegalArgumentException("Specified path doesn't exist or doesn't refer a directory");
 
-        Collection<Object> contentList = new ArrayList<>();
-        transverseDirToFindContent(dir, contentList, certsFilesExts, crlsFilesExts, cf);
+        this.baseDir = dir.toPath();
+        this.certsFilesExts = certsFilesExts;
+        this.crlsFilesExts = crlsFilesExts;
+        this.cf = cf;
+        this.filesContents = new HashMap<>();
+
+        transverseDirToFindContent(this.baseDir);
+        this.index = new CertStoreIndex(this.filesContents.values());
 
         try
         {
-            this.content = CertStore.getInstance("Collection", new CollectionCertStoreParameters(contentList));
-            return;
-        } catch (InvalidAlgorithmParameterException | NoSuchAlgorithmException ignored)
+            this.content = new IndexedCertStore(new IndexedCertStoreSpi(this));
+        } catch (InvalidAlgorithmParameterException ex)
         {
+            // Not thrown: the SPI doesn't have parameters.
+            throw new CertificateException("Error creating CertStore", ex);
         }
-      // ToDo: this is a bit ugly!
-        throw new CertificateException("Error getting Collection CertStore");
     }
 
-    private void transverseDirToFindContent(
-            File dir,
-            Collection<Object> contentList,
-            String[] certsFilesExts,
-            String[] crlsFilesExts,
-            CertificateFactory cf) throws CertificateException, CRLException
+    private void transverseDirToFindContent(Path dir) throws CertificateException, CRLException
     {
-        File[] dirContents = dir.listFiles();
-        assert dirContents != null;
-        for (File f : dirContents)
+        try (DirectoryStream<Path> dirContents = Files.newDirectoryStream(dir))
         {
-            if (f.isDirectory())
-                transverseDirToFindContent(f, contentList, certsFilesExts, crlsFilesExts, cf);
-            else if (f.isFile())
+            for (Path f : dirContents)
             {
-                try {
-                    if (hasExt(f, certsFilesExts))
-                        contentList.add(cf.generateCertificate(new FileInputStream(f)));
-                    else if (hasExt(f, crlsFilesExts))
-                        contentList.add(cf.generateCRL(new FileInputStream(f)));
-                } catch (FileNotFoundException ex) {
-                    // The file existed right up there! If somehow it doesn't exist
-                    // now, nevermind.
-                }
+                if (Files.isDirectory(f))
+                    transverseDirToFindContent(f);
+                else if (Files.isRegularFile(f))
+                    readFile(f);
             }
+        } catch (IOException ex)
+        {
+            // The directory existed right up there! If somehow it can't be read
+            // now, nevermind.
         }
     }
 
-    private boolean hasExt(File f, String[] filesExts)
+    private void readFile(Path f) throws CertificateException, CRLException
+    {
+        boolean isCert = hasExt(f, this.certsFilesExts);
+        if (!isCert && !hasExt(f, this.crlsFilesExts))
+            return;
+
+        try (InputStream is = Files.newInputStream(f))
+        {
+            this.filesContents.put(f, isCert ? this.cf.generateCertificate(is) : this.cf.generateCRL(is));
+        } catch (IOException ex)
+        {
+            // The file existed right up there! If somehow it doesn't exist
+            // now, nevermind.
+        }
+    }
+
+    private boolean hasExt(Path f, String[] filesExts)
     {
       for (String filesExt : filesExts) {
-        if (f.getName().endsWith('.' + filesExt))
+        if (f.getFileName().toString().endsWith('.' + filesExt))
           return true;
       }
         return false;
     }
 
+    /**
+     * Starts watching the directory for changes. New, modified and deleted files
+     * (on the base directory or any sub-directory) are reflected on the store shortly
+     * after the change. Files that cannot be parsed (e.g. because they are still
+     * being written) are ignored until they change again.
+     * <p>
+     * Watching is done on a daemon thread, which is stopped by {@link #close()}.
+     * Calling this method when already watching has no effect.
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException
+    {
+        if (this.watchService != null)
+            return;
+
+        WatchService ws = this.baseDir.getFileSystem().newWatchService();
+        Map<WatchKey, Path> keys = new HashMap<>();
+        registerAll(this.baseDir, ws, keys);
+        this.watchService = ws;
+
+        Thread watcher = new Thread(() -> watch(ws, keys), "FileSystemDirectoryCertStore-" + this.baseDir);
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the directory, if {@link #startWatching()} was invoked. The
+     * store remains usable with its current content.
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (this.watchService != null)
+        {
+            this.watchService.close();
+            this.watchService = null;
+        }
+    }
+
+    private static void registerAll(Path dir, WatchService ws, Map<WatchKey, Path> keys) throws IOException
+    {
+        WatchKey key = dir.register(ws,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        keys.put(key, dir);
+        try (DirectoryStream<Path> dirContents = Files.newDirectoryStream(dir, Files::isDirectory))
+        {
+            for (Path d : dirContents)
+                registerAll(d, ws, keys);
+        }
+    }
+
+    private void watch(WatchService ws, Map<WatchKey, Path> keys)
+    {
+        try
+        {
+            while (true)
+            {
+                WatchKey key = ws.take();
+                Path dir = keys.get(key);
+                boolean rescan = false;
+                Map<Path, Boolean> changes = new HashMap<>();
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || null == dir)
+                        rescan = true;
+                    else
+                        changes.put(dir.resolve((Path) event.context()), event.kind() != StandardWatchEventKinds.ENTRY_DELETE);
+                }
+                if (!key.reset())
+                    keys.remove(key);
+
+                applyChanges(rescan, changes, ws, keys);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex)
+        {
+            // Stopped watching.
+        }
+    }
+
+    private synchronized void applyChanges(
+            boolean rescan,
+            Map<Path, Boolean> changes,
+            WatchService ws,
+            Map<WatchKey, Path> keys)
+    {
+        if (rescan)
+        {
+            this.filesContents.clear();
+            changes.clear();
+            changes.put(this.baseDir, true);
+        }
+
+        for (Map.Entry<Path, Boolean> c : changes.entrySet())
+        {
+            Path p = c.getKey();
+            // The path may be a file or directory; remove anything below it.
+            this.filesContents.keySet().removeIf(f -> f.startsWith(p));
+
+            if (c.getValue())
+            {
+                try
+                {
+                    if (Files.isDirectory(p))
+                    {
+                        registerAll(p, ws, keys);
+                        transverseDirToFindContent(p);
+                    }
+                    else if (Files.isRegularFile(p))
+                    {
+                        readFile(p);
+                    }
+                } catch (IOException | CertificateException | CRLException | ClosedWatchServiceException ex)
+                {
+                    // Ignore the content for now; it may be fixed by a later change.
+                }
+            }
+        }
+
+        this.index = new CertStoreIndex(new ArrayList<>(this.filesContents.values()));
+    }
+
     /**
      * Gets the {@code CertStore} resulting from this instance.
      * @return the {@code CertStore} containing all the certificates and CRLs that were found
@@ -188,4 +353,35 @@ public class FileSystemDirectoryCertStore
     {
         return this.content;
     }
+
+    private static final class IndexedCertStoreSpi extends CertStoreSpi
+    {
+        private final FileSystemDirectoryCertStore owner;
+
+        IndexedCertStoreSpi(FileSystemDirectoryCertStore owner) throws InvalidAlgorithmParameterException
+        {
+            super(null);
+            this.owner = owner;
+        }
+
+        @Override
+        public Collection<? extends Certificate> engineGetCertificates(CertSelector selector)
+        {
+            return this.owner.index.getCertificates(selector);
+        }
+
+        @Override
+        public Collection<? extends CRL> engineGetCRLs(CRLSelector selector)
+        {
+            return this.owner.index.getCRLs(selector);
+        }
+    }
+
+    private static final class IndexedCertStore extends CertStore
+    {
+        IndexedCertStore(CertStoreSpi spi)
+        {
+            super(spi, null, "FileSystemDirectory", null);
+        }
+    }
 }
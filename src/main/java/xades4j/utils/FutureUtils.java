@@ -0,0 +1,109 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Utility methods for futures.
+ * @author Luís
+ */
+public final class FutureUtils
+{
+    private FutureUtils()
+    {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Waits for all the futures and gets their results. All the futures are
+     * waited for before reporting any failure, so that the outcome doesn't depend
+     * on which one completes first. If some fail, the failure of the first one
+     * (in the list order) is thrown: as is, if it is of the given type, a
+     * {@code RuntimeException} or an {@code Error}; otherwise, wrapped in a
+     * {@code CompletionException}.
+     * @param futures the futures
+     * @param exceptionType the type of the checked exceptions thrown by the tasks
+     * @return the results, in the same order as {@code futures}
+     * @throws E if the first failure is of type {@code E}
+     */
+    public static <T, E extends Exception> List<T> joinAll(
+            List<CompletableFuture<T>> futures,
+            Class<E> exceptionType) throws E
+    {
+        return joinAll(futures, exceptionType, exceptionType);
+    }
+
+    /**
+     * Waits for all the futures and gets their results, as {@link #joinAll(List, Class)},
+     * for tasks that may throw checked exceptions of two types.
+     * @param futures the futures
+     * @param exceptionType1 a type of the checked exceptions thrown by the tasks
+     * @param exceptionType2 another type of the checked exceptions thrown by the tasks
+     * @return the results, in the same order as {@code futures}
+     * @throws E1 if the first failure is of type {@code E1}
+     * @throws E2 if the first failure is of type {@code E2}
+     */
+    public static <T, E1 extends Exception, E2 extends Exception> List<T> joinAll(
+            List<CompletableFuture<T>> futures,
+            Class<E1> exceptionType1,
+            Class<E2> exceptionType2) throws E1, E2
+    {
+        List<T> results = new ArrayList<>(futures.size());
+        Throwable failure = null;
+        for (CompletableFuture<T> f : futures)
+        {
+            try
+            {
+                results.add(f.join());
+            }
+            catch (CompletionException ex)
+            {
+                results.add(null);
+                if (null == failure)
+                {
+                    failure = ex.getCause() != null ? ex.getCause() : ex;
+                }
+            }
+        }
+
+        if (null == failure)
+        {
+            return results;
+        }
+        if (exceptionType1.isInstance(failure))
+        {
+            throw exceptionType1.cast(failure);
+        }
+        if (exceptionType2.isInstance(failure))
+        {
+            throw exceptionType2.cast(failure);
+        }
+        if (failure instanceof RuntimeException)
+        {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+        throw new CompletionException(failure);
+    }
+}
@@ -18,6 +18,10 @@ package xades4j.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 
 /**
@@ -26,6 +30,8 @@ import java.security.MessageDigest;
  */
 public class MessageDigestUtils
 {
+    private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
     private MessageDigestUtils()
     {
     }
@@ -41,4 +47,32 @@ public class MessageDigestUtils
         
         return digest.digest();
     }
+
+    /**
+     * Digests the contents of a file. The file is mapped into memory in fixed-size
+     * regions which are fed directly to the digest engine, avoiding the copies
+     * through intermediate heap buffers that occur when reading a stream.
+     *
+     * @param digest the digest engine
+     * @param file   the file to digest
+     * @return the digest value
+     * @throws IOException if the file cannot be read
+     */
+    public static byte[] digestFile(MessageDigest digest, Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPED_REGION_SIZE)
+            {
+                MappedByteBuffer region = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        position,
+                        Math.min(MAPPED_REGION_SIZE, size - position));
+                digest.update(region);
+            }
+        }
+
+        return digest.digest();
+    }
 }
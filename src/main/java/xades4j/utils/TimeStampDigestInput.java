@@ -16,8 +16,14 @@
  */
 package xades4j.utils;
 
+import org.apache.xml.security.algorithms.JCEMapper;
 import org.apache.xml.security.signature.Reference;
 import org.w3c.dom.Node;
+import xades4j.algorithms.Algorithm;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 
 /**
  * Builder of inputs for time-stamps. The digests for time-stamps are usually
@@ -49,8 +55,42 @@ public interface TimeStampDigestInput
     /**
      * Gets the octet-stream corresponding to the actual state of the input.
      * @return the octet-stream (always a new instance)
+     * @throws IllegalStateException if the input was created to calculate digests
+     *      only, in which case the octet-stream is not kept
+     * @see TimeStampDigestInputFactory#newTimeStampDigestInput(Algorithm, Collection)
      */
     byte[] getBytes();
+
+    /**
+     * Gets the digest of the octet-stream corresponding to the actual state of
+     * the input. On inputs created to calculate digests, the digest is calculated
+     * as the data is added, meaning that the octet-stream doesn't need to be kept
+     * in memory.
+     * <p>
+     * The default implementation calculates the digest over {@link #getBytes()}.
+     * @param digestAlgUri the digest algorithm
+     * @return the digest value
+     * @throws IllegalArgumentException if the digest cannot be calculated with
+     *      {@code digestAlgUri}
+     * @see TimeStampDigestInputFactory#newTimeStampDigestInput(Algorithm, Collection)
+     */
+    default byte[] getDigest(String digestAlgUri)
+    {
+        String digestAlgJceName = JCEMapper.translateURItoJCEID(digestAlgUri);
+        if (null == digestAlgJceName)
+        {
+            throw new IllegalArgumentException("Unsupported digest algorithm " + digestAlgUri);
+        }
+
+        try
+        {
+            return MessageDigest.getInstance(digestAlgJceName).digest(getBytes());
+        }
+        catch (NoSuchAlgorithmException ex)
+        {
+            throw new IllegalArgumentException("Unsupported digest algorithm " + digestAlgUri, ex);
+        }
+    }
 }
 
 
@@ -19,6 +19,8 @@ package xades4j.utils;
 import xades4j.algorithms.Algorithm;
 import xades4j.UnsupportedAlgorithmException;
 
+import java.util.Collection;
+
 /**
  * Factory for builders of timestamp inputs.
  * <p>
@@ -40,4 +42,26 @@ public interface TimeStampDigestInputFactory
      * @see TimeStampDigestInput
      */
     TimeStampDigestInput newTimeStampDigestInput(Algorithm c14n) throws UnsupportedAlgorithmException;
+
+    /**
+     * Creates a new builder of timestamp inputs that calculates the digests of
+     * the input with the specified algorithms as data is added. The input octet-stream
+     * itself may not be kept, in which case {@link TimeStampDigestInput#getBytes()}
+     * cannot be used.
+     * <p>
+     * The default implementation returns {@link #newTimeStampDigestInput(Algorithm)},
+     * i.e. the octet-stream is kept and digested when {@link TimeStampDigestInput#getDigest(String)}
+     * is invoked.
+     * @param c14n the canonicalization method to be used by the timestamp input when
+     *              adding XML node-sets
+     * @param digestAlgUris the digest algorithms to use
+     * @return the timestamp input builder
+     * @throws UnsupportedAlgorithmException if {@code c14n} or any of the digest
+     *      algorithms is not recognized
+     * @see TimeStampDigestInput#getDigest(String)
+     */
+    default TimeStampDigestInput newTimeStampDigestInput(Algorithm c14n, Collection<String> digestAlgUris) throws UnsupportedAlgorithmException
+    {
+        return newTimeStampDigestInput(c14n);
+    }
 }
@@ -19,19 +19,29 @@ package xades4j.utils;
 import jakarta.inject.Inject;
 import xades4j.algorithms.Algorithm;
 import xades4j.UnsupportedAlgorithmException;
+import xades4j.providers.MessageDigestEngineProvider;
 import xades4j.xml.marshalling.algorithms.AlgorithmsParametersMarshallingProvider;
 
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author Luís
  */
 class TimeStampDigestInputFactoryImpl implements TimeStampDigestInputFactory
 {
     private final AlgorithmsParametersMarshallingProvider parametersMarshallingProvider;
+    private final MessageDigestEngineProvider messageDigestProvider;
 
     @Inject
-    TimeStampDigestInputFactoryImpl(AlgorithmsParametersMarshallingProvider parametersMarshallingProvider)
+    TimeStampDigestInputFactoryImpl(
+            AlgorithmsParametersMarshallingProvider parametersMarshallingProvider,
+            MessageDigestEngineProvider messageDigestProvider)
     {
         this.parametersMarshallingProvider = parametersMarshallingProvider;
+        this.messageDigestProvider = messageDigestProvider;
     }
 
     @Override
@@ -46,4 +56,27 @@ class TimeStampDigestInputFactoryImpl implements TimeStampDigestInputFactory
 
         return new TimeStampDigestInputImpl(c14n, this.parametersMarshallingProvider);
     }
+
+    @Override
+    public TimeStampDigestInput newTimeStampDigestInput(Algorithm c14n, Collection<String> digestAlgUris) throws UnsupportedAlgorithmException
+    {
+        if (null == c14n || null == digestAlgUris)
+        {
+            throw new NullPointerException("Canonicalization algorithm and digest algorithms cannot be null");
+        }
+        if (digestAlgUris.isEmpty())
+        {
+            throw new IllegalArgumentException("At least one digest algorithm must be specified");
+        }
+
+        CanonicalizerUtils.checkC14NAlgorithm(c14n);
+
+        Map<String, MessageDigest> digests = new HashMap<>(digestAlgUris.size());
+        for (String digestAlgUri : digestAlgUris)
+        {
+            digests.put(digestAlgUri, this.messageDigestProvider.getEngine(digestAlgUri));
+        }
+
+        return new TimeStampDigestInputImpl(c14n, this.parametersMarshallingProvider, digests);
+    }
 }
@@ -17,6 +17,10 @@
 package xades4j.utils;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.xml.security.signature.Reference;
 import org.apache.xml.security.signature.XMLSignatureException;
 import org.apache.xml.security.signature.XMLSignatureInput;
@@ -37,6 +41,9 @@ class TimeStampDigestInputImpl implements TimeStampDigestInput
     private final AlgorithmsParametersMarshallingProvider parametersMarshallingProvider;
 
     private final ByteArrayOutputStream digestInput;
+    private final Map<String, MessageDigest> digests;
+    private final Map<String, byte[]> finishedDigests;
+    private final OutputStream sink;
 
     TimeStampDigestInputImpl(Algorithm c14n, AlgorithmsParametersMarshallingProvider parametersMarshallingProvider)
     {
@@ -48,6 +55,25 @@ class TimeStampDigestInputImpl implements TimeStampDigestInput
         this.c14n = c14n;
         this.parametersMarshallingProvider = parametersMarshallingProvider;
         this.digestInput = new ByteArrayOutputStream();
+        this.digests = null;
+        this.finishedDigests = null;
+        this.sink = this.digestInput;
+    }
+
+    /**
+     * Creates an input that only keeps the digests of the data.
+     */
+    TimeStampDigestInputImpl(
+            Algorithm c14n,
+            AlgorithmsParametersMarshallingProvider parametersMarshallingProvider,
+            Map<String, MessageDigest> digests)
+    {
+        this.c14n = c14n;
+        this.parametersMarshallingProvider = parametersMarshallingProvider;
+        this.digestInput = null;
+        this.digests = digests;
+        this.finishedDigests = new HashMap<>(digests.size());
+        this.sink = new DigestsOutputStream(digests);
     }
 
     @Override
@@ -61,6 +87,12 @@ class TimeStampDigestInputImpl implements TimeStampDigestInput
         try
         {
             XMLSignatureInput refData = r.getContentsAfterTransformation();
+            if (refData.getPreCalculatedDigest() != null && !refData.hasUnprocessedInput())
+            {
+                // Only the digest of the data is known (see DataObjectReference.withDigest).
+                throw new CannotAddDataToDigestInputException(new IllegalStateException(
+                        "The contents of the reference are not available, only its digest value"));
+            }
             addToDigestInput(refData, r.getDocument());
 
         } catch (XMLSignatureException ex)
@@ -82,15 +114,23 @@ class TimeStampDigestInputImpl implements TimeStampDigestInput
 
     private void addToDigestInput(XMLSignatureInput refData, Document doc) throws CannotAddDataToDigestInputException
     {
+        if (this.finishedDigests != null && !this.finishedDigests.isEmpty())
+        {
+            throw new IllegalStateException("Data cannot be added after a digest is completed");
+        }
+
         try
         {
             if (refData.isNodeSet() || refData.isElement())
             {
+                // The canonicalization output is written directly to the input.
                 Transform c14nTransform = TransformUtils.createTransform(this.c14n, this.parametersMarshallingProvider, doc);
-                refData = c14nTransform.performTransform(refData, true);
-                // Fall through to add the bytes resulting from the canonicalization.
+                c14nTransform.performTransform(refData, this.sink, true);
+            }
+            else
+            {
+                refData.write(this.sink);
             }
-            refData.write(digestInput);
         }
         catch (Exception ex)
         {
@@ -101,6 +141,73 @@ class TimeStampDigestInputImpl implements TimeStampDigestInput
     @Override
     public byte[] getBytes()
     {
+        if (null == this.digestInput)
+        {
+            throw new IllegalStateException("The octet-stream is not kept on digest-only time-stamp inputs");
+        }
         return digestInput.toByteArray();
     }
+
+    @Override
+    public byte[] getDigest(String digestAlgUri)
+    {
+        if (null == this.digests)
+        {
+            return TimeStampDigestInput.super.getDigest(digestAlgUri);
+        }
+
+        byte[] digest = this.finishedDigests.get(digestAlgUri);
+        if (digest != null)
+        {
+            return digest.clone();
+        }
+
+        MessageDigest md = this.digests.get(digestAlgUri);
+        if (null == md)
+        {
+            throw new IllegalArgumentException("Digest not calculated for algorithm " + digestAlgUri);
+        }
+
+        try
+        {
+            // Don't reset the engine, so that more data can be added.
+            return ((MessageDigest) md.clone()).digest();
+        }
+        catch (CloneNotSupportedException ex)
+        {
+            // The engine is reset when the digest is completed. The digest is
+            // kept for subsequent calls and no more data can be added.
+            digest = md.digest();
+            this.finishedDigests.put(digestAlgUri, digest);
+            return digest.clone();
+        }
+    }
+
+    private static final class DigestsOutputStream extends OutputStream
+    {
+        private final MessageDigest[] digests;
+
+        DigestsOutputStream(Map<String, MessageDigest> digests)
+        {
+            this.digests = digests.values().toArray(new MessageDigest[0]);
+        }
+
+        @Override
+        public void write(int b)
+        {
+            for (MessageDigest md : this.digests)
+            {
+                md.update((byte) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+            for (MessageDigest md : this.digests)
+            {
+                md.update(b, off, len);
+            }
+        }
+    }
 }
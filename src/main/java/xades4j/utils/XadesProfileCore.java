@@ -17,13 +17,17 @@
 package xades4j.utils;
 
 import com.google.inject.Binder;
+import com.google.inject.Binding;
 import com.google.inject.Guice;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.OptionalBinder;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
 import com.google.inject.util.Modules;
 import com.google.inject.util.Types;
 import java.lang.reflect.ParameterizedType;
@@ -31,11 +35,22 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Helper class that implements the core logic of profile resolution based on a series
  * of dependencies. Profile resolution is based on Google's dependency container (Guice).
  * <p>
+ * The injector is created on the first resolution and reused on subsequent ones
+ * until the bindings are changed. Resolutions may also override some bindings on
+ * a per-instance basis: in that case the overridden bindings are left out of a
+ * (cached) parent injector and supplied through a lightweight child injector.
+ * <p>
  * This class is meant for internal use only.
  *
  * @author Luís
@@ -52,10 +67,22 @@ public final class XadesProfileCore
 
     /**/
     private final Collection<BindingAction> bindings;
+    /**/
+    private Module[] cachedOverridableModules;
+    private Module[] cachedSealedModules;
+    private final Map<Set<Class<?>>, Injector> injectors;
 
     public XadesProfileCore()
     {
         this.bindings = new ArrayList<>();
+        this.injectors = new HashMap<>();
+    }
+
+    private synchronized void addBindingAction(BindingAction ba)
+    {
+        this.bindings.add(ba);
+        // Injectors created so far don't include the new binding.
+        this.injectors.clear();
     }
 
     /**
@@ -66,7 +93,7 @@ public final class XadesProfileCore
         if (null == from || null == to)
             throw new NullPointerException();
 
-        this.bindings.add(b -> b.bind(from).to(to));
+        addBindingAction(b -> b.bind(from).to(to));
     }
 
     /**
@@ -77,7 +104,7 @@ public final class XadesProfileCore
         if (null == from || null == to)
             throw new NullPointerException();
 
-        this.bindings.add(b -> b.bind(from).toInstance(to));
+        addBindingAction(b -> b.bind(from).toInstance(to));
     }
 
     public void addGenericBinding(
@@ -88,7 +115,7 @@ public final class XadesProfileCore
         if (ObjectUtils.anyNull(genericClass, genericClassParams, to))
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             ParameterizedType pt = Types.newParameterizedType(genericClass, genericClassParams);
             Key<Object> k = (Key<Object>) Key.get(TypeLiteral.get(pt));
             b.bind(k).to(to);
@@ -103,7 +130,7 @@ public final class XadesProfileCore
         if (ObjectUtils.anyNull(genericClass, genericClassParams, to))
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             ParameterizedType pt = Types.newParameterizedType(genericClass, genericClassParams);
             Key<Object> k = (Key<Object>) Key.get(TypeLiteral.get(pt));
             b.bind(k).toInstance(to);
@@ -112,7 +139,7 @@ public final class XadesProfileCore
 
     public <T> void addOptionalBinding(final Class<T> clazz)
     {
-        this.bindings.add(b -> OptionalBinder.newOptionalBinder(b, clazz));
+        addBindingAction(b -> OptionalBinder.newOptionalBinder(b, clazz));
     }
 
     public <T> void addMultibinding(final Class<T> from, final Class<? extends T> to)
@@ -120,7 +147,7 @@ public final class XadesProfileCore
         if (null == from || null == to)
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             Multibinder<T> multibinder = Multibinder.newSetBinder(b, from);
             multibinder.addBinding().to(to);
         });
@@ -131,7 +158,7 @@ public final class XadesProfileCore
         if (null == from || null == to)
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             Multibinder<T> multibinder = Multibinder.newSetBinder(b, from);
             multibinder.addBinding().toInstance(to);
         });
@@ -142,7 +169,7 @@ public final class XadesProfileCore
         if (null == key || null == value)
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             MapBinder<Object,Object> mapBinder = (MapBinder<Object, Object>) MapBinder.newMapBinder(b, key.getClass(), valueClass);
             mapBinder.addBinding(key).toInstance(value);
         });
@@ -153,7 +180,7 @@ public final class XadesProfileCore
         if (null == key || null == to)
             throw new NullPointerException();
 
-        this.bindings.add(b -> {
+        addBindingAction(b -> {
             MapBinder<Object,Object> mapBinder = (MapBinder<Object, Object>) MapBinder.newMapBinder(b, key.getClass(), valueClass);
             mapBinder.addBinding(key).to(to);
         });
@@ -163,6 +190,76 @@ public final class XadesProfileCore
             Class<T> clazz,
             Module[] overridableModules,
             Module[] sealedModules) throws XadesProfileResolutionException
+    {
+        return getInstance(clazz, overridableModules, sealedModules, Collections.emptyMap());
+    }
+
+    /**
+     * Gets an instance of {@code clazz} using the given instances for some of the
+     * dependencies, overriding any bindings on the modules or on this profile.
+     * <p>
+     * The overridden types must not be dependencies of explicitly bound types,
+     * because those are resolved on the parent injector where the overridden
+     * bindings are not present.
+     *
+     * @param instanceBindings instances for the dependencies that should be overridden
+     * @throws XadesProfileResolutionException if the dependencies cannot be resolved
+     */
+    public <T> T getInstance(
+            Class<T> clazz,
+            Module[] overridableModules,
+            Module[] sealedModules,
+            Map<Class<?>, Object> instanceBindings) throws XadesProfileResolutionException
+    {
+        try
+        {
+            Injector injector = getInjector(overridableModules, sealedModules, instanceBindings.keySet());
+            if (!instanceBindings.isEmpty())
+            {
+                injector = injector.createChildInjector(b -> {
+                    for (Map.Entry<Class<?>, Object> e : instanceBindings.entrySet())
+                    {
+                        bindInstance(b, e.getKey(), e.getValue());
+                    }
+                });
+            }
+            return injector.getInstance(clazz);
+        } catch (RuntimeException ex)
+        {
+            throw new XadesProfileResolutionException(ex.getMessage(), ex);
+        }
+    }
+
+    private static <T> void bindInstance(Binder b, Class<T> type, Object instance)
+    {
+        b.bind(type).toInstance(type.cast(instance));
+    }
+
+    private synchronized Injector getInjector(
+            Module[] overridableModules,
+            Module[] sealedModules,
+            Set<Class<?>> excludedTypes)
+    {
+        if (overridableModules != this.cachedOverridableModules || sealedModules != this.cachedSealedModules)
+        {
+            this.injectors.clear();
+            this.cachedOverridableModules = overridableModules;
+            this.cachedSealedModules = sealedModules;
+        }
+
+        Injector injector = this.injectors.get(excludedTypes);
+        if (null == injector)
+        {
+            injector = createInjector(overridableModules, sealedModules, excludedTypes);
+            this.injectors.put(new HashSet<>(excludedTypes), injector);
+        }
+        return injector;
+    }
+
+    private Injector createInjector(
+            Module[] overridableModules,
+            Module[] sealedModules,
+            Set<Class<?>> excludedTypes)
     {
         Module userBindingsModule = b -> {
             for (BindingAction ba : bindings)
@@ -174,12 +271,27 @@ public final class XadesProfileCore
         // Concat sealed modules with override module
         Module[] finalModules = Arrays.copyOf(sealedModules, sealedModules.length + 1);
         finalModules[finalModules.length - 1] = overridesModule;
-        try
+
+        if (excludedTypes.isEmpty())
         {
-            return Guice.createInjector(finalModules).getInstance(clazz);
-        } catch (RuntimeException ex)
+            return Guice.createInjector(finalModules);
+        }
+
+        // Leave out the bindings for the excluded types; they will be bound on
+        // child injectors.
+        List<Element> elements = new ArrayList<>();
+        for (Element e : Elements.getElements(finalModules))
         {
-            throw new XadesProfileResolutionException(ex.getMessage(), ex);
+            if (!(e instanceof Binding && isExcluded(((Binding<?>) e).getKey(), excludedTypes)))
+            {
+                elements.add(e);
+            }
         }
+        return Guice.createInjector(Elements.getModule(elements));
+    }
+
+    private static boolean isExcluded(Key<?> key, Set<Class<?>> excludedTypes)
+    {
+        return key.getAnnotationType() == null && excludedTypes.contains(key.getTypeLiteral().getType());
     }
 }
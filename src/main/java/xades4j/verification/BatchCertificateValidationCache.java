@@ -0,0 +1,161 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import xades4j.providers.CertificateValidationException;
+import xades4j.providers.CertificateValidationProvider;
+import xades4j.providers.ValidationData;
+
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps a {@code CertificateValidationProvider} to avoid validating the same
+ * certificate more than once during a batch verification. Validations are
+ * shared when the leaf certificate is available on the validation context and
+ * the validation date and the set of certificates are the same. Other validations
+ * are always delegated.
+ * <p>
+ * The validation date is part of the key because the result depends on it (e.g.
+ * certificate validity periods and revocation status). As a consequence, signatures
+ * validated on their own time-stamp time are usually not shared. Validations with
+ * a tolerance on the date are left to the validation provider (see
+ * {@link xades4j.providers.impl.PKIXCertificateValidationProvider.Builder#cacheValidationResults}).
+ *
+ * @author Luís
+ */
+final class BatchCertificateValidationCache implements CertificateValidationProvider
+{
+    private final CertificateValidationProvider validationProvider;
+    private final ConcurrentMap<Key, CompletableFuture<ValidationData>> validations;
+
+    BatchCertificateValidationCache(CertificateValidationProvider validationProvider)
+    {
+        this.validationProvider = validationProvider;
+        this.validations = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public ValidationData validate(
+            X509CertSelector certSelector,
+            Date validationDate,
+            Collection<X509Certificate> otherCerts) throws CertificateValidationException, UnexpectedJCAException
+    {
+        X509Certificate leafCert = findLeafCertificate(certSelector, otherCerts);
+        if (null == leafCert)
+        {
+            return this.validationProvider.validate(certSelector, validationDate, otherCerts);
+        }
+
+        CompletableFuture<ValidationData> validation = new CompletableFuture<>();
+        CompletableFuture<ValidationData> existing = this.validations.putIfAbsent(
+                new Key(leafCert, validationDate, otherCerts), validation);
+        if (existing != null)
+        {
+            return getResult(existing);
+        }
+
+        try
+        {
+            validation.complete(this.validationProvider.validate(certSelector, validationDate, otherCerts));
+        }
+        catch (CertificateValidationException | UnexpectedJCAException | RuntimeException ex)
+        {
+            validation.completeExceptionally(ex);
+        }
+        return getResult(validation);
+    }
+
+    private static X509Certificate findLeafCertificate(X509CertSelector certSelector, Collection<X509Certificate> otherCerts)
+    {
+        for (X509Certificate c : otherCerts)
+        {
+            if (certSelector.match(c))
+            {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private static ValidationData getResult(CompletableFuture<ValidationData> validation) throws CertificateValidationException, UnexpectedJCAException
+    {
+        try
+        {
+            return validation.join();
+        }
+        catch (CompletionException ex)
+        {
+            Throwable cause = ex.getCause();
+            if (cause instanceof CertificateValidationException)
+            {
+                throw (CertificateValidationException) cause;
+            }
+            if (cause instanceof UnexpectedJCAException)
+            {
+                throw (UnexpectedJCAException) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    private static final class Key
+    {
+        private final X509Certificate leafCert;
+        private final Date validationDate;
+        private final Set<X509Certificate> otherCerts;
+
+        Key(X509Certificate leafCert, Date validationDate, Collection<X509Certificate> otherCerts)
+        {
+            this.leafCert = leafCert;
+            this.validationDate = validationDate;
+            this.otherCerts = new HashSet<>(otherCerts);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.leafCert.equals(other.leafCert)
+                    && Objects.equals(this.validationDate, other.validationDate)
+                    && this.otherCerts.equals(other.otherCerts);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.leafCert, this.validationDate, this.otherCerts);
+        }
+    }
+}
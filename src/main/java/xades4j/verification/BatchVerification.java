@@ -0,0 +1,99 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import xades4j.XAdES4jException;
+import xades4j.utils.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the verifications of a batch on an executor and handles the outcomes
+ * according to the {@link BatchVerificationMode}.
+ *
+ * @author Luís
+ */
+final class BatchVerification
+{
+    interface SignatureVerification
+    {
+        XAdESVerificationResult verify(BatchVerificationRequest request) throws XAdES4jException;
+    }
+
+    private BatchVerification()
+    {
+    }
+
+    static List<BatchVerificationResult> verifyAll(
+            List<BatchVerificationRequest> requests,
+            Executor executor,
+            BatchVerificationMode mode,
+            SignatureVerification verification) throws XAdES4jException
+    {
+        if (ObjectUtils.anyNull(requests, executor, mode))
+        {
+            throw new NullPointerException("One or more arguments are null");
+        }
+
+        // Index of the first request (in input order) that failed so far. Only later
+        // requests are skipped, so that the reported failure doesn't depend on timing.
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+
+        List<CompletableFuture<BatchVerificationResult>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++)
+        {
+            final int index = i;
+            final BatchVerificationRequest r = requests.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                if (mode == BatchVerificationMode.FAIL_FAST && firstFailure.get() < index)
+                {
+                    return null;
+                }
+                try
+                {
+                    return BatchVerificationResult.success(verification.verify(r));
+                }
+                catch (XAdES4jException | RuntimeException ex)
+                {
+                    firstFailure.accumulateAndGet(index, Math::min);
+                    return BatchVerificationResult.failure(ex);
+                }
+            }, executor));
+        }
+
+        List<BatchVerificationResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<BatchVerificationResult> f : futures)
+        {
+            results.add(f.join());
+        }
+
+        if (mode == BatchVerificationMode.FAIL_FAST && firstFailure.get() != Integer.MAX_VALUE)
+        {
+            Exception failure = results.get(firstFailure.get()).getException();
+            if (failure instanceof XAdES4jException)
+            {
+                throw (XAdES4jException) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+/**
+ * Controls how {@link XadesVerifier#verifyAll(java.util.List, java.util.concurrent.Executor, BatchVerificationMode) verifyAll}
+ * handles signatures that fail verification.
+ *
+ * @author Luís
+ */
+public enum BatchVerificationMode
+{
+    /**
+     * After a signature fails verification, the signatures that come after it on
+     * the batch and weren't yet started are skipped. The exception of the first
+     * signature on the batch that failed verification is thrown.
+     */
+    FAIL_FAST,
+    /**
+     * All the signatures are verified and failures are reported on the corresponding
+     * results.
+     */
+    COLLECT_ALL
+}
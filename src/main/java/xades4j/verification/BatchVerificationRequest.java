@@ -0,0 +1,71 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import org.w3c.dom.Element;
+
+/**
+ * A signature to be verified as part of a batch. It has the same information
+ * as the arguments of {@link XadesVerifier#verify(Element, SignatureSpecificVerificationOptions)}.
+ * <p>
+ * Signatures in a batch may be verified in parallel. Each request should target
+ * a different DOM document, since DOM implementations aren't thread-safe.
+ *
+ * @see XadesVerifier#verifyAll(java.util.List, java.util.concurrent.Executor, BatchVerificationMode)
+ * @author Luís
+ */
+public final class BatchVerificationRequest
+{
+    private final Element signatureElem;
+    private final SignatureSpecificVerificationOptions verificationOptions;
+
+    /**
+     * @param signatureElem the element containing the signature; must have an Id
+     */
+    public BatchVerificationRequest(Element signatureElem)
+    {
+        this(signatureElem, null);
+    }
+
+    /**
+     * @param signatureElem the element containing the signature; must have an Id
+     * @param verificationOptions signature verification options. If {@code null},
+     *      default options are used
+     */
+    public BatchVerificationRequest(
+            Element signatureElem,
+            SignatureSpecificVerificationOptions verificationOptions)
+    {
+        if (null == signatureElem)
+        {
+            throw new NullPointerException("Signature node not specified");
+        }
+
+        this.signatureElem = signatureElem;
+        this.verificationOptions = verificationOptions;
+    }
+
+    Element getSignatureElement()
+    {
+        return signatureElem;
+    }
+
+    SignatureSpecificVerificationOptions getVerificationOptions()
+    {
+        return verificationOptions;
+    }
+}
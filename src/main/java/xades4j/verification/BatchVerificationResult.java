@@ -0,0 +1,75 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+/**
+ * The outcome of the verification of a signature as part of a batch: either the
+ * verification result or the exception that caused the verification to fail.
+ *
+ * @see XadesVerifier#verifyAll(java.util.List, java.util.concurrent.Executor, BatchVerificationMode)
+ * @author Luís
+ */
+public final class BatchVerificationResult
+{
+    private final XAdESVerificationResult result;
+    private final Exception exception;
+
+    private BatchVerificationResult(XAdESVerificationResult result, Exception exception)
+    {
+        this.result = result;
+        this.exception = exception;
+    }
+
+    static BatchVerificationResult success(XAdESVerificationResult result)
+    {
+        return new BatchVerificationResult(result, null);
+    }
+
+    static BatchVerificationResult failure(Exception exception)
+    {
+        return new BatchVerificationResult(null, exception);
+    }
+
+    /**
+     * Indicates whether the signature was successfully verified.
+     * @return {@code true} if the signature is valid; {@code false} otherwise
+     */
+    public boolean isSuccessful()
+    {
+        return this.exception == null;
+    }
+
+    /**
+     * Gets the verification result.
+     * @return the result or {@code null} if verification failed
+     */
+    public XAdESVerificationResult getResult()
+    {
+        return result;
+    }
+
+    /**
+     * Gets the exception that caused the verification to fail. This is usually
+     * a {@link xades4j.XAdES4jException}, but runtime exceptions are also reported
+     * here.
+     * @return the exception or {@code null} if the signature is valid
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+}
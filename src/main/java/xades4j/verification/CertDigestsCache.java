@@ -0,0 +1,59 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import xades4j.UnsupportedAlgorithmException;
+import xades4j.providers.MessageDigestEngineProvider;
+import xades4j.utils.BoundedCache;
+
+/**
+ * Remembers the digests of the certificates in certification paths, so that the
+ * certificates referenced by different properties (e.g. {@code SigningCertificate}
+ * and {@code CompleteCertificateRefs}) and by consecutive verifications are encoded
+ * and digested only once. Certificates are compared by equality rather than identity
+ * because the signing certificate is usually parsed from {@code KeyInfo} on each
+ * verification; comparing certificates is cheap when compared to digesting them.
+ * <p>
+ * A single instance is shared by the verifiers of a profile.
+ *
+ * @author Luís
+ */
+final class CertDigestsCache
+{
+    private static final int MAX_ENTRIES = 1024;
+
+    private final BoundedCache<List<Object>, byte[]> entries = new BoundedCache<>(MAX_ENTRIES);
+
+    byte[] getDigest(
+            X509Certificate cert,
+            String digestAlgUri,
+            MessageDigestEngineProvider messageDigestProvider) throws UnsupportedAlgorithmException, CertificateEncodingException
+    {
+        List<Object> key = List.of(cert, digestAlgUri);
+        byte[] digest = this.entries.get(key);
+        if (null == digest)
+        {
+            // For X509 certificates the encoded form return by getEncoded is DER.
+            digest = messageDigestProvider.getEngine(digestAlgUri).digest(cert.getEncoded());
+            this.entries.put(key, digest);
+        }
+        return digest;
+    }
+}
@@ -16,10 +16,16 @@
  */
 package xades4j.verification;
 
+import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import xades4j.UnsupportedAlgorithmException;
 import xades4j.XAdES4jException;
 import xades4j.properties.data.CertRef;
@@ -35,17 +41,31 @@ class CertRefUtils
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Indexes a collection of {@code CertRef}s by serial number, so that only the
+     * references with a matching serial number need to have their issuer DN compared.
+     */
+    static Map<BigInteger, List<CertRef>> indexBySerialNumber(Collection<CertRef> certRefs)
+    {
+        Map<BigInteger, List<CertRef>> index = new HashMap<>(certRefs.size() * 2);
+        for (CertRef certRef : certRefs)
+        {
+            index.computeIfAbsent(certRef.getSerialNumber(), k -> new ArrayList<>(1)).add(certRef);
+        }
+        return index;
+    }
+
     static CertRef findCertRef(
             X509Certificate cert,
-            Collection<CertRef> certRefs,
+            Map<BigInteger, List<CertRef>> certRefsBySerialNumber,
             DistinguishedNameComparer dnComparer) throws SigningCertificateVerificationException
     {
-        for (final CertRef certRef : certRefs)
+        List<CertRef> candidates = certRefsBySerialNumber.getOrDefault(cert.getSerialNumber(), Collections.emptyList());
+        for (final CertRef certRef : candidates)
         {
             try
             {
-                if (dnComparer.areEqual(cert.getIssuerX500Principal(), certRef.getIssuerDN()) &&
-                    certRef.getSerialNumber().equals(cert.getSerialNumber()))
+                if (dnComparer.areEqual(cert.getIssuerX500Principal(), certRef.getIssuerDN()))
                 {
                     return certRef;
                 }
@@ -76,14 +96,13 @@ class CertRefUtils
     static void checkCertRef(
             CertRef certRef,
             X509Certificate cert,
-            MessageDigestEngineProvider messageDigestProvider) throws InvalidCertRefException
+            MessageDigestEngineProvider messageDigestProvider,
+            CertDigestsCache certDigestsCache) throws InvalidCertRefException
     {
-        MessageDigest messageDigest;
         Throwable t;
         try
         {
-            messageDigest = messageDigestProvider.getEngine(certRef.getDigestAlgUri());
-            byte[] actualDigest = messageDigest.digest(cert.getEncoded());
+            byte[] actualDigest = certDigestsCache.getDigest(cert, certRef.getDigestAlgUri(), messageDigestProvider);
             if (!MessageDigest.isEqual(certRef.getDigestValue(), actualDigest))
                 throw new InvalidCertRefException("digests mismatch");
             return;
@@ -17,10 +17,11 @@
 package xades4j.verification;
 
 import jakarta.inject.Inject;
+import java.math.BigInteger;
 import java.security.cert.X509Certificate;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import xades4j.properties.CompleteCertificateRefsProperty;
 import xades4j.properties.QualifyingProperty;
 import xades4j.properties.data.CertRef;
@@ -35,14 +36,17 @@ class CompleteCertRefsVerifier implements QualifyingPropertyVerifier<CompleteCer
 {
     private final MessageDigestEngineProvider messageDigestProvider;
     private final DistinguishedNameComparer dnComparer;
+    private final CertDigestsCache certDigestsCache;
 
     @Inject
     public CompleteCertRefsVerifier(
             MessageDigestEngineProvider messageDigestProvider,
-            DistinguishedNameComparer dnComparer)
+            DistinguishedNameComparer dnComparer,
+            CertDigestsCache certDigestsCache)
     {
         this.messageDigestProvider = messageDigestProvider;
         this.dnComparer = dnComparer;
+        this.certDigestsCache = certDigestsCache;
     }
 
     @Override
@@ -52,7 +56,7 @@ class CompleteCertRefsVerifier implements QualifyingPropertyVerifier<CompleteCer
     {
         List<X509Certificate> caCerts = ctx.getCertChainData().getCertificateChain();
         caCerts = caCerts.subList(1, caCerts.size());
-        Collection<CertRef> caCertRefs = propData.getCertRefs();
+        Map<BigInteger, List<CertRef>> caCertRefs = CertRefUtils.indexBySerialNumber(propData.getCertRefs());
 
         // "Check that there are no references to certificates out of those that
         // are part of the certification path."
@@ -64,7 +68,7 @@ class CompleteCertRefsVerifier implements QualifyingPropertyVerifier<CompleteCer
                 throw new CompleteCertRefsCertNotFoundException(caCert);
             try
             {
-                CertRefUtils.checkCertRef(caRef, caCert, messageDigestProvider);
+                CertRefUtils.checkCertRef(caRef, caCert, messageDigestProvider, this.certDigestsCache);
             } catch (CertRefUtils.InvalidCertRefException ex)
             {
                 throw new CompleteCertRefsReferenceException(caCert, caRef, ex.getMessage());
@@ -17,6 +17,7 @@
 package xades4j.verification;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
@@ -81,9 +82,13 @@ class DefaultVerificationBindingsModule extends AbstractModule
         // QualifyingPropertiesVerifier is not configurable, but the individual
         // verifiers may have dependencies.
         bind(QualifyingPropertiesVerifier.class).to(QualifyingPropertiesVerifierImpl.class);
-        bind(QualifyingPropertyVerifiersMapper.class).to(QualifyingPropertyVerifiersMapperImpl.class);
+        bind(QualifyingPropertyVerifiersMapper.class).to(QualifyingPropertyVerifiersMapperImpl.class).in(Scopes.SINGLETON);
+        // Shared by the certificate references verifiers of the profile.
+        bind(CertDigestsCache.class).in(Scopes.SINGLETON);
         bind(X500NameStyleProvider.class).to(DefaultX500NameStyleProvider.class);
         bind(X500ExtensibleNameStyle.class).to(RFC4519ExtensibleStyle.class);
+        // Shared by all the verifiers of the profile, so that parsed DNs are reused.
+        bind(DistinguishedNameComparer.class).in(Scopes.SINGLETON);
 //        customGlobalStructureVerifiers.add(new CustomPropertiesDataObjsStructureVerifier()
 //        {
 //            @Override
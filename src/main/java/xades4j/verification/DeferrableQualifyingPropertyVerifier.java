@@ -0,0 +1,55 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import xades4j.properties.QualifyingProperty;
+import xades4j.properties.data.PropertyDataObject;
+
+/**
+ * A verifier whose work can be split in two parts. The first one accesses the
+ * signature (e.g. to produce the input of a time-stamp) and is done on the calling
+ * thread; the second one only uses the data gathered on the first one and may
+ * be done on another thread.
+ * @param <TData> the type of data objects that the implementing class verifies
+ * @author Luís
+ */
+interface DeferrableQualifyingPropertyVerifier<TData extends PropertyDataObject> extends QualifyingPropertyVerifier<TData>
+{
+    /**
+     * Does the part of the verification that accesses the signature.
+     * @param propData the property data
+     * @param ctx the context with data for validation
+     * @return the remaining part of the verification
+     * @throws InvalidPropertyException (or subclasses) if the property validation fails
+     */
+    DeferredVerification prepare(
+            TData propData,
+            QualifyingPropertyVerificationContext ctx) throws InvalidPropertyException;
+
+    /**
+     * The part of a property verification that doesn't access the signature.
+     */
+    interface DeferredVerification
+    {
+        /**
+         * Completes the verification.
+         * @return the verified QualifyingProperty (never {@code null})
+         * @throws InvalidPropertyException (or subclasses) if the property validation fails
+         */
+        QualifyingProperty complete() throws InvalidPropertyException;
+    }
+}
@@ -17,26 +17,47 @@
 package xades4j.verification;
 
 import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
 import javax.security.auth.x500.X500Principal;
+import org.bouncycastle.asn1.x500.AttributeTypeAndValue;
+import org.bouncycastle.asn1.x500.RDN;
 import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.style.IETFUtils;
 import xades4j.providers.X500NameStyleProvider;
+import xades4j.utils.BoundedCache;
 import xades4j.utils.X500ExtensibleNameStyle;
 
 /**
  * <b>Experimental API</b>. It may be changed or removed in future releases.
+ * <p>
+ * DNs are normalized once and kept in bounded caches (a single instance is shared
+ * by the verifiers of a profile), since the same issuer DNs show up repeatedly
+ * in the certificate and revocation references. Two DNs are equal if their
+ * normalized forms are equal, which has the same outcome as comparing the corresponding
+ * {@code X500Name}s: the RDNs may be in any order and attribute values are compared
+ * in their canonical string form.
  *
  * @author luis
  */
 class DistinguishedNameComparer
 {
+    private static final int MAX_ENTRIES = 1024;
+
     private final X500ExtensibleNameStyle x500NameStyle;
     private final X500NameStyleProvider x500NameStyleProvider;
-    
+    private final BoundedCache<String, NormalizedDn> stringDns;
+    private final BoundedCache<X500Principal, NormalizedDn> parsedDns;
+
     @Inject
     DistinguishedNameComparer(X500ExtensibleNameStyle x500NameStyle, X500NameStyleProvider x500NameStyleProvider)
     {
         this.x500NameStyle = x500NameStyle;
         this.x500NameStyleProvider = x500NameStyleProvider;
+        this.stringDns = new BoundedCache<>(MAX_ENTRIES);
+        this.parsedDns = new BoundedCache<>(MAX_ENTRIES);
     }
 
     /**
@@ -44,8 +65,68 @@ class DistinguishedNameComparer
      */
     boolean areEqual(X500Principal parsedDn, String stringDn)
     {
-        X500Name first = X500Name.getInstance(parsedDn.getEncoded());
-        X500Name second = X500Name.getInstance(this.x500NameStyle, this.x500NameStyleProvider.fromString(stringDn).getEncoded());
+        NormalizedDn first = normalize(this.parsedDns, parsedDn,
+                dn -> X500Name.getInstance(dn.getEncoded()));
+        NormalizedDn second = normalize(this.stringDns, stringDn,
+                dn -> X500Name.getInstance(this.x500NameStyle, this.x500NameStyleProvider.fromString(dn).getEncoded()));
         return first.equals(second);
     }
+
+    private static <T> NormalizedDn normalize(BoundedCache<T, NormalizedDn> cache, T dn, Function<T, X500Name> parser)
+    {
+        NormalizedDn normalized = cache.get(dn);
+        if (null == normalized)
+        {
+            normalized = new NormalizedDn(parser.apply(dn));
+            cache.put(dn, normalized);
+        }
+        return normalized;
+    }
+
+    /**
+     * The RDNs of a DN in canonical string form, sorted.
+     */
+    private static final class NormalizedDn
+    {
+        private final List<String> rdns;
+        private final int hash;
+
+        NormalizedDn(X500Name name)
+        {
+            RDN[] nameRdns = name.getRDNs();
+            List<String> normalizedRdns = new ArrayList<>(nameRdns.length);
+            for (RDN rdn : nameRdns)
+            {
+                StringBuilder sb = new StringBuilder();
+                for (AttributeTypeAndValue atv : rdn.getTypesAndValues())
+                {
+                    if (sb.length() > 0)
+                    {
+                        sb.append('+');
+                    }
+                    // The canonical string is escaped, so the separators are unambiguous.
+                    sb.append(atv.getType().getId()).append('=').append(IETFUtils.canonicalString(atv.getValue()));
+                }
+                normalizedRdns.add(sb.toString());
+            }
+            Collections.sort(normalizedRdns);
+
+            this.rdns = normalizedRdns;
+            this.hash = normalizedRdns.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof NormalizedDn
+                    && this.hash == ((NormalizedDn) o).hash
+                    && this.rdns.equals(((NormalizedDn) o).rdns);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
 }
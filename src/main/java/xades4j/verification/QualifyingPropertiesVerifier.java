@@ -17,6 +17,7 @@
 package xades4j.verification;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 import xades4j.properties.data.PropertyDataObject;
 import xades4j.properties.data.PropertyDataStructureException;
 
@@ -26,10 +27,28 @@ import xades4j.properties.data.PropertyDataStructureException;
  */
 interface QualifyingPropertiesVerifier
 {
+    /**
+     * Sets the executor used to verify independent properties concurrently. If
+     * {@code null}, the properties are verified sequentially.
+     */
+    void setExecutor(Executor executor);
+
     /**
      * Verifies the data objects' structure and the XAdES rules.
      */
     Collection<PropertyInfo> verifyProperties(
             Collection<PropertyDataObject> unmarshalledProperties,
             QualifyingPropertyVerificationContext ctx) throws PropertyDataStructureException, InvalidPropertyException, QualifyingPropertyVerifierNotAvailableException;
+
+    /**
+     * Verifies the data objects' structure and the XAdES rules, reusing the results
+     * of properties that were already verified on a previous stage. The structure
+     * is verified for the whole set; the data objects in {@code verifiedProperties}
+     * are not verified again and their results are included in the output, keeping
+     * the order of {@code unmarshalledProperties}.
+     */
+    Collection<PropertyInfo> verifyProperties(
+            Collection<PropertyDataObject> unmarshalledProperties,
+            QualifyingPropertyVerificationContext ctx,
+            Collection<PropertyInfo> verifiedProperties) throws PropertyDataStructureException, InvalidPropertyException, QualifyingPropertyVerifierNotAvailableException;
 }
@@ -20,19 +20,36 @@ import jakarta.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import xades4j.properties.QualifyingProperty;
+import xades4j.properties.data.GenericDOMData;
 import xades4j.properties.data.PropertiesDataObjectsStructureVerifier;
 import xades4j.properties.data.PropertyDataObject;
 import xades4j.properties.data.PropertyDataStructureException;
+import xades4j.utils.DOMHelper;
+import xades4j.utils.FutureUtils;
+import xades4j.verification.DeferrableQualifyingPropertyVerifier.DeferredVerification;
 
 /**
- *
+ * Verifies the properties in document order. If an executor is set, the properties
+ * are verified concurrently, except for those represented by {@code GenericDOMData}
+ * (e.g. counter-signatures), which are verified directly over the DOM on the calling
+ * thread before the others. For verifiers that can be split (e.g. time-stamps),
+ * only the part that doesn't access the signature is done concurrently. In both
+ * cases the results follow the order of the data objects and, if more than one
+ * property is invalid, the exception for the first one is thrown.
  * @author Luís
  */
 class QualifyingPropertiesVerifierImpl implements QualifyingPropertiesVerifier
 {
     private final QualifyingPropertyVerifiersMapper propertyVerifiersMapper;
     private final PropertiesDataObjectsStructureVerifier dataObjectsStructureVerifier;
+    private Executor executor;
 
     @Inject
     QualifyingPropertiesVerifierImpl(
@@ -41,28 +58,187 @@ class QualifyingPropertiesVerifierImpl implements QualifyingPropertiesVerifier
     {
         this.propertyVerifiersMapper = propertyVerifiersMapper;
         this.dataObjectsStructureVerifier = dataObjectsStructureVerifier;
+        this.executor = null;
+    }
+
+    @Override
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
     }
 
     @Override
     public Collection<PropertyInfo> verifyProperties(
             Collection<PropertyDataObject> unmarshalledProperties,
             QualifyingPropertyVerificationContext ctx) throws PropertyDataStructureException, InvalidPropertyException, QualifyingPropertyVerifierNotAvailableException
+    {
+        return verifyProperties(unmarshalledProperties, ctx, Collections.emptyList());
+    }
+
+    @Override
+    public Collection<PropertyInfo> verifyProperties(
+            Collection<PropertyDataObject> unmarshalledProperties,
+            QualifyingPropertyVerificationContext ctx,
+            Collection<PropertyInfo> verifiedProperties) throws PropertyDataStructureException, InvalidPropertyException, QualifyingPropertyVerifierNotAvailableException
     {
         dataObjectsStructureVerifier.verifiyPropertiesDataStructure(unmarshalledProperties);
 
+        // Data objects are compared by identity, as they don't define equality.
+        Map<PropertyDataObject, PropertyInfo> verified = new IdentityHashMap<>(verifiedProperties.size());
+        for (PropertyInfo propInfo : verifiedProperties)
+        {
+            verified.put(propInfo.getPropertyData(), propInfo);
+        }
+
+        if (this.executor != null && countConcurrentCandidates(unmarshalledProperties, verified) > 1)
+        {
+            return verifyPropertiesConcurrently(unmarshalledProperties, ctx, verified, this.executor);
+        }
+
         Collection<PropertyInfo> props = new ArrayList<>(unmarshalledProperties.size());
         
         for (PropertyDataObject propData : unmarshalledProperties)
         {
+            PropertyInfo verifiedProp = verified.get(propData);
+            if (verifiedProp != null)
+            {
+                props.add(verifiedProp);
+                continue;
+            }
+
             QualifyingPropertyVerifier<PropertyDataObject> propVerifier = this.propertyVerifiersMapper.getVerifier(propData);
+            props.add(new PropertyInfo(propData, verifyProperty(propVerifier, propData, ctx)));
+        }
+
+        return Collections.unmodifiableCollection(props);
+    }
 
-            QualifyingProperty p = propVerifier.verify(propData, ctx);
-            if (null == p)
-                throw new PropertyVerifierErrorException(propData.getClass().getName());
+    private Collection<PropertyInfo> verifyPropertiesConcurrently(
+            Collection<PropertyDataObject> unmarshalledProperties,
+            QualifyingPropertyVerificationContext ctx,
+            Map<PropertyDataObject, PropertyInfo> verified,
+            Executor executor) throws InvalidPropertyException, QualifyingPropertyVerifierNotAvailableException
+    {
+        List<PropertyDataObject> propsData = new ArrayList<>(unmarshalledProperties);
+        int n = propsData.size();
 
-            props.add(new PropertyInfo(propData, p));
+        // The outcome of each property; the ones handled on the calling thread
+        // are completed as they're verified. A missing verifier is the failure of
+        // the corresponding property, so that the first failure in document order
+        // is reported, as when verifying sequentially.
+        List<CompletableFuture<PropertyInfo>> futures = new ArrayList<>(Collections.nCopies(n, null));
+        List<QualifyingPropertyVerifier<PropertyDataObject>> propVerifiers = new ArrayList<>(Collections.nCopies(n, null));
+        for (int i = 0; i < n; i++)
+        {
+            PropertyDataObject propData = propsData.get(i);
+            PropertyInfo verifiedProp = verified.get(propData);
+            if (verifiedProp != null)
+            {
+                futures.set(i, CompletableFuture.completedFuture(verifiedProp));
+                continue;
+            }
+            try
+            {
+                propVerifiers.set(i, this.propertyVerifiersMapper.getVerifier(propData));
+            }
+            catch (QualifyingPropertyVerifierNotAvailableException ex)
+            {
+                futures.set(i, CompletableFuture.failedFuture(ex));
+            }
         }
 
-        return Collections.unmodifiableCollection(props);
+        // Properties verified directly over the DOM may change it (e.g. registering
+        // Id attributes on counter-signatures), so they're handled before any task.
+        for (int i = 0; i < n; i++)
+        {
+            PropertyDataObject propData = propsData.get(i);
+            if (futures.get(i) == null && propData instanceof GenericDOMData)
+            {
+                try
+                {
+                    futures.set(i, CompletableFuture.completedFuture(new PropertyInfo(propData, verifyProperty(propVerifiers.get(i), propData, ctx))));
+                }
+                catch (InvalidPropertyException | RuntimeException ex)
+                {
+                    futures.set(i, CompletableFuture.failedFuture(ex));
+                }
+            }
+        }
+
+        // The signature is fully traversed beforehand so that the concurrent
+        // verifiers only do plain reads.
+        DOMHelper.expandSubtree(ctx.getSignature().getElement());
+
+        // The verifiers that can be split (e.g. time-stamps, whose inputs are
+        // produced from xmlsec objects shared by the whole signature) access the
+        // signature here, one at a time; only their remaining work goes to the tasks.
+        DeferredVerification[] deferred = new DeferredVerification[n];
+        for (int i = 0; i < n; i++)
+        {
+            QualifyingPropertyVerifier<PropertyDataObject> propVerifier = propVerifiers.get(i);
+            if (futures.get(i) == null && propVerifier instanceof DeferrableQualifyingPropertyVerifier)
+            {
+                try
+                {
+                    deferred[i] = ((DeferrableQualifyingPropertyVerifier<PropertyDataObject>) propVerifier).prepare(propsData.get(i), ctx);
+                }
+                catch (InvalidPropertyException | RuntimeException ex)
+                {
+                    futures.set(i, CompletableFuture.failedFuture(ex));
+                }
+            }
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            PropertyDataObject propData = propsData.get(i);
+            QualifyingPropertyVerifier<PropertyDataObject> propVerifier = propVerifiers.get(i);
+            DeferredVerification deferredVerification = deferred[i];
+            if (futures.get(i) != null)
+            {
+                continue;
+            }
+
+            futures.set(i, CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return new PropertyInfo(propData, deferredVerification != null
+                            ? deferredVerification.complete()
+                            : verifyProperty(propVerifier, propData, ctx));
+                }
+                catch (InvalidPropertyException ex)
+                {
+                    throw new CompletionException(ex);
+                }
+            }, executor));
+        }
+
+        return Collections.unmodifiableCollection(FutureUtils.joinAll(futures, InvalidPropertyException.class, QualifyingPropertyVerifierNotAvailableException.class));
+    }
+
+    private static QualifyingProperty verifyProperty(
+            QualifyingPropertyVerifier<PropertyDataObject> propVerifier,
+            PropertyDataObject propData,
+            QualifyingPropertyVerificationContext ctx) throws InvalidPropertyException
+    {
+        QualifyingProperty p = propVerifier.verify(propData, ctx);
+        if (null == p)
+            throw new PropertyVerifierErrorException(propData.getClass().getName());
+        return p;
+    }
+
+    private static int countConcurrentCandidates(
+            Collection<PropertyDataObject> unmarshalledProperties,
+            Map<PropertyDataObject, PropertyInfo> verified)
+    {
+        int count = 0;
+        for (PropertyDataObject propData : unmarshalledProperties)
+        {
+            if (!verified.containsKey(propData) && !(propData instanceof GenericDOMData))
+            {
+                count++;
+            }
+        }
+        return count;
     }
 }
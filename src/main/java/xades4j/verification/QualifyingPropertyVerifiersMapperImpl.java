@@ -19,6 +19,7 @@ package xades4j.verification;
 import com.google.inject.ConfigurationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
+import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
 import com.google.inject.TypeLiteral;
 import com.google.inject.util.Types;
@@ -26,32 +27,55 @@ import jakarta.inject.Inject;
 import xades4j.properties.data.PropertyDataObject;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- *
+ * Resolves the verifiers through the injector. The provider for each property
+ * data type is looked up once and reused afterwards, including when there's no
+ * verifier for the type.
  * @author Luís
  */
 class QualifyingPropertyVerifiersMapperImpl implements QualifyingPropertyVerifiersMapper
 {
+    private static final Provider<?> NOT_AVAILABLE = () -> null;
+
     private final Injector injector;
+    private final ConcurrentMap<Class<?>, Provider<?>> providers;
 
     @Inject
     public QualifyingPropertyVerifiersMapperImpl(Injector injector)
     {
         this.injector = injector;
+        this.providers = new ConcurrentHashMap<>();
     }
 
     @Override
     public <TData extends PropertyDataObject> QualifyingPropertyVerifier<TData> getVerifier(
             TData p) throws QualifyingPropertyVerifierNotAvailableException
+    {
+        Provider<?> provider = this.providers.computeIfAbsent(p.getClass(), this::lookupProvider);
+        if (provider != NOT_AVAILABLE)
+        {
+            try
+            {
+                return (QualifyingPropertyVerifier<TData>)provider.get();
+            } catch (ProvisionException ignored)
+            {
+            }
+        }
+        throw new QualifyingPropertyVerifierNotAvailableException(p);
+    }
+
+    private Provider<?> lookupProvider(Class<?> dataClass)
     {
         try
         {
-            ParameterizedType pt = Types.newParameterizedType(QualifyingPropertyVerifier.class, p.getClass());
-            return (QualifyingPropertyVerifier<TData>)injector.getInstance(Key.get(TypeLiteral.get(pt)));
-        } catch (ConfigurationException | ProvisionException ignored)
+            ParameterizedType pt = Types.newParameterizedType(QualifyingPropertyVerifier.class, dataClass);
+            return injector.getProvider(Key.get(TypeLiteral.get(pt)));
+        } catch (ConfigurationException ex)
         {
+            return NOT_AVAILABLE;
         }
-      throw new QualifyingPropertyVerifierNotAvailableException(p);
     }
 }
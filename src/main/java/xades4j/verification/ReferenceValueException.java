@@ -16,6 +16,9 @@
  */
 package xades4j.verification;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.xml.security.signature.Reference;
 import org.apache.xml.security.signature.XMLSignature;
 
@@ -26,28 +29,57 @@ import org.apache.xml.security.signature.XMLSignature;
  */
 public class ReferenceValueException extends CoreVerificationException
 {
-    private final transient Reference reference;
+    private final transient List<Reference> references;
 
     public ReferenceValueException(XMLSignature sig, Reference reference)
+    {
+        this(sig, Collections.singletonList(reference));
+    }
+
+    /**
+     * @param sig the signature
+     * @param references the invalid references, in order of appearance
+     * @throws IllegalArgumentException if {@code references} is empty
+     */
+    public ReferenceValueException(XMLSignature sig, List<Reference> references)
     {
         super(sig);
-        this.reference = reference;
+        if (references.isEmpty())
+        {
+            throw new IllegalArgumentException("No invalid references");
+        }
+        this.references = Collections.unmodifiableList(references);
     }
 
     /**
      * Gets the reference that caused the validation error. If multiple references
-     * are invalid, this is the first of them, in order of appearence.
+     * are invalid, this is the first of them, in order of appearance.
      * @return the reference.
      */
     public Reference getReference()
     {
-        return reference;
+        return references.get(0);
+    }
+
+    /**
+     * Gets all the references that caused the validation error, in order of appearance.
+     * @return the references
+     */
+    public List<Reference> getReferences()
+    {
+        return references;
     }
 
     @Override
     public String getMessage()
     {
-        return String.format("Reference '%s' cannot be validated", this.reference.getURI());
+        if (this.references.size() == 1)
+        {
+            return String.format("Reference '%s' cannot be validated", this.references.get(0).getURI());
+        }
+        return String.format("References %s cannot be validated", this.references.stream()
+                .map(r -> "'" + r.getURI() + "'")
+                .collect(Collectors.joining(", ")));
     }
 
 
@@ -17,9 +17,12 @@
 package xades4j.verification;
 
 import jakarta.inject.Inject;
+import java.math.BigInteger;
 import java.security.cert.X509Certificate;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import javax.security.auth.x500.X500Principal;
 import xades4j.properties.QualifyingProperty;
 import xades4j.properties.SigningCertificateProperty;
@@ -36,14 +39,17 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
 {
     private final MessageDigestEngineProvider messageDigestProvider;
     private final DistinguishedNameComparer dnComparer;
+    private final CertDigestsCache certDigestsCache;
 
     @Inject
     public SigningCertificateVerifier(
             MessageDigestEngineProvider messageDigestProvider,
-            DistinguishedNameComparer dnComparer)
+            DistinguishedNameComparer dnComparer,
+            CertDigestsCache certDigestsCache)
     {
         this.messageDigestProvider = messageDigestProvider;
         this.dnComparer = dnComparer;
+        this.certDigestsCache = certDigestsCache;
     }
 
     @Override
@@ -52,6 +58,7 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
             QualifyingPropertyVerificationContext ctx) throws SigningCertificateVerificationException
     {
         Collection<CertRef> certRefs = propData.getCertRefs();
+        Map<BigInteger, List<CertRef>> certRefsBySerialNumber = CertRefUtils.indexBySerialNumber(certRefs);
         CertificationChainData certChainData = ctx.getCertChainData();
 
         Iterator<X509Certificate> certPathIter = certChainData.getCertificateChain().iterator();
@@ -61,7 +68,7 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
         // "If the verifier does not find any reference matching the signing certificate,
         // the validation of this property should be taken as failed."
         X509Certificate signingCert = certPathIter.next();
-        CertRef signingCertRef = CertRefUtils.findCertRef(signingCert, certRefs, this.dnComparer);
+        CertRef signingCertRef = CertRefUtils.findCertRef(signingCert, certRefsBySerialNumber, this.dnComparer);
         if (null == signingCertRef)
             throw new SigningCertificateReferenceNotFoundException(signingCert);
 
@@ -80,7 +87,7 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
 
         try
         {
-            CertRefUtils.checkCertRef(signingCertRef, signingCert, messageDigestProvider);
+            CertRefUtils.checkCertRef(signingCertRef, signingCert, messageDigestProvider, this.certDigestsCache);
         } catch (CertRefUtils.InvalidCertRefException ex)
         {
             throw new SigningCertificateReferenceException(signingCert, signingCertRef, ex);
@@ -93,7 +100,7 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
         while (certPathIter.hasNext())
         {
             X509Certificate cert = certPathIter.next();
-            CertRef certRef = CertRefUtils.findCertRef(cert, certRefs, this.dnComparer);
+            CertRef certRef = CertRefUtils.findCertRef(cert, certRefsBySerialNumber, this.dnComparer);
             // "Should one or more certificates in the certification path not be
             // referenced by this property, the verifier should assume that the
             // verification is successful (...)"
@@ -102,7 +109,7 @@ class SigningCertificateVerifier implements QualifyingPropertyVerifier<SigningCe
             nMatchedRefs++;
             try
             {
-                CertRefUtils.checkCertRef(certRef, cert, messageDigestProvider);
+                CertRefUtils.checkCertRef(certRef, cert, messageDigestProvider, this.certDigestsCache);
             } catch (CertRefUtils.InvalidCertRefException ex)
             {
                 throw new SigningCertificateReferenceException(cert, certRef, ex);
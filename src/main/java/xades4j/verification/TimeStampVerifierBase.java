@@ -19,6 +19,8 @@ package xades4j.verification;
 import xades4j.UnsupportedAlgorithmException;
 import xades4j.properties.QualifyingProperty;
 import xades4j.properties.data.BaseXAdESTimeStampData;
+import xades4j.providers.DigestTimeStampVerificationProvider;
+import xades4j.providers.DigestTimeStampVerificationProvider.ParsedTimeStampToken;
 import xades4j.providers.TimeStampTokenDigestException;
 import xades4j.providers.TimeStampTokenSignatureException;
 import xades4j.providers.TimeStampTokenStructureException;
@@ -30,14 +32,17 @@ import xades4j.utils.TimeStampDigestInputFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  *
  * @author Luís
  */
-abstract class TimeStampVerifierBase<TData extends BaseXAdESTimeStampData> implements QualifyingPropertyVerifier<TData>
+abstract class TimeStampVerifierBase<TData extends BaseXAdESTimeStampData> implements DeferrableQualifyingPropertyVerifier<TData>
 {
 
     private final TimeStampVerificationProvider tsVerifier;
@@ -55,39 +60,116 @@ abstract class TimeStampVerifierBase<TData extends BaseXAdESTimeStampData> imple
     public final QualifyingProperty verify(
             TData propData,
             QualifyingPropertyVerificationContext ctx) throws InvalidPropertyException
+    {
+        return prepare(propData, ctx).complete();
+    }
+
+    /**
+     * Produces the time-stamp input (and its digests, if applicable). Only the
+     * verification of the tokens is left for the returned object, which doesn't
+     * access the signature.
+     */
+    @Override
+    public final DeferredVerification prepare(
+            TData propData,
+            QualifyingPropertyVerificationContext ctx) throws InvalidPropertyException
     {
         try
         {
-            TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(propData.getCanonicalizationAlgorithm());
-
-            QualifyingProperty prop = addPropSpecificTimeStampInputAndCreateProperty(propData, digestInput, ctx);
-            byte[] data = digestInput.getBytes();
-            /*
-             * Verify the time-stamp tokens on a time-stamp property data object. All
-             * the tokens are verified, but the returned time-stamp is from the last token.
-             */
-            List<byte[]> tokens = propData.getTimeStampTokens();
-            Date ts = null;
-            for (byte[] tkn : tokens)
+            QualifyingProperty prop;
+            TokensVerification tokensVerification;
+            if (this.tsVerifier instanceof DigestTimeStampVerificationProvider && !propData.getTimeStampTokens().isEmpty())
+            {
+                // The digests are calculated as the input is produced.
+                DigestTimeStampVerificationProvider digestTsVerifier = (DigestTimeStampVerificationProvider) this.tsVerifier;
+                List<ParsedTimeStampToken> tokens = new ArrayList<>(propData.getTimeStampTokens().size());
+                Set<String> digestAlgUris = new LinkedHashSet<>();
+                for (byte[] tkn : propData.getTimeStampTokens())
+                {
+                    ParsedTimeStampToken parsedTkn = digestTsVerifier.parseToken(tkn);
+                    tokens.add(parsedTkn);
+                    digestAlgUris.add(parsedTkn.getDigestAlgorithm());
+                }
+
+                TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(
+                        propData.getCanonicalizationAlgorithm(),
+                        digestAlgUris);
+                prop = addPropSpecificTimeStampInputAndCreateProperty(propData, digestInput, ctx);
+
+                List<byte[]> digests = new ArrayList<>(tokens.size());
+                for (ParsedTimeStampToken tkn : tokens)
+                {
+                    digests.add(digestInput.getDigest(tkn.getDigestAlgorithm()));
+                }
+
+                tokensVerification = () -> {
+                    Date ts = null;
+                    for (int i = 0; i < tokens.size(); i++)
+                    {
+                        ts = tokens.get(i).verify(digests.get(i));
+                    }
+                    return ts;
+                };
+            }
+            else
             {
-                ts = this.tsVerifier.verifyToken(tkn, data);
+                TimeStampDigestInput digestInput = this.tsInputFactory.newTimeStampDigestInput(propData.getCanonicalizationAlgorithm());
+
+                prop = addPropSpecificTimeStampInputAndCreateProperty(propData, digestInput, ctx);
+                byte[] data = digestInput.getBytes();
+                /*
+                 * Verify the time-stamp tokens on a time-stamp property data object. All
+                 * the tokens are verified, but the returned time-stamp is from the last token.
+                 */
+                List<byte[]> tokens = propData.getTimeStampTokens();
+                tokensVerification = () -> {
+                    Date ts = null;
+                    for (byte[] tkn : tokens)
+                    {
+                        ts = this.tsVerifier.verifyToken(tkn, data);
+                    }
+                    return ts;
+                };
             }
 
+            return () -> complete(prop, tokensVerification);
+        }
+        catch(UnsupportedAlgorithmException | TimeStampTokenVerificationException ex)
+        {
+            throw getEx(ex, this.propName);
+        }
+        catch (final CannotAddDataToDigestInputException e)
+        {
+            throw new TimeStampDigestInputException(this.propName, e);
+        }
+    }
+
+    private QualifyingProperty complete(
+            QualifyingProperty prop,
+            TokensVerification tokensVerification) throws InvalidPropertyException
+    {
+        try
+        {
+            Date ts = tokensVerification.verify();
+
             // By convention, all timestamp property types have a setTime(Date) method
             Method setTimeMethod = prop.getClass().getMethod("setTime", Date.class);
             setTimeMethod.invoke(prop, ts);
             return prop;
         }
-        catch(UnsupportedAlgorithmException | IllegalAccessException | InvocationTargetException |
+        catch(IllegalAccessException | InvocationTargetException |
               NoSuchMethodException | TimeStampTokenVerificationException ex)
         {
             throw getEx(ex, this.propName);
         }
-        catch (final CannotAddDataToDigestInputException e)
-        {
-            throw new TimeStampDigestInputException(this.propName, e);
-        }
+    }
 
+    /**
+     * Verifies the tokens, returning the time-stamp of the last one.
+     */
+    private interface TokensVerification
+    {
+        Date verify() throws TimeStampTokenVerificationException;
     }
 
     protected abstract QualifyingProperty addPropSpecificTimeStampInputAndCreateProperty(
@@ -17,6 +17,7 @@
 package xades4j.verification;
 
 import com.google.inject.Module;
+import java.util.concurrent.Executor;
 import javax.xml.namespace.QName;
 import xades4j.properties.data.CustomPropertiesDataObjsStructureVerifier;
 import xades4j.properties.data.PropertyDataObject;
@@ -68,6 +69,8 @@ public final class XadesVerificationProfile
     private boolean acceptUnknownProperties;
     private boolean secureValidation;
     private boolean requireSigningCertificateProperty;
+    private Executor propertiesVerificationExecutor;
+    private Executor referencesVerificationExecutor;
 
     private XadesVerificationProfile()
     {
@@ -75,6 +78,8 @@ public final class XadesVerificationProfile
         this.acceptUnknownProperties = false;
         this.secureValidation = false;
         this.requireSigningCertificateProperty = true;
+        this.propertiesVerificationExecutor = null;
+        this.referencesVerificationExecutor = null;
         withBinding(XadesVerifier.class, XadesVerifierImpl.class);
     }
 
@@ -152,6 +157,8 @@ public final class XadesVerificationProfile
         v.setAcceptUnknownProperties(acceptUnknownProperties);
         v.setSecureValidation(secureValidation);
         v.requireSigningCertificateProperty(requireSigningCertificateProperty);
+        v.setPropertiesVerificationExecutor(propertiesVerificationExecutor);
+        v.setReferencesVerificationExecutor(referencesVerificationExecutor);
         return v;
     }
 
@@ -279,6 +286,52 @@ public final class XadesVerificationProfile
         return this;
     }
 
+    /**
+     * Sets an executor to verify the qualifying properties of a signature concurrently
+     * (e.g. the different time-stamps on XAdES-X-L signatures, each with its own TSA
+     * certification path). By default, properties are verified sequentially.
+     * <p>
+     * Properties represented by {@code GenericDOMData}, such as counter-signatures,
+     * are still verified on the calling thread. The results keep the document order
+     * of the properties and, if more than one is invalid, the exception for the first
+     * one is thrown.
+     * <p>
+     * When the executor runs tasks concurrently, the property verifiers and the providers
+     * configured on the profile must be thread-safe.
+     *
+     * @param executor the executor, or {@code null} to verify the properties sequentially
+     * @return the current instance
+     */
+    public XadesVerificationProfile withPropertiesVerificationExecutor(Executor executor)
+    {
+        this.propertiesVerificationExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Sets an executor to digest the references of a signature concurrently during core
+     * verification. This is useful for signatures with many detached references or
+     * large referenced resources. By default, references are handled sequentially by
+     * XML-DSIG.
+     * <p>
+     * Only references whose data is outside of the signature's document (including the
+     * anonymous reference) are digested on the executor. Same-document references are
+     * still verified on the calling thread. If manifests are followed and a reference
+     * is to a {@code Manifest}, the default core verification is used. The signature
+     * value is verified as usual and the resulting exceptions are the same.
+     * <p>
+     * When the executor runs tasks concurrently, the resource resolvers on the verification
+     * options must be thread-safe.
+     *
+     * @param executor the executor, or {@code null} to verify the references sequentially
+     * @return the current instance
+     */
+    public XadesVerificationProfile withReferencesVerificationExecutor(Executor executor)
+    {
+        this.referencesVerificationExecutor = executor;
+        return this;
+    }
+
     /* ******************************************** */
     /* *********** Custom verification ************ */
     /* ******************************************** */
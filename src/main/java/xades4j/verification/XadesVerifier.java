@@ -20,6 +20,9 @@ import org.w3c.dom.Element;
 import xades4j.XAdES4jException;
 import xades4j.production.XadesSignatureFormatExtender;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * Interface for a verifier of signatures. The features of the verification process
  * depend on the profile configuration.
@@ -111,4 +114,46 @@ public interface XadesVerifier
             SignatureSpecificVerificationOptions verificationOptions,
             XadesSignatureFormatExtender formatExtender,
             XAdESForm minForm) throws XAdES4jException;
+
+    /**
+     * Verifies multiple signatures. The signatures are verified on the given
+     * executor; on Java 21 or later a virtual thread per task executor is a good
+     * fit, since verification may block on I/O (e.g. fetching CRLs).
+     * <p>
+     * Within the batch, certificate validations are shared by signatures with the
+     * same signing certificate, validation date and {@code KeyInfo} certificates.
+     * Since the validation date must be the same, this mostly benefits signatures
+     * without time-stamps that are verified with the same verification options
+     * (or none); signatures with a {@code SignatureTimeStamp} are validated on the
+     * time-stamp time and are usually not shared. The validations of time-stamp
+     * authority certificates are not shared either. To reuse validations across
+     * nearby dates, enable the result cache on the certificate validation provider
+     * (see {@link xades4j.providers.impl.PKIXCertificateValidationProvider.Builder#cacheValidationResults}).
+     * <p>
+     * If the executor runs tasks concurrently, the providers configured on the
+     * profile must be thread-safe and each request should target a different DOM
+     * document.
+     * <p>
+     * This method blocks until all the signatures are handled.
+     * <p>
+     * The default implementation doesn't share any work: each request is handled
+     * on the given executor by {@link #verify(Element, SignatureSpecificVerificationOptions)}.
+     * @param requests the signatures to verify
+     * @param executor the executor used to verify the signatures
+     * @param mode how to handle signatures that fail verification
+     * @return the result of each signature, in the same order as {@code requests}
+     * @throws XAdES4jException if {@code mode} is {@link BatchVerificationMode#FAIL_FAST}
+     *      and a signature fails verification; the failure of the first such signature
+     *      in {@code requests} is thrown
+     * @throws NullPointerException if any parameter is {@code null}
+     */
+    default List<BatchVerificationResult> verifyAll(
+            List<BatchVerificationRequest> requests,
+            Executor executor,
+            BatchVerificationMode mode) throws XAdES4jException
+    {
+        return BatchVerification.verifyAll(requests, executor, mode, r -> verify(
+                r.getSignatureElement(),
+                r.getVerificationOptions()));
+    }
 }
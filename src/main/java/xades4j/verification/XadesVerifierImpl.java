@@ -17,9 +17,11 @@
 package xades4j.verification;
 
 import jakarta.inject.Inject;
+import org.apache.xml.security.algorithms.SignatureAlgorithm;
 import org.apache.xml.security.exceptions.XMLSecurityException;
 import org.apache.xml.security.signature.Reference;
 import org.apache.xml.security.signature.SignedInfo;
+import org.apache.xml.security.signature.VerifiedReference;
 import org.apache.xml.security.signature.XMLSignature;
 import org.apache.xml.security.signature.XMLSignatureException;
 import org.apache.xml.security.utils.resolver.ResourceResolverSpi;
@@ -40,6 +42,8 @@ import xades4j.providers.CertificateValidationProvider;
 import xades4j.providers.ValidationData;
 import xades4j.providers.X500NameStyleProvider;
 import xades4j.utils.CollectionUtils;
+import xades4j.utils.DOMHelper;
+import xades4j.utils.FutureUtils;
 import xades4j.utils.ObjectUtils;
 import xades4j.utils.PropertiesUtils;
 import xades4j.utils.ResolverAnonymous;
@@ -50,13 +54,18 @@ import xades4j.xml.unmarshalling.QualifyingPropertiesUnmarshaller;
 import xades4j.xml.unmarshalling.UnmarshalException;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static xades4j.verification.SignatureUtils.signatureReferencesElement;
 
@@ -81,6 +90,7 @@ class XadesVerifierImpl implements XadesVerifier
     private final X500NameStyleProvider x500NameStyleProvider;
     private boolean secureValidation;
     private boolean requireSigningCertificateProperty;
+    private Executor referencesVerificationExecutor;
 
     @Inject
     protected XadesVerifierImpl(
@@ -105,6 +115,7 @@ class XadesVerifierImpl implements XadesVerifier
         this.x500NameStyleProvider = x500NameStyleProvider;
         this.secureValidation = false;
         this.requireSigningCertificateProperty = true;
+        this.referencesVerificationExecutor = null;
     }
 
     void setAcceptUnknownProperties(boolean accept)
@@ -112,6 +123,16 @@ class XadesVerifierImpl implements XadesVerifier
         this.qualifPropsUnmarshaller.setAcceptUnknownProperties(accept);
     }
 
+    void setPropertiesVerificationExecutor(Executor executor)
+    {
+        this.qualifyingPropertiesVerifier.setExecutor(executor);
+    }
+
+    void setReferencesVerificationExecutor(Executor executor)
+    {
+        this.referencesVerificationExecutor = executor;
+    }
+
     void setSecureValidation(boolean secureValidation)
     {
         this.secureValidation = secureValidation;
@@ -130,6 +151,32 @@ class XadesVerifierImpl implements XadesVerifier
             throw new NullPointerException("Signature node not specified");
         }
 
+        return verify(signatureElem, verificationOptions, this.certificateValidator);
+    }
+
+    @Override
+    public List<BatchVerificationResult> verifyAll(
+            List<BatchVerificationRequest> requests,
+            Executor executor,
+            BatchVerificationMode mode) throws XAdES4jException
+    {
+        if (ObjectUtils.anyNull(requests, executor, mode))
+        {
+            throw new NullPointerException("One or more arguments are null");
+        }
+
+        CertificateValidationProvider batchCertificateValidator = new BatchCertificateValidationCache(this.certificateValidator);
+        return BatchVerification.verifyAll(requests, executor, mode, r -> verify(
+                r.getSignatureElement(),
+                r.getVerificationOptions(),
+                batchCertificateValidator));
+    }
+
+    private XAdESVerificationResult verify(
+            Element signatureElem,
+            SignatureSpecificVerificationOptions verificationOptions,
+            CertificateValidationProvider certificateValidator) throws XAdES4jException
+    {
         if (null == verificationOptions)
         {
             verificationOptions = SignatureSpecificVerificationOptions.EMPTY;
@@ -185,10 +232,13 @@ class XadesVerifierImpl implements XadesVerifier
 
         /* Certification path */
 
-        Date validationDate = getValidationDate(qualifPropsData, signature, verificationOptions);
+        // Signature time-stamps don't depend on the certification path; they're verified
+        // first to get the validation date and their results are reused afterwards.
+        Collection<PropertyInfo> sigTsProps = verifySignatureTimeStamps(qualifPropsData, signature);
+        Date validationDate = getValidationDate(sigTsProps, verificationOptions);
         CertRef signingCertRefAttempt = tryGetSigningCertificateRef(qualifPropsData);
         KeyInfoRes keyInfoRes = KeyInfoProcessor.process(signature.getKeyInfo(), signingCertRefAttempt, this.x500NameStyleProvider);
-        ValidationData certValidationRes = this.certificateValidator.validate(
+        ValidationData certValidationRes = certificateValidator.validate(
                 keyInfoRes.signingCertSelector,
                 validationDate,
                 keyInfoRes.certs);
@@ -203,7 +253,7 @@ class XadesVerifierImpl implements XadesVerifier
         /* Signature verification */
 
         // Core XML-DSIG verification.
-        doCoreVerification(signature, verificationOptions, validationCert);
+        doCoreVerification(signature, verificationOptions, validationCert, this.referencesVerificationExecutor);
 
         // Create the property verification context.
         QualifyingPropertyVerificationContext qPropsCtx = new QualifyingPropertyVerificationContext(
@@ -219,7 +269,7 @@ class XadesVerifierImpl implements XadesVerifier
                         signature));
 
         // Verify the properties. Data structure verification is included.
-        Collection<PropertyInfo> props = this.qualifyingPropertiesVerifier.verifyProperties(qualifPropsData, qPropsCtx);
+        Collection<PropertyInfo> props = this.qualifyingPropertiesVerifier.verifyProperties(qualifPropsData, qPropsCtx, sigTsProps);
         // Determine the XAdES form by checking which (needed) properties are present.
         XAdESForm signatureForm = XAdESFormChecker.checkForm(props, requiresSigningCertificateProperty(signature, keyInfoRes));
 
@@ -290,22 +340,17 @@ class XadesVerifierImpl implements XadesVerifier
         }
     }
 
-    private Date getValidationDate(
+    private Collection<PropertyInfo> verifySignatureTimeStamps(
             Collection<PropertyDataObject> qualifPropsData,
-            XMLSignature signature,
-            SignatureSpecificVerificationOptions verificationOptions) throws XAdES4jException
+            XMLSignature signature) throws XAdES4jException
     {
         List<? extends PropertyDataObject> sigTsData = CollectionUtils.filterByType(qualifPropsData, SignatureTimeStampData.class);
-
-        // If no signature time-stamp is present, use the current date.
         if (sigTsData.isEmpty())
         {
-            return verificationOptions.getDefaultVerificationDate();
+            return Collections.emptyList();
         }
 
-        // TODO support multiple SignatureTimeStamps (section 7.3 last paragraph of Standard v.1.4.2)
-        // This is a temporary solution.
-        // - Properties should probably be verified in two stages (before and after cert path creation).
+        // The certification path isn't known yet, but it's not needed to verify signature time-stamps.
         // - Had to remove the custom structure verifier that checked if the SigningCertificate data was present.
         QualifyingPropertyVerificationContext ctx = new QualifyingPropertyVerificationContext(
                 signature,
@@ -318,9 +363,21 @@ class XadesVerifierImpl implements XadesVerifier
                 new QualifyingPropertyVerificationContext.SignedObjectsData(
                         new ArrayList<>(0),
                         signature));
-        Collection<PropertyInfo> props = this.qualifyingPropertiesVerifier.verifyProperties((Collection<PropertyDataObject>) sigTsData, ctx);
-        QualifyingProperty sigTs = props.iterator().next().getProperty();
+        return this.qualifyingPropertiesVerifier.verifyProperties((Collection<PropertyDataObject>) sigTsData, ctx);
+    }
 
+    private static Date getValidationDate(
+            Collection<PropertyInfo> sigTsProps,
+            SignatureSpecificVerificationOptions verificationOptions)
+    {
+        // If no signature time-stamp is present, use the current date.
+        if (sigTsProps.isEmpty())
+        {
+            return verificationOptions.getDefaultVerificationDate();
+        }
+
+        // TODO support multiple SignatureTimeStamps (section 7.3 last paragraph of Standard v.1.4.2)
+        QualifyingProperty sigTs = sigTsProps.iterator().next().getProperty();
         return ((SignatureTimeStampProperty) sigTs).getTime();
     }
 
@@ -360,7 +417,8 @@ class XadesVerifierImpl implements XadesVerifier
     private static void doCoreVerification(
             XMLSignature signature,
             SignatureSpecificVerificationOptions verificationOptions,
-            X509Certificate validationCert) throws XAdES4jXMLSigException, InvalidSignatureException
+            X509Certificate validationCert,
+            @Nullable Executor referencesExecutor) throws XAdES4jXMLSigException, InvalidSignatureException
     {
         List<ResourceResolverSpi> resolvers = verificationOptions.getResolvers();
         if (!CollectionUtils.nullOrEmpty(resolvers))
@@ -379,46 +437,186 @@ class XadesVerifierImpl implements XadesVerifier
             signature.addResourceResolver(new ResolverAnonymous(nullURIReferenceData));
         }
 
+        // The signature value and the references are verified separately, so that
+        // the outcome of each is known without digesting the references again.
+        boolean signatureValueValid;
         try
         {
-            if (signature.checkSignatureValue(validationCert))
-            {
-                return;
-            }
+            signatureValueValid = verifySignatureValue(signature, validationCert);
         }
-        catch (XMLSignatureException ex)
+        catch (XMLSecurityException ex)
         {
             throw new XAdES4jXMLSigException("Error verifying the signature", ex);
         }
 
         try
         {
-            /* Failure due to the signature value or references validation? */
+            List<Reference> invalidReferences = null;
+            if (referencesExecutor != null)
+            {
+                invalidReferences = verifyReferencesConcurrently(signature.getSignedInfo(), verificationOptions, referencesExecutor);
+            }
+            if (null == invalidReferences)
+            {
+                invalidReferences = verifyReferences(signature.getSignedInfo(), verificationOptions.isFollowManifests());
+            }
 
-            if (signature.getSignedInfo().verifyReferences())
-            // References are OK; this is a problem on the signature value
-            // itself.
+            if (!invalidReferences.isEmpty())
             {
+                throw new ReferenceValueException(signature, invalidReferences);
+            }
+            if (!signatureValueValid)
+            {
+                // References are OK; this is a problem on the signature value itself.
                 throw new SignatureValueException(signature);
             }
-            else
+        }
+        catch (XMLSecurityException ex)
+        {
+            throw new XAdES4jXMLSigException("Error verifying the references", ex);
+        }
+    }
+
+    /**
+     * Verifies the references in a single pass.
+     *
+     * @return the invalid references, in order of appearance. If manifests are followed, a
+     *      reference to a {@code Manifest} is invalid if any of the nested references is invalid
+     */
+    private static List<Reference> verifyReferences(SignedInfo si, boolean followManifests) throws XMLSecurityException
+    {
+        if (si.verify(followManifests))
+        {
+            return Collections.emptyList();
+        }
+
+        // Use the results of the verification; the references aren't digested again.
+        List<VerifiedReference> results = si.getVerificationResults();
+        List<Reference> invalidReferences = new ArrayList<>(1);
+        for (int i = 0; i < results.size(); i++)
+        {
+            if (!isValid(results.get(i)))
+            {
+                invalidReferences.add(si.item(i));
+            }
+        }
+        return invalidReferences;
+    }
+
+    private static boolean isValid(VerifiedReference result)
+    {
+        if (!result.isValid())
+        {
+            return false;
+        }
+        for (VerifiedReference manifestRef : result.getManifestReferences())
+        {
+            if (!isValid(manifestRef))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Digests the references whose data is outside of the signature's document
+     * (including the anonymous reference) on the given executor. Same-document
+     * references may change the DOM while being processed (e.g. transforms that
+     * need node-sets) and are verified on the calling thread, before any task is
+     * started.
+     * <p>
+     * Nested manifests are verified by XML-DSIG when following manifests is enabled;
+     * in that case, if any reference is to a {@code Manifest}, this method does nothing
+     * and returns {@code null}, so that the default verification is used.
+     *
+     * @return the invalid references, in order of appearance
+     */
+    @Nullable
+    private static List<Reference> verifyReferencesConcurrently(
+            SignedInfo si,
+            SignatureSpecificVerificationOptions verificationOptions,
+            Executor referencesExecutor) throws XMLSecurityException
+    {
+        List<Reference> references = new ArrayList<>(si.getLength());
+        for (int i = 0; i < si.getLength(); i++)
+        {
+            Reference r = si.item(i);
+            if (verificationOptions.isFollowManifests() && r.typeIsReferenceToManifest())
+            {
+                return null;
+            }
+            references.add(r);
+        }
+
+        // Same-document references are verified here, as resolving them may change the DOM.
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(references.size());
+        for (Reference r : references)
+        {
+            futures.add(isSameDocumentReference(r) ? CompletableFuture.completedFuture(r.verify()) : null);
+        }
+
+        // The tasks read the Reference elements.
+        DOMHelper.expandSubtree(si.getElement());
+
+        for (int i = 0; i < references.size(); i++)
+        {
+            Reference r = references.get(i);
+            if (futures.get(i) != null)
             {
-                // References are NOT OK; get the first invalid Reference.
-                SignedInfo si = signature.getSignedInfo();
-                for (int i = 0; i < si.getLength(); i++)
+                continue;
+            }
+
+            futures.set(i, CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return r.verify();
+                }
+                catch (XMLSecurityException ex)
                 {
-                    Reference r = si.item(i);
-                    if (!r.verify())
-                    {
-                        throw new ReferenceValueException(signature, r);
-                    }
+                    throw new CompletionException(ex);
                 }
+            }, referencesExecutor));
+        }
+
+        List<Boolean> referencesValid = FutureUtils.joinAll(futures, XMLSecurityException.class);
+
+        List<Reference> invalidReferences = new ArrayList<>(1);
+        for (int i = 0; i < referencesValid.size(); i++)
+        {
+            if (!referencesValid.get(i))
+            {
+                invalidReferences.add(references.get(i));
             }
         }
-        catch (XMLSecurityException ex)
+        return invalidReferences;
+    }
+
+    private static boolean isSameDocumentReference(Reference r)
+    {
+        String uri = r.getURI();
+        return uri != null && (uri.isEmpty() || uri.charAt(0) == '#');
+    }
+
+    /**
+     * Verifies the signature value over {@code SignedInfo}, without verifying the references.
+     */
+    private static boolean verifySignatureValue(
+            XMLSignature signature,
+            X509Certificate validationCert) throws XMLSecurityException
+    {
+        SignedInfo si = signature.getSignedInfo();
+        SignatureAlgorithm sa = si.getSignatureAlgorithm();
+        sa.initVerify(validationCert.getPublicKey());
+        try
         {
-            throw new XAdES4jXMLSigException("Error verifying the references", ex);
+            sa.update(si.getCanonicalizedOctetStream());
+        }
+        catch (IOException ex)
+        {
+            throw new XMLSignatureException(ex);
         }
+        return sa.verify(signature.getSignatureValue());
     }
 
     /*************************************************************************************/
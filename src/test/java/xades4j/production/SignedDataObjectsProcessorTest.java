@@ -16,6 +16,7 @@
  */
 package xades4j.production;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -23,6 +24,13 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
 import org.apache.xml.security.signature.Manifest;
 import org.apache.xml.security.signature.ObjectContainer;
 import org.apache.xml.security.signature.Reference;
@@ -34,8 +42,12 @@ import org.apache.xml.security.utils.resolver.ResourceResolverContext;
 import org.apache.xml.security.utils.resolver.ResourceResolverSpi;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.w3c.dom.Document;
+import xades4j.UnsupportedAlgorithmException;
+import xades4j.algorithms.CanonicalXMLWithoutComments;
 import xades4j.algorithms.EnvelopedSignatureTransform;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
 import xades4j.utils.DOMHelper;
 import xades4j.utils.SignatureServicesTestBase;
 import xades4j.utils.StringUtils;
@@ -68,7 +80,7 @@ public class SignedDataObjectsProcessorTest extends SignatureServicesTestBase
 
         AllwaysNullAlgsParamsMarshaller algsParamsMarshaller = new AllwaysNullAlgsParamsMarshaller();
 
-        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), algsParamsMarshaller);
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), algsParamsMarshaller, new DefaultMessageDigestProvider());
         SignedDataObjectsProcessor.Result result = processor.process(dataObjsDescs, xmlSignature, idGenerator);
 
         assertEquals(3, result.referenceMappings.size());
@@ -135,7 +147,7 @@ public class SignedDataObjectsProcessorTest extends SignatureServicesTestBase
 
         AllwaysNullAlgsParamsMarshaller algsParamsMarshaller = new AllwaysNullAlgsParamsMarshaller();
 
-        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), algsParamsMarshaller);
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), algsParamsMarshaller, new DefaultMessageDigestProvider());
         SignedDataObjectsProcessor.Result result = processor.process(signedObjects, xmlSignature, idGenerator);
 
         // Simulate what's done during signature production
@@ -192,7 +204,7 @@ public class SignedDataObjectsProcessorTest extends SignatureServicesTestBase
 
         XMLSignature xmlSignature = new XMLSignature(doc, "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256);
 
-        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), new AllwaysNullAlgsParamsMarshaller());
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), new AllwaysNullAlgsParamsMarshaller(), new DefaultMessageDigestProvider());
         SignedDataObjectsProcessor.Result result = processor.process(dataObjsDescs, xmlSignature, idGenerator);
 
         assertEquals(1, result.referenceMappings.size());
@@ -211,4 +223,103 @@ public class SignedDataObjectsProcessorTest extends SignatureServicesTestBase
                 .withSignedDataObject(new AnonymousDataObjectReference("data1".getBytes()))
                 .withSignedDataObject(new AnonymousDataObjectReference("data2".getBytes())));
     }
+
+    @Test
+    void testAddFileReferences(@TempDir Path dir) throws Exception
+    {
+        Path file = dir.resolve("data.xml");
+        Files.write(file, "<root><a></a></root>".getBytes(StandardCharsets.UTF_8));
+        byte[] precomputed = new byte[32];
+
+        Document doc = getNewDocument();
+
+        SignedDataObjects dataObjsDescs = new SignedDataObjects()
+                .withSignedDataObject(new FileDataObjectReference("data.xml", file))
+                .withSignedDataObject(new FileDataObjectReference("copy/data.xml", file)
+                        .withTransform(new CanonicalXMLWithoutComments()))
+                .withSignedDataObject(new FileDataObjectReference("missing.bin", Paths.get("missing.bin"))
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, precomputed))
+                .withSignedDataObject(new FileDataObjectReference("missing.xml", Paths.get("missing.xml"))
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, precomputed)
+                        .withTransform(new CanonicalXMLWithoutComments()));
+
+        XMLSignature xmlSignature = new XMLSignature(doc, "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256);
+
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), new AllwaysNullAlgsParamsMarshaller(), new DefaultMessageDigestProvider());
+        SignedDataObjectsProcessor.Result result = processor.process(dataObjsDescs, xmlSignature, idGenerator);
+
+        doc.appendChild(xmlSignature.getElement());
+        xmlSignature.getSignedInfo().generateDigestValues();
+
+        assertEquals(4, result.referenceMappings.size());
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+
+        Reference ref = xmlSignature.getSignedInfo().item(0);
+        assertEquals("data.xml", ref.getURI());
+        assertArrayEquals(expected, ref.getDigestValue());
+
+        ref = xmlSignature.getSignedInfo().item(1);
+        assertEquals(1, ref.getTransforms().getLength());
+        assertArrayEquals(expected, ref.getDigestValue());
+
+        ref = xmlSignature.getSignedInfo().item(2);
+        assertEquals("missing.bin", ref.getURI());
+        assertArrayEquals(precomputed, ref.getDigestValue());
+
+        ref = xmlSignature.getSignedInfo().item(3);
+        assertEquals("missing.xml", ref.getURI());
+        assertEquals(1, ref.getTransforms().getLength());
+        assertArrayEquals(precomputed, ref.getDigestValue());
+    }
+
+    @Test
+    void testAddPreDigestedReference() throws Exception
+    {
+        byte[] digestValue = MessageDigest.getInstance("SHA-512").digest("payload".getBytes(StandardCharsets.UTF_8));
+
+        Document doc = getNewDocument();
+
+        // No resolver is registered for the URI, so the data object can't be dereferenced.
+        SignedDataObjects dataObjsDescs = new SignedDataObjects()
+                .withSignedDataObject(new DataObjectReference("xades4j:payload")
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512, digestValue));
+
+        XMLSignature xmlSignature = new XMLSignature(doc, "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256);
+
+        SignatureAlgorithms algorithms = new SignatureAlgorithms()
+                .withDigestAlgorithmForDataObjectReferences(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512);
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(algorithms, new AllwaysNullAlgsParamsMarshaller(), new DefaultMessageDigestProvider());
+        processor.process(dataObjsDescs, xmlSignature, idGenerator);
+
+        doc.appendChild(xmlSignature.getElement());
+        xmlSignature.getSignedInfo().generateDigestValues();
+
+        Reference ref = xmlSignature.getSignedInfo().item(0);
+        assertEquals("xades4j:payload", ref.getURI());
+        assertEquals(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512, ref.getMessageDigestAlgorithm().getAlgorithmURI());
+        assertArrayEquals(digestValue, ref.getDigestValue());
+    }
+
+    @Test
+    void testAddReferencesWithDigestOfOtherAlgorithmFails() throws Exception
+    {
+        byte[] digestValue = MessageDigest.getInstance("SHA-512").digest("payload".getBytes(StandardCharsets.UTF_8));
+        SignedDataObjectsProcessor processor = new SignedDataObjectsProcessor(new SignatureAlgorithms(), new AllwaysNullAlgsParamsMarshaller(), new DefaultMessageDigestProvider());
+
+        SignedDataObjects preDigested = new SignedDataObjects()
+                .withSignedDataObject(new DataObjectReference("xades4j:payload")
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512, digestValue));
+        assertThrows(UnsupportedAlgorithmException.class, () -> processor.process(
+                preDigested,
+                new XMLSignature(getNewDocument(), "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256),
+                idGenerator));
+
+        SignedDataObjects file = new SignedDataObjects()
+                .withSignedDataObject(new FileDataObjectReference("payload.bin", Paths.get("payload.bin"))
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512, digestValue));
+        assertThrows(UnsupportedAlgorithmException.class, () -> processor.process(
+                file,
+                new XMLSignature(getNewDocument(), "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256),
+                idGenerator));
+    }
 }
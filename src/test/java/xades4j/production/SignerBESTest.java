@@ -16,10 +16,13 @@
  */
 package xades4j.production;
 
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
 import org.apache.xml.security.signature.XMLSignature;
+import org.apache.xml.security.utils.Constants;
 import org.apache.xml.security.utils.resolver.implementations.ResolverDirectHTTP;
 import org.apache.xml.security.utils.resolver.implementations.ResolverLocalFilesystem;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -27,6 +30,7 @@ import xades4j.algorithms.EnvelopedSignatureTransform;
 import xades4j.algorithms.XPath2FilterTransform.XPath2Filter;
 import xades4j.algorithms.XPathTransform;
 import xades4j.properties.AllDataObjsCommitmentTypeProperty;
+import xades4j.properties.AllDataObjsTimeStampProperty;
 import xades4j.properties.CommitmentTypeProperty;
 import xades4j.properties.CounterSignatureProperty;
 import xades4j.properties.DataObjectDesc;
@@ -35,12 +39,45 @@ import xades4j.properties.IndividualDataObjsTimeStampProperty;
 import xades4j.properties.QualifyingProperty;
 import xades4j.properties.SignerRoleProperty;
 import xades4j.properties.SigningCertificateProperty;
+import xades4j.providers.CertificateValidationProvider;
+import xades4j.providers.KeyingDataProvider;
+import xades4j.providers.SigningCertChainException;
+import xades4j.providers.SigningKeyException;
+import xades4j.providers.impl.LocalTimeStampTokenProvider;
+import xades4j.providers.impl.PKIXCertificateValidationProvider;
+import xades4j.providers.impl.TestTimeStampAuthority;
+import xades4j.utils.FileSystemDirectoryCertStore;
+import xades4j.verification.SignatureSpecificVerificationOptions;
+import xades4j.verification.UnexpectedJCAException;
+import xades4j.verification.XAdESVerificationResult;
+import xades4j.verification.XadesVerificationProfile;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
 import java.security.spec.MGF1ParameterSpec;
 import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -95,6 +132,322 @@ class SignerBESTest extends SignerTestBase
         outputDocument(doc, "document.signed.bes.ec.xml");
     }
 
+    @Test
+    void testSignBESWithPerSignerKeyingData() throws Exception
+    {
+        XadesSigningProfile profile = new XadesBesSigningProfile(keyingProviderMy);
+
+        for (KeyingDataProvider kp : new KeyingDataProvider[]{keyingProviderMyEc, keyingProviderMy})
+        {
+            Document doc = getTestDocument();
+            XadesSigner signer = profile.newSigner(kp, new BasicSignatureOptions().includeSigningCertificate(SigningCertificateMode.SIGNING_CERTIFICATE));
+            XadesSignatureResult result = new Enveloped(signer).sign(doc.getDocumentElement());
+
+            assertEquals(
+                    kp.getSigningCertificateChain().get(0),
+                    result.getSignature().getKeyInfo().getX509Certificate());
+        }
+    }
+
+    @Test
+    void testSignAll() throws Exception
+    {
+        AtomicInteger chainRequests = new AtomicInteger();
+        KeyingDataProvider countingKeyingProvider = new KeyingDataProvider()
+        {
+            @Override
+            public List<X509Certificate> getSigningCertificateChain() throws SigningCertChainException, UnexpectedJCAException
+            {
+                chainRequests.incrementAndGet();
+                return keyingProviderMy.getSigningCertificateChain();
+            }
+
+            @Override
+            public PrivateKey getSigningKey(X509Certificate signingCert) throws SigningKeyException, UnexpectedJCAException
+            {
+                return keyingProviderMy.getSigningKey(signingCert);
+            }
+        };
+        XadesSigner signer = new XadesBesSigningProfile(countingKeyingProvider).newSigner();
+
+        List<BatchSignatureRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            Document doc = getTestDocument();
+            requests.add(new BatchSignatureRequest(
+                    new SignedDataObjects(new DataObjectReference("").withTransform(new EnvelopedSignatureTransform())),
+                    doc.getDocumentElement()));
+        }
+        // Invalid reference
+        requests.add(new BatchSignatureRequest(
+                new SignedDataObjects(new DataObjectReference("#nonExistent")),
+                getTestDocument().getDocumentElement()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<BatchSignatureResult> results;
+        try
+        {
+            results = signer.signAll(requests, executor);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals(1, chainRequests.get());
+        assertEquals(requests.size(), results.size());
+        for (int i = 0; i < 4; i++)
+        {
+            BatchSignatureResult r = results.get(i);
+            assertTrue(r.isSuccessful());
+            assertSame(requests.get(i).getReferenceNode(), r.getResult().getSignature().getElement().getParentNode());
+        }
+        BatchSignatureResult failed = results.get(4);
+        assertFalse(failed.isSuccessful());
+        assertNull(failed.getResult());
+        assertNotNull(failed.getException());
+    }
+
+    @Test
+    void testSignBESTwoPhase() throws Exception
+    {
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+        X509Certificate signingCertificate = keyingProviderMy.getSigningCertificateChain().get(0);
+        PrivateKey signingKey = keyingProviderMy.getSigningKey(signingCertificate);
+
+        List<Document> docs = new ArrayList<>();
+        List<PreparedSignature> prepared = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            Document doc = getTestDocument();
+            Element elemToSign = doc.getDocumentElement();
+            SignedDataObjects dataObjs = new SignedDataObjects(new DataObjectReference('#' + elemToSign.getAttribute("Id"))
+                    .withTransform(new EnvelopedSignatureTransform()));
+            docs.add(doc);
+            prepared.add(signer.prepare(dataObjs, elemToSign, SignatureAppendingStrategies.AsLastChild));
+        }
+
+        for (int i = 0; i < prepared.size(); i++)
+        {
+            PreparedSignature p = prepared.get(i);
+            assertEquals(XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256, p.getSignatureAlgorithmUri());
+            assertEquals(signingCertificate, p.getSigningCertificate());
+
+            // The "external" signing operation.
+            Signature s = Signature.getInstance("SHA256withRSA");
+            s.initSign(signingKey);
+            s.update(p.getSignedInfoOctets());
+
+            XadesSignatureResult result = signer.complete(p, s.sign());
+
+            assertSame(docs.get(i).getDocumentElement(), result.getSignature().getElement().getParentNode());
+            assertTrue(result.getSignature().checkSignatureValue(signingCertificate.getPublicKey()));
+            assertThrows(IllegalStateException.class, () -> signer.complete(p, new byte[0]));
+        }
+
+        outputDocument(docs.get(0), "document.signed.bes.twophase.xml");
+    }
+
+    @Test
+    void testSignBESTwoPhaseSignatureValueMatchesXmlSignature() throws Exception
+    {
+        Document doc = getTestDocument();
+        Element elemToSign = doc.getDocumentElement();
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+        X509Certificate signingCertificate = keyingProviderMy.getSigningCertificateChain().get(0);
+        PrivateKey signingKey = keyingProviderMy.getSigningKey(signingCertificate);
+
+        PreparedSignature p = signer.prepare(
+                new SignedDataObjects(new DataObjectReference('#' + elemToSign.getAttribute("Id"))
+                        .withTransform(new EnvelopedSignatureTransform())),
+                elemToSign,
+                SignatureAppendingStrategies.AsLastChild);
+        Signature s = Signature.getInstance("SHA256withRSA");
+        s.initSign(signingKey);
+        s.update(p.getSignedInfoOctets());
+        XMLSignature signature = signer.complete(p, s.sign()).getSignature();
+
+        Element signatureValueElem = (Element) signature.getElement()
+                .getElementsByTagNameNS(Constants.SignatureSpecNS, Constants._TAG_SIGNATUREVALUE).item(0);
+        String completedValue = signatureValueElem.getTextContent();
+
+        // The signature value set by the signer must have the same layout (e.g. line
+        // breaks) as the one set by xmlsec for a value of the same length.
+        signature.sign(signingKey);
+        String xmlSignatureValue = signatureValueElem.getTextContent();
+        assertEquals(
+                xmlSignatureValue.replaceAll("[^\\r\\n]", "x"),
+                completedValue.replaceAll("[^\\r\\n]", "x"));
+    }
+
+    @Test
+    void testSignBESTwoPhaseInvalidSignatureValue() throws Exception
+    {
+        Document doc = getTestDocument();
+        Element elemToSign = doc.getDocumentElement();
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+        X509Certificate signingCertificate = keyingProviderMy.getSigningCertificateChain().get(0);
+        PrivateKey signingKey = keyingProviderMy.getSigningKey(signingCertificate);
+
+        PreparedSignature p = signer.prepare(
+                new SignedDataObjects(new DataObjectReference('#' + elemToSign.getAttribute("Id"))
+                        .withTransform(new EnvelopedSignatureTransform())),
+                elemToSign,
+                SignatureAppendingStrategies.AsLastChild);
+
+        Signature s = Signature.getInstance("SHA256withRSA");
+        s.initSign(signingKey);
+        s.update("other data".getBytes());
+        byte[] otherValue = s.sign();
+        assertThrows(InvalidSignatureValueException.class, () -> signer.complete(p, otherValue));
+        assertThrows(InvalidSignatureValueException.class, () -> signer.complete(p, new byte[] { 1, 2, 3 }));
+
+        // The prepared signature can still be completed.
+        s.initSign(signingKey);
+        s.update(p.getSignedInfoOctets());
+        XadesSignatureResult result = signer.complete(p, s.sign());
+        assertTrue(result.getSignature().checkSignatureValue(signingCertificate.getPublicKey()));
+    }
+
+    @Test
+    void testSignBESTwoPhaseDiscard() throws Exception
+    {
+        Document doc = getTestDocument();
+        Element elemToSign = doc.getDocumentElement();
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+        XadesSigner otherSigner = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+
+        PreparedSignature p = signer.prepare(
+                new SignedDataObjects(new DataObjectReference('#' + elemToSign.getAttribute("Id")).withTransform(new EnvelopedSignatureTransform())),
+                elemToSign,
+                SignatureAppendingStrategies.AsLastChild);
+        assertEquals(1, doc.getElementsByTagNameNS(Constants.SignatureSpecNS, Constants._TAG_SIGNATURE).getLength());
+
+        assertThrows(IllegalArgumentException.class, () -> otherSigner.complete(p, new byte[0]));
+
+        p.discard();
+        assertEquals(0, doc.getElementsByTagNameNS(Constants.SignatureSpecNS, Constants._TAG_SIGNATURE).getLength());
+        assertThrows(IllegalStateException.class, p::discard);
+    }
+
+    @Test
+    void testSignBESWithReferencesDigestExecutor(@TempDir Path dir) throws Exception
+    {
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            String fileName = "file" + i + ".txt";
+            Files.write(dir.resolve(fileName), ("Contents of " + fileName).getBytes(StandardCharsets.UTF_8));
+            fileNames.add(fileName);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy).newSigner();
+            XadesSigner concurrentSigner = new XadesBesSigningProfile(keyingProviderMy)
+                    .withBasicSignatureOptions(new BasicSignatureOptions().referencesDigestExecutor(executor))
+                    .newSigner();
+
+            List<List<String>> digestValues = new ArrayList<>();
+            for (XadesSigner s : new XadesSigner[]{signer, concurrentSigner})
+            {
+                Document doc = getTestDocument();
+                Element elemToSign = doc.getDocumentElement();
+                SignedDataObjects dataObjs = new SignedDataObjects(new DataObjectReference('#' + elemToSign.getAttribute("Id"))
+                        .withTransform(new EnvelopedSignatureTransform()))
+                        .withBaseUri(dir.toUri().toString())
+                        .withResourceResolver(new ResolverLocalFilesystem());
+                for (String fileName : fileNames)
+                {
+                    dataObjs.withSignedDataObject(new DataObjectReference(fileName));
+                }
+
+                XadesSignatureResult result = s.sign(dataObjs, elemToSign);
+
+                XMLSignature signature = result.getSignature();
+                Signature signatureValueVerifier = Signature.getInstance("SHA256withRSA");
+                signatureValueVerifier.initVerify(keyingProviderMy.getSigningCertificateChain().get(0));
+                signatureValueVerifier.update(signature.getSignedInfo().getCanonicalizedOctetStream());
+                assertTrue(signatureValueVerifier.verify(signature.getSignatureValue()));
+                List<String> values = new ArrayList<>();
+                for (int i = 0; i <= fileNames.size(); i++)
+                {
+                    values.add(Base64.getEncoder().encodeToString(signature.getSignedInfo().item(i).getDigestValue()));
+                }
+                digestValues.add(values);
+            }
+
+            assertEquals(digestValues.get(0), digestValues.get(1));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSignAndVerifyFileReferencesWithDataObjectTimeStamps(@TempDir Path dir) throws Exception
+    {
+        Path file1 = dir.resolve("file1.txt");
+        Path file2 = dir.resolve("file2.txt");
+        Files.write(file1, "Contents of file1".getBytes(StandardCharsets.UTF_8));
+        Files.write(file2, "Contents of file2".getBytes(StandardCharsets.UTF_8));
+        byte[] file2Digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file2));
+
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy)
+                .withTimeStampTokenProvider(LocalTimeStampTokenProvider.class)
+                .newSigner();
+
+        // The time-stamps cover the file contents, even if the digest of the reference is known.
+        Document doc = getNewDocument();
+        SignedDataObjects dataObjs = new SignedDataObjects(
+                new FileDataObjectReference("file1.txt", file1)
+                        .withDataObjectTimeStamp(new IndividualDataObjsTimeStampProperty()),
+                new FileDataObjectReference("file2.txt", file2)
+                        .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, file2Digest))
+                .withDataObjectsTimeStamp();
+        signer.sign(dataObjs, doc);
+
+        KeyStore trustAnchors = KeyStore.getInstance("JKS");
+        trustAnchors.load(null);
+        try (FileInputStream fis = new FileInputStream(toPlatformSpecificCertDirFilePath("my/TestCA.cer")))
+        {
+            trustAnchors.setCertificateEntry("testCA", CertificateFactory.getInstance("X.509").generateCertificate(fis));
+        }
+        TestTimeStampAuthority.getInstance().addTrustAnchorTo(trustAnchors);
+        CertificateValidationProvider validationProvider = PKIXCertificateValidationProvider
+                .builder(trustAnchors)
+                .checkRevocation(false)
+                .intermediateCertStores(new FileSystemDirectoryCertStore(toPlatformSpecificCertDirFilePath("my")).getStore())
+                .build();
+
+        XAdESVerificationResult res = new XadesVerificationProfile(validationProvider)
+                .newVerifier()
+                .verify(doc.getDocumentElement(), new SignatureSpecificVerificationOptions()
+                        .useBaseUri(dir.toUri().toString())
+                        .useResourceResolver(new ResolverLocalFilesystem()));
+
+        assertEquals(1, res.getPropertiesFilter().getOfType(AllDataObjsTimeStampProperty.class).size());
+        assertEquals(1, res.getPropertiesFilter().getOfType(IndividualDataObjsTimeStampProperty.class).size());
+    }
+
+    @Test
+    void testSignPreDigestedReferenceWithDataObjectTimeStampFails() throws Exception
+    {
+        byte[] digestValue = MessageDigest.getInstance("SHA-256").digest("payload".getBytes(StandardCharsets.UTF_8));
+        XadesSigner signer = new XadesBesSigningProfile(keyingProviderMy)
+                .withTimeStampTokenProvider(LocalTimeStampTokenProvider.class)
+                .newSigner();
+
+        // Only the digest of the data object is known, so it can't be time-stamped.
+        SignedDataObjects dataObjs = new SignedDataObjects(new DataObjectReference("xades4j:payload")
+                .withDigest(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, digestValue))
+                .withDataObjectsTimeStamp();
+
+        assertThrows(PropertyDataGenerationException.class, () -> signer.sign(dataObjs, getNewDocument()));
+    }
+
     @Test
     void testSignBESWithRsaPss() throws Exception
     {
@@ -21,7 +21,23 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import xades4j.algorithms.ExclusiveCanonicalXMLWithoutComments;
 import xades4j.properties.SignaturePolicyImpliedProperty;
+import xades4j.properties.SignatureTimeStampProperty;
+import xades4j.properties.UnsignedSignatureProperty;
+import xades4j.providers.AsyncTimeStampTokenProvider;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
 import xades4j.providers.impl.HttpTsaConfiguration;
+import xades4j.providers.impl.LocalTimeStampTokenProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 /**
  * @author Luís
@@ -62,4 +78,72 @@ class SignerTTest extends SignerTestBase
 
         outputDocument(doc, "document.signed.t.epes.xml");
     }
+
+    @Test
+    void testSignTAsync() throws Exception
+    {
+        LocalTimeStampTokenProvider localTsa = new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider());
+        AtomicInteger syncRequests = new AtomicInteger();
+        AtomicInteger asyncRequests = new AtomicInteger();
+
+        // Tokens are delivered later on a different thread, as if the TSA was remote.
+        AsyncTimeStampTokenProvider tsaProvider = new AsyncTimeStampTokenProvider()
+        {
+            @Override
+            public TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri)
+            {
+                syncRequests.incrementAndGet();
+                throw new IllegalStateException("Time-stamp tokens should be obtained asynchronously");
+            }
+
+            @Override
+            public CompletableFuture<TimeStampTokenRes> getTimeStampTokenAsync(byte[] tsDigestInput, String digestAlgUri)
+            {
+                asyncRequests.incrementAndGet();
+                return localTsa.getTimeStampTokenAsync(tsDigestInput, digestAlgUri)
+                        .thenApplyAsync(r -> r, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+            }
+        };
+
+        XadesSigner signer = new XadesTSigningProfile(keyingProviderMy)
+                .withTimeStampTokenProvider(tsaProvider)
+                .newSigner();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<CompletableFuture<XadesSignatureResult>> futures = new ArrayList<>();
+        try
+        {
+            for (int i = 0; i < 4; i++)
+            {
+                Document doc = getTestDocument();
+                futures.add(signer.signAsync(
+                        new SignedDataObjects(new DataObjectReference("")),
+                        doc.getDocumentElement(),
+                        SignatureAppendingStrategies.AsLastChild,
+                        executor));
+            }
+
+            for (CompletableFuture<XadesSignatureResult> f : futures)
+            {
+                XadesSignatureResult result = f.get(30, TimeUnit.SECONDS);
+                SignatureTimeStampProperty sigTs = null;
+                for (UnsignedSignatureProperty p : result.getQualifyingProperties().getUnsignedProperties().getSigProps())
+                {
+                    if (p instanceof SignatureTimeStampProperty)
+                    {
+                        sigTs = (SignatureTimeStampProperty) p;
+                    }
+                }
+                assertNotNull(sigTs);
+                assertNotNull(sigTs.getTime());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals(4, asyncRequests.get());
+        assertEquals(0, syncRequests.get());
+    }
 }
@@ -0,0 +1,261 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.junit.jupiter.api.Test;
+import xades4j.providers.DigestTimeStampTokenProvider;
+import xades4j.providers.TimeStampTokenGenerationException;
+import xades4j.providers.TimeStampTokenProvider.TimeStampTokenRes;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Luís
+ */
+class CoalescingTimeStampTokenProviderTest
+{
+    private static final String DIGEST_ALG = MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256;
+
+    @Test
+    void testConcurrentIdenticalRequestsShareToken() throws Exception
+    {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DigestTimeStampTokenProvider delegate = digestProvider((tsDigest, digestAlgUri) -> {
+            requests.incrementAndGet();
+            requestStarted.countDown();
+            try
+            {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            }
+            catch (InterruptedException ex)
+            {
+                throw new TimeStampTokenGenerationException("Interrupted", ex);
+            }
+            return new TimeStampTokenRes(tsDigest.clone(), new Date());
+        });
+        CoalescingTimeStampTokenProvider provider = new CoalescingTimeStampTokenProvider(delegate);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<TimeStampTokenRes>> results = new ArrayList<>();
+            results.add(executor.submit(() -> provider.getTimeStampToken("input".getBytes(), DIGEST_ALG)));
+            assertTrue(requestStarted.await(10, TimeUnit.SECONDS));
+
+            // The other callers join the in-flight request.
+            List<Thread> callers = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch callersStarted = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++)
+            {
+                results.add(executor.submit(() -> {
+                    callers.add(Thread.currentThread());
+                    callersStarted.countDown();
+                    return provider.getTimeStampToken("input".getBytes(), DIGEST_ALG);
+                }));
+            }
+            assertTrue(callersStarted.await(10, TimeUnit.SECONDS));
+            // Release the request only when all the callers are parked waiting for it.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            for (Thread t : callers)
+            {
+                while (t.getState() != Thread.State.WAITING)
+                {
+                    assertTrue(System.nanoTime() < deadline);
+                    Thread.onSpinWait();
+                }
+            }
+            release.countDown();
+
+            TimeStampTokenRes first = results.get(0).get();
+            for (Future<TimeStampTokenRes> r : results)
+            {
+                assertSame(first, r.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals(1, requests.get());
+
+        // Completed requests are not reused.
+        TimeStampTokenRes next = provider.getTimeStampToken("input".getBytes(), DIGEST_ALG);
+        assertEquals(2, requests.get());
+        assertNotSame(next, provider.getTimeStampToken("other".getBytes(), DIGEST_ALG));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void testAsyncRequestsAreCoalesced() throws Exception
+    {
+        AtomicInteger requests = new AtomicInteger();
+        LocalTimeStampTokenProvider localTsa = new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider());
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingTimeStampTokenProvider provider = new CoalescingTimeStampTokenProvider(new DigestTimeStampTokenProvider()
+        {
+            @Override
+            public TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                throw new TimeStampTokenGenerationException("Unexpected request with the whole input");
+            }
+
+            @Override
+            public TimeStampTokenRes getTimeStampTokenForDigest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                throw new TimeStampTokenGenerationException("Unexpected synchronous request");
+            }
+
+            @Override
+            public CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(byte[] tsDigest, String digestAlgUri)
+            {
+                requests.incrementAndGet();
+                return localTsa.getTimeStampTokenForDigestAsync(tsDigest, digestAlgUri)
+                        .thenCombine(CompletableFuture.runAsync(() -> {
+                            try
+                            {
+                                release.await(10, TimeUnit.SECONDS);
+                            }
+                            catch (InterruptedException ex)
+                            {
+                                Thread.currentThread().interrupt();
+                            }
+                        }), (res, v) -> res);
+            }
+        });
+
+        CompletableFuture<TimeStampTokenRes> first = provider.getTimeStampTokenAsync("input".getBytes(), DIGEST_ALG);
+        CompletableFuture<TimeStampTokenRes> second = provider.getTimeStampTokenAsync("input".getBytes(), DIGEST_ALG);
+        release.countDown();
+
+        assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testFailureIsPropagatedToAllRequests()
+    {
+        CoalescingTimeStampTokenProvider provider = new CoalescingTimeStampTokenProvider(digestProvider((tsDigest, digestAlgUri) -> {
+            throw new TimeStampTokenGenerationException("TSA unavailable");
+        }));
+
+        assertThrows(TimeStampTokenGenerationException.class, () -> provider.getTimeStampToken("input".getBytes(), DIGEST_ALG));
+        assertThrows(ExecutionException.class, () -> provider.getTimeStampTokenAsync("input".getBytes(), DIGEST_ALG).get());
+    }
+
+    @Test
+    void testRequestsWithTheSameImprintAreCoalesced() throws Exception
+    {
+        AtomicInteger requests = new AtomicInteger();
+        CompletableFuture<TimeStampTokenRes> release = new CompletableFuture<>();
+        List<byte[]> digests = Collections.synchronizedList(new ArrayList<>());
+        CoalescingTimeStampTokenProvider provider = new CoalescingTimeStampTokenProvider(new DigestTimeStampTokenProvider()
+        {
+            @Override
+            public TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                throw new TimeStampTokenGenerationException("Unexpected request with the whole input");
+            }
+
+            @Override
+            public TimeStampTokenRes getTimeStampTokenForDigest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                throw new TimeStampTokenGenerationException("Unexpected synchronous request");
+            }
+
+            @Override
+            public CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(byte[] tsDigest, String digestAlgUri)
+            {
+                requests.incrementAndGet();
+                digests.add(tsDigest);
+                return release;
+            }
+        });
+
+        byte[] input = "input".getBytes();
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(input);
+
+        CompletableFuture<TimeStampTokenRes> fromInput = provider.getTimeStampTokenAsync(input, DIGEST_ALG);
+        CompletableFuture<TimeStampTokenRes> fromDigest = provider.getTimeStampTokenForDigestAsync(digest, DIGEST_ALG);
+        release.complete(new TimeStampTokenRes(new byte[0], new Date()));
+
+        assertSame(fromInput.get(10, TimeUnit.SECONDS), fromDigest.get(10, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        assertArrayEquals(digest, digests.get(0));
+    }
+
+    private interface DigestRequest
+    {
+        TimeStampTokenRes getTimeStampToken(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException;
+    }
+
+    /**
+     * A delegate that only accepts digests and gets the tokens synchronously.
+     */
+    private static DigestTimeStampTokenProvider digestProvider(DigestRequest request)
+    {
+        return new DigestTimeStampTokenProvider()
+        {
+            @Override
+            public TimeStampTokenRes getTimeStampToken(byte[] tsDigestInput, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                throw new TimeStampTokenGenerationException("Unexpected request with the whole input");
+            }
+
+            @Override
+            public TimeStampTokenRes getTimeStampTokenForDigest(byte[] tsDigest, String digestAlgUri) throws TimeStampTokenGenerationException
+            {
+                return request.getTimeStampToken(tsDigest, digestAlgUri);
+            }
+
+            @Override
+            public CompletableFuture<TimeStampTokenRes> getTimeStampTokenForDigestAsync(byte[] tsDigest, String digestAlgUri)
+            {
+                try
+                {
+                    return CompletableFuture.completedFuture(request.getTimeStampToken(tsDigest, digestAlgUri));
+                }
+                catch (TimeStampTokenGenerationException ex)
+                {
+                    return CompletableFuture.failedFuture(ex);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.junit.jupiter.api.Test;
+import xades4j.UnsupportedAlgorithmException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Luís
+ */
+class DefaultMessageDigestProviderTest
+{
+    @Test
+    void testGetEngineReturnsIndependentEngines() throws Exception
+    {
+        DefaultMessageDigestProvider provider = new DefaultMessageDigestProvider();
+        byte[] data = "xades4j".getBytes(StandardCharsets.UTF_8);
+
+        MessageDigest md1 = provider.getEngine(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256);
+        md1.update(new byte[]{1, 2, 3});
+        MessageDigest md2 = provider.getEngine(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256);
+
+        assertNotSame(md1, md2);
+        assertEquals("SHA-256", md2.getAlgorithm());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), md2.digest(data));
+    }
+
+    @Test
+    void testGetEngineUnsupportedAlgorithm()
+    {
+        DefaultMessageDigestProvider provider = new DefaultMessageDigestProvider();
+        assertThrows(UnsupportedAlgorithmException.class, () -> provider.getEngine("http://invalid"));
+    }
+}
@@ -16,7 +16,9 @@
  */
 package xades4j.providers.impl;
 
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
 import org.junit.jupiter.api.Test;
+import xades4j.providers.DigestTimeStampVerificationProvider.ParsedTimeStampToken;
 import xades4j.providers.TimeStampTokenDigestException;
 import xades4j.providers.TimeStampTokenVerificationException;
 import xades4j.utils.StreamUtils;
@@ -25,7 +27,9 @@ import xades4j.verification.VerifierTestBase;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -64,6 +68,50 @@ class DefaultTimeStampVerificationProviderTest extends VerifierTestBase
         assertThrows(TimeStampTokenVerificationException.class, () -> doVerifyToken(tsDigestInput, tsToken));
     }
 
+    @Test
+    void testVerifyLocalTokenSucceeds() throws Exception
+    {
+        TestTimeStampAuthority tsa = TestTimeStampAuthority.getInstance();
+        byte[] tsDigestInput = "TestDigestInput".getBytes();
+        byte[] tsToken = new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider(), tsa)
+                .getTimeStampToken(tsDigestInput, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256)
+                .encodedTimeStampToken;
+
+        KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
+        ks.load(null);
+        tsa.addTrustAnchorTo(ks);
+        PKIXCertificateValidationProvider certificateValidationProvider = PKIXCertificateValidationProvider
+                .builder(ks)
+                .checkRevocation(false)
+                .build();
+
+        new DefaultTimeStampVerificationProvider(certificateValidationProvider, new DefaultMessageDigestProvider())
+                .verifyToken(tsToken, tsDigestInput);
+    }
+
+    @Test
+    void testVerifyLocalTokenForDigest() throws Exception
+    {
+        TestTimeStampAuthority tsa = TestTimeStampAuthority.getInstance();
+        byte[] tsDigest = MessageDigest.getInstance("SHA-256").digest("TestDigestInput".getBytes());
+        byte[] tsToken = new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider(), tsa)
+                .getTimeStampTokenForDigest(tsDigest, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256)
+                .encodedTimeStampToken;
+
+        KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
+        ks.load(null);
+        tsa.addTrustAnchorTo(ks);
+        DefaultTimeStampVerificationProvider timeStampVerificationProvider = new DefaultTimeStampVerificationProvider(
+                PKIXCertificateValidationProvider.builder(ks).checkRevocation(false).build(),
+                new DefaultMessageDigestProvider());
+
+        ParsedTimeStampToken parsedToken = timeStampVerificationProvider.parseToken(tsToken);
+        assertEquals(MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, parsedToken.getDigestAlgorithm());
+        parsedToken.verify(tsDigest);
+        timeStampVerificationProvider.verifyToken(tsToken, "TestDigestInput".getBytes());
+        assertThrows(TimeStampTokenDigestException.class, () -> parsedToken.verify(new byte[tsDigest.length]));
+    }
+
     private byte[] getTestToken() throws Exception
     {
         // The 'tstoken' file contains an encoded time stamp token issued by
@@ -17,17 +17,23 @@
 package xades4j.providers.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.io.FileInputStream;
+import java.security.PrivateKey;
 import java.security.Security;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -105,4 +111,51 @@ public class FileSystemKeyStoreKeyingDataProviderTest
         assertEquals(3, certChain.size());
         assertEquals(certChain.get(0), signCert);
     }
+
+    @Test
+    void testCachedKeyingData() throws Exception
+    {
+        AtomicInteger selections = new AtomicInteger();
+        FileSystemKeyStoreKeyingDataProvider keyingProvider = createCachingProvider(selections, Duration.ofHours(1));
+
+        List<X509Certificate> certChain = keyingProvider.getSigningCertificateChain();
+        PrivateKey key = keyingProvider.getSigningKey(certChain.get(0));
+        assertSame(certChain, keyingProvider.getSigningCertificateChain());
+        assertSame(key, keyingProvider.getSigningKey(certChain.get(0)));
+        assertEquals(1, selections.get());
+
+        keyingProvider.refresh();
+        List<X509Certificate> refreshedCertChain = keyingProvider.getSigningCertificateChain();
+        assertNotSame(certChain, refreshedCertChain);
+        assertEquals(certChain, refreshedCertChain);
+        assertEquals(2, selections.get());
+    }
+
+    @Test
+    void testCachedKeyingDataExpires() throws Exception
+    {
+        AtomicInteger selections = new AtomicInteger();
+        FileSystemKeyStoreKeyingDataProvider keyingProvider = createCachingProvider(selections, Duration.ofNanos(1));
+
+        keyingProvider.getSigningCertificateChain();
+        Thread.sleep(1);
+        keyingProvider.getSigningCertificateChain();
+        assertEquals(2, selections.get());
+    }
+
+    private static FileSystemKeyStoreKeyingDataProvider createCachingProvider(AtomicInteger selections, Duration timeToLive)
+    {
+        return FileSystemKeyStoreKeyingDataProvider
+                .builder("JKS",
+                        SignatureServicesTestBase.toPlatformSpecificCertDirFilePath("my/LG.jks"),
+                        availableCertificates -> {
+                            selections.incrementAndGet();
+                            return KeyStoreKeyingDataProvider.SigningCertificateSelector.single().selectCertificate(availableCertificates);
+                        })
+                .storePassword(new DirectPasswordProvider("mykeypass"))
+                .entryPassword(new DirectPasswordProvider("mykeypass"))
+                .fullChain(true)
+                .cacheKeyingData(timeToLive)
+                .build();
+    }
 }
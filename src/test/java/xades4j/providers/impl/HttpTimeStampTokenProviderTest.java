@@ -16,14 +16,169 @@
  */
 package xades4j.providers.impl;
 
+import com.sun.net.httpserver.HttpServer;
 import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import xades4j.providers.TimeStampTokenGenerationException;
 import xades4j.providers.TimeStampTokenProvider.TimeStampTokenRes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class HttpTimeStampTokenProviderTest
 {
+    private HttpServer tsaServer;
+    private ExecutorService tsaExecutor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String lastAuthorization;
+
+    @BeforeEach
+    void startTsaStub() throws Exception
+    {
+        TestTimeStampAuthority tsa = TestTimeStampAuthority.getInstance();
+
+        tsaServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        tsaExecutor = Executors.newFixedThreadPool(8);
+        tsaServer.setExecutor(tsaExecutor);
+        tsaServer.createContext("/tsa", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try (InputStream in = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody())
+            {
+                lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+                byte[] response = tsa.respond(in.readAllBytes());
+                Thread.sleep(50);
+                exchange.getResponseHeaders().set("Content-Type", "application/timestamp-reply");
+                exchange.sendResponseHeaders(200, response.length);
+                out.write(response);
+            }
+            catch (Exception ex)
+            {
+                throw new IOException(ex);
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+        });
+        tsaServer.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        tsaServer.start();
+    }
+
+    @AfterEach
+    void stopTsaStub()
+    {
+        tsaServer.stop(0);
+        tsaExecutor.shutdown();
+    }
+
+    private String stubUrl(String path)
+    {
+        return "http://localhost:" + tsaServer.getAddress().getPort() + path;
+    }
+
+    @Test
+    void testGetTimeStampTokenFromLocalTsa() throws Exception
+    {
+        HttpTimeStampTokenProvider instance = new HttpTimeStampTokenProvider(
+                new DefaultMessageDigestProvider(),
+                new HttpTsaConfiguration(stubUrl("/tsa"), "user", "pass"));
+
+        TimeStampTokenRes result = instance.getTimeStampToken("TestDigestInput".getBytes(), MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256);
+
+        assertNotNull(result.timeStampTime);
+        TimeStampToken token = new TimeStampToken(new CMSSignedData(result.encodedTimeStampToken));
+        assertEquals(TestTimeStampAuthority.getInstance().getTsaCertificate().getSerialNumber(), token.getSID().getSerialNumber());
+        assertEquals("Basic " + Base64.getEncoder().encodeToString("user:pass".getBytes(StandardCharsets.UTF_8)), lastAuthorization);
+    }
+
+    @Test
+    void testGetTimeStampTokenLimitsConcurrentRequests() throws Exception
+    {
+        HttpTimeStampTokenProvider instance = new HttpTimeStampTokenProvider(
+                new DefaultMessageDigestProvider(),
+                new HttpTsaConfiguration(stubUrl("/tsa")).maxConcurrentRequests(2));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try
+        {
+            List<Future<TimeStampTokenRes>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++)
+            {
+                byte[] input = ("TestDigestInput" + i).getBytes();
+                results.add(executor.submit(() -> instance.getTimeStampToken(input, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256)));
+            }
+            for (Future<TimeStampTokenRes> r : results)
+            {
+                assertNotNull(r.get().encodedTimeStampToken);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void testGetTimeStampTokenAsyncLimitsConcurrentRequests()
+    {
+        HttpTimeStampTokenProvider instance = new HttpTimeStampTokenProvider(
+                new DefaultMessageDigestProvider(),
+                new HttpTsaConfiguration(stubUrl("/tsa")).maxConcurrentRequests(2));
+
+        // The requests over the limit are queued without blocking the caller.
+        List<CompletableFuture<TimeStampTokenRes>> results = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+        {
+            byte[] input = ("TestDigestInput" + i).getBytes();
+            results.add(instance.getTimeStampTokenAsync(input, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256));
+        }
+        for (CompletableFuture<TimeStampTokenRes> r : results)
+        {
+            assertNotNull(r.join().encodedTimeStampToken);
+        }
+
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void testGetTimeStampTokenHttpError()
+    {
+        HttpTimeStampTokenProvider instance = new HttpTimeStampTokenProvider(
+                new DefaultMessageDigestProvider(),
+                new HttpTsaConfiguration(stubUrl("/error")));
+
+        TimeStampTokenGenerationException ex = assertThrows(TimeStampTokenGenerationException.class,
+                () -> instance.getTimeStampToken("TestDigestInput".getBytes(), MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256));
+        assertTrue(ex.getMessage().contains("503"));
+    }
+
     @Test
     void testGetTimeStampToken() throws Exception
     {
@@ -0,0 +1,57 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import jakarta.inject.Inject;
+import xades4j.providers.MessageDigestEngineProvider;
+import xades4j.providers.TimeStampTokenGenerationException;
+
+/**
+ * Implementation of {@code AbstractTimeStampTokenProvider} that gets time-stamp
+ * tokens from a {@link TestTimeStampAuthority} in the current process.
+ *
+ * @author Luís
+ */
+public final class LocalTimeStampTokenProvider extends AbstractTimeStampTokenProvider
+{
+    private final TestTimeStampAuthority tsa;
+
+    @Inject
+    public LocalTimeStampTokenProvider(MessageDigestEngineProvider messageDigestProvider) throws Exception
+    {
+        this(messageDigestProvider, TestTimeStampAuthority.getInstance());
+    }
+
+    public LocalTimeStampTokenProvider(MessageDigestEngineProvider messageDigestProvider, TestTimeStampAuthority tsa)
+    {
+        super(messageDigestProvider);
+        this.tsa = tsa;
+    }
+
+    @Override
+    byte[] getResponse(byte[] encodedRequest) throws TimeStampTokenGenerationException
+    {
+        try
+        {
+            return this.tsa.respond(encodedRequest);
+        }
+        catch (Exception ex)
+        {
+            throw new TimeStampTokenGenerationException("Local TSA failed to issue a response", ex);
+        }
+    }
+}
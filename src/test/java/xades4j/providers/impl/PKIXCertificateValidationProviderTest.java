@@ -20,6 +20,7 @@ import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import xades4j.providers.CannotBuildCertificationPathException;
 import xades4j.providers.ValidationData;
 import xades4j.utils.FileSystemDirectoryCertStore;
 
@@ -30,11 +31,15 @@ import java.security.Provider;
 import java.security.Security;
 import java.security.cert.X509CertSelector;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.GregorianCalendar;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Luís
@@ -111,4 +116,34 @@ class PKIXCertificateValidationProviderTest
         assertEquals(4, result.getCerts().size());
         assertEquals(3, result.getCrls().size());
     }
+
+    @Test
+    void testValidateCached() throws Exception
+    {
+        FileSystemDirectoryCertStore certStore = new FileSystemDirectoryCertStore("./src/test/cert/my");
+        KeyStore ks = KeyStore.getInstance("jks");
+        FileInputStream fis = new FileInputStream("./src/test/cert/my/myStore");
+        ks.load(fis, "mystorepass".toCharArray());
+        fis.close();
+
+        X509CertSelector certSelector = new X509CertSelector();
+        certSelector.setSubject(new X500Principal("CN = Luis Goncalves,OU = CC,O = ISEL,C = PT"));
+        Collection<X509Certificate> otherCerts = Collections.emptyList();
+
+        PKIXCertificateValidationProvider instance = PKIXCertificateValidationProvider
+                .builder(ks)
+                .checkRevocation(false)
+                .intermediateCertStores(certStore.getStore())
+                .cacheValidationResults(10, Duration.ofMinutes(5), Duration.ofHours(1))
+                .build();
+
+        Date now = new Date();
+        ValidationData result1 = instance.validate(certSelector, now, otherCerts);
+        ValidationData result2 = instance.validate(certSelector, new Date(now.getTime() + 1), otherCerts);
+        assertSame(result1, result2);
+
+        // Certificates are expired in 2041
+        Date future = new GregorianCalendar(2041, 0, 1).getTime();
+        assertThrows(CannotBuildCertificationPathException.class, () -> instance.validate(certSelector, future, otherCerts));
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import xades4j.production.BasicSignatureOptions;
+import xades4j.production.BatchSignatureRequest;
+import xades4j.production.BatchSignatureResult;
+import xades4j.production.EnvelopedXmlObject;
+import xades4j.production.SignedDataObjects;
+import xades4j.production.XadesBesSigningProfile;
+import xades4j.production.XadesSigner;
+import xades4j.utils.SignatureServicesTestBase;
+import xades4j.utils.TestPki;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Luís
+ */
+class PooledKeyingDataProviderTest
+{
+    @Test
+    void testProvidersAreAssignedPerThread() throws Exception
+    {
+        KeyPair caKeyPair = TestPki.newRsaKeyPair();
+        X509Certificate cert = TestPki.newCaCertificate("CN=Test Signer", caKeyPair);
+
+        // Different keys just to identify the provider that was used.
+        PooledKeyingDataProvider pool = PooledKeyingDataProvider.create(3,
+                i -> new DirectKeyingDataProvider(cert, newPrivateKey()));
+
+        Set<PrivateKey> keys = Collections.synchronizedSet(new HashSet<>());
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < pool.size(); i++)
+        {
+            Thread t = new Thread(() -> {
+                try
+                {
+                    X509Certificate signingCert = pool.getSigningCertificateChain().get(0);
+                    PrivateKey key = pool.getSigningKey(signingCert);
+                    assertSame(key, pool.getSigningKey(signingCert));
+                    keys.add(key);
+                }
+                catch (Throwable ex)
+                {
+                    failures.add(ex);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads)
+        {
+            t.join();
+        }
+
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(3, keys.size());
+    }
+
+    @Test
+    void testSignAllUsesTheProviderOfEachThread() throws Exception
+    {
+        KeyPair keyPair = TestPki.newRsaKeyPair();
+        X509Certificate cert = TestPki.newCaCertificate("CN=Test Signer", keyPair);
+        int size = 3;
+
+        // Each key request waits for the others, so that the signatures run on
+        // different threads at the same time.
+        CountDownLatch keyRequests = new CountDownLatch(size);
+        Set<Integer> usedProviders = ConcurrentHashMap.newKeySet();
+        PooledKeyingDataProvider pool = PooledKeyingDataProvider.create(size, i -> new DirectKeyingDataProvider(cert, keyPair.getPrivate())
+        {
+            @Override
+            public PrivateKey getSigningKey(X509Certificate signingCert)
+            {
+                usedProviders.add(i);
+                keyRequests.countDown();
+                try
+                {
+                    keyRequests.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getSigningKey(signingCert);
+            }
+        });
+
+        XadesSigner signer = new XadesBesSigningProfile(pool)
+                .withBasicSignatureOptions(new BasicSignatureOptions().checkKeyUsage(false).checkCertificateValidity(false))
+                .newSigner();
+        List<BatchSignatureRequest> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+        {
+            Document doc = SignatureServicesTestBase.getNewDocument();
+            requests.add(new BatchSignatureRequest(new SignedDataObjects(new EnvelopedXmlObject(doc.createElement("test"))), doc));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(size);
+        try
+        {
+            for (BatchSignatureResult r : signer.signAll(requests, executor))
+            {
+                assertTrue(r.isSuccessful());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals(size, usedProviders.size());
+    }
+
+    @Test
+    void testInvalidPool()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new PooledKeyingDataProvider(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> PooledKeyingDataProvider.create(0, i -> null));
+        assertThrows(NullPointerException.class, () -> new PooledKeyingDataProvider(Collections.singletonList(null)));
+    }
+
+    private static PrivateKey newPrivateKey()
+    {
+        try
+        {
+            return TestPki.newRsaKeyPair().getPrivate();
+        }
+        catch (Exception ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
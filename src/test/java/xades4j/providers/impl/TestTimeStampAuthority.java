@@ -0,0 +1,144 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+import xades4j.utils.TestPki;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process time-stamping authority. It issues RFC 3161 responses for encoded
+ * requests using a TSA certificate issued by an in-memory root CA.
+ * <p>
+ * This allows producing and verifying time-stamp properties offline and with
+ * reproducible latency, e.g. on tests and benchmarks.
+ *
+ * @author Luís
+ */
+public final class TestTimeStampAuthority
+{
+    private static final ASN1ObjectIdentifier TSA_POLICY = new ASN1ObjectIdentifier("1.3.6.1.4.1.99999.1");
+
+    private static TestTimeStampAuthority instance;
+
+    /**
+     * Gets a shared instance. Creating an authority involves generating keys,
+     * which is better done once.
+     */
+    public static synchronized TestTimeStampAuthority getInstance() throws Exception
+    {
+        if (null == instance)
+        {
+            instance = new TestTimeStampAuthority();
+        }
+        return instance;
+    }
+
+    private final X509Certificate rootCertificate;
+    private final X509CRL rootCrl;
+    private final X509Certificate tsaCertificate;
+    private final TimeStampResponseGenerator responseGenerator;
+    private final AtomicLong serialNumbers;
+
+    public TestTimeStampAuthority() throws Exception
+    {
+        KeyPair rootKeyPair = TestPki.newRsaKeyPair();
+        this.rootCertificate = TestPki.newCaCertificate("CN=xades4j Test TSA Root", rootKeyPair);
+        this.rootCrl = TestPki.newCrl(this.rootCertificate, rootKeyPair.getPrivate());
+
+        KeyPair tsaKeyPair = TestPki.newRsaKeyPair();
+        this.tsaCertificate = TestPki.newTimeStampingCertificate(
+                "CN=xades4j Test TSA",
+                tsaKeyPair.getPublic(),
+                this.rootCertificate,
+                rootKeyPair.getPrivate());
+
+        TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(
+                new JcaSimpleSignerInfoGeneratorBuilder().build("SHA256withRSA", tsaKeyPair.getPrivate(), this.tsaCertificate),
+                new JcaDigestCalculatorProviderBuilder().build().get(new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1)),
+                TSA_POLICY);
+        tokenGenerator.addCertificates(new JcaCertStore(Collections.singletonList(this.tsaCertificate)));
+
+        this.responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+        this.serialNumbers = new AtomicLong();
+    }
+
+    /**
+     * The root CA that issued the TSA certificate. Should be added to the trust
+     * anchors used to validate the issued tokens.
+     */
+    public X509Certificate getRootCertificate()
+    {
+        return rootCertificate;
+    }
+
+    /**
+     * An empty CRL issued by the root CA. Needed if revocation checking is enabled
+     * when validating the TSA certificate.
+     */
+    public X509CRL getRootCrl()
+    {
+        return rootCrl;
+    }
+
+    public X509Certificate getTsaCertificate()
+    {
+        return tsaCertificate;
+    }
+
+    /**
+     * Adds the root CA certificate to a key store containing trust anchors.
+     */
+    public void addTrustAnchorTo(KeyStore trustAnchors) throws Exception
+    {
+        trustAnchors.setCertificateEntry("xades4jTestTsaRoot", this.rootCertificate);
+    }
+
+    /**
+     * Issues a time-stamp response for an encoded time-stamp request.
+     *
+     * @param encodedRequest the DER-encoded {@code TimeStampReq}
+     * @return the DER-encoded {@code TimeStampResp}
+     */
+    public byte[] respond(byte[] encodedRequest) throws Exception
+    {
+        TimeStampRequest request = new TimeStampRequest(encodedRequest);
+        BigInteger serialNumber = BigInteger.valueOf(this.serialNumbers.incrementAndGet());
+        // The BC generators are not meant to be used concurrently.
+        synchronized (this.responseGenerator)
+        {
+            return this.responseGenerator.generate(request, serialNumber, new Date()).getEncoded();
+        }
+    }
+}
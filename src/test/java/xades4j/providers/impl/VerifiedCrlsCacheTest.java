@@ -0,0 +1,56 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.providers.impl;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Test;
+import xades4j.utils.TestPki;
+
+import java.io.ByteArrayInputStream;
+import java.security.KeyPair;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Luís
+ */
+class VerifiedCrlsCacheTest
+{
+    @Test
+    void testIsVerified() throws Exception
+    {
+        KeyPair caKeyPair = TestPki.newRsaKeyPair();
+        X509Certificate caCert = TestPki.newCaCertificate("CN=Test CA", caKeyPair);
+        X509CRL crl = TestPki.newCrl(caCert, caKeyPair.getPrivate());
+
+        VerifiedCrlsCache cache = new VerifiedCrlsCache();
+        assertFalse(cache.isVerified(crl, caKeyPair.getPublic()));
+
+        cache.setVerified(crl, caKeyPair.getPublic());
+        assertTrue(cache.isVerified(crl, caKeyPair.getPublic()));
+        assertFalse(cache.isVerified(crl, TestPki.newRsaKeyPair().getPublic()));
+
+        // Compared by identity. The JDK's factory caches the parsed CRLs, so another one is used.
+        X509CRL sameCrl = (X509CRL) CertificateFactory.getInstance("X.509", new BouncyCastleProvider())
+                .generateCRL(new ByteArrayInputStream(crl.getEncoded()));
+        assertFalse(cache.isVerified(sameCrl, caKeyPair.getPublic()));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author Luís
+ */
+class BoundedCacheTest
+{
+    @Test
+    void testClearedWhenFull()
+    {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"));
+
+        cache.put("c", 3);
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void testIdentityKey()
+    {
+        BoundedCache<BoundedCache.IdentityKey, Integer> cache = new BoundedCache<>(2);
+        String instance = new String("instance");
+        cache.put(new BoundedCache.IdentityKey(instance, "x"), 1);
+
+        assertEquals(1, cache.get(new BoundedCache.IdentityKey(instance, "x")));
+        assertNull(cache.get(new BoundedCache.IdentityKey(instance, "y")));
+        assertNull(cache.get(new BoundedCache.IdentityKey(new String("instance"), "x")));
+    }
+}
@@ -17,10 +17,19 @@
 package xades4j.utils;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.cert.CRL;
 import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLSelector;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
 import java.util.Collection;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -46,4 +55,57 @@ class FileSystemDirectoryCertStoreTest
         Collection<? extends CRL> crls = certStore.getStore().getCRLs(null);
         assertEquals(3, crls.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetStoreIndexedLookups() throws Exception
+    {
+        FileSystemDirectoryCertStore certStore = new FileSystemDirectoryCertStore("./src/test/cert/csrc.nist");
+        X509Certificate endCert = (X509Certificate) certStore.getStore().getCertificates(null).stream()
+                .filter(c -> ((X509Certificate) c).getSubjectX500Principal().getName().startsWith("CN=User1-CP.02.01"))
+                .findFirst()
+                .get();
+
+        X509CertSelector bySubject = new X509CertSelector();
+        bySubject.setSubject(endCert.getSubjectX500Principal());
+        assertEquals(Collections.singletonList(endCert), certStore.getStore().getCertificates(bySubject));
+
+        X509CertSelector byIssuerSerial = new X509CertSelector();
+        byIssuerSerial.setIssuer(endCert.getIssuerX500Principal());
+        byIssuerSerial.setSerialNumber(endCert.getSerialNumber());
+        assertEquals(Collections.singletonList(endCert), certStore.getStore().getCertificates(byIssuerSerial));
+
+        X509CRLSelector crlByIssuer = new X509CRLSelector();
+        crlByIssuer.addIssuer(endCert.getIssuerX500Principal());
+        Collection<? extends CRL> crls = certStore.getStore().getCRLs(crlByIssuer);
+        assertEquals(1, crls.size());
+        assertEquals(endCert.getIssuerX500Principal(), ((X509CRL) crls.iterator().next()).getIssuerX500Principal());
+    }
+
+    @Test
+    void testWatchForChanges(@TempDir Path dir) throws Exception
+    {
+        try (FileSystemDirectoryCertStore certStore = new FileSystemDirectoryCertStore(dir.toString()))
+        {
+            certStore.startWatching();
+            assertEquals(0, certStore.getStore().getCertificates(null).size());
+
+            Path subDir = Files.createDirectory(dir.resolve("sub"));
+            Files.copy(Paths.get("./src/test/cert/my/LG.cer"), dir.resolve("LG.cer"));
+            Files.copy(Paths.get("./src/test/cert/my/TestCA.cer"), subDir.resolve("TestCA.cer"));
+            awaitCertificates(certStore, 2);
+
+            Files.delete(dir.resolve("LG.cer"));
+            awaitCertificates(certStore, 1);
+        }
+    }
+
+    private static void awaitCertificates(FileSystemDirectoryCertStore certStore, int count) throws Exception
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (certStore.getStore().getCertificates(null).size() != count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(50);
+        }
+        assertEquals(count, certStore.getStore().getCertificates(null).size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Luís
+ */
+class FutureUtilsTest
+{
+    @Test
+    void testResultsInOrder() throws Exception
+    {
+        CompletableFuture<String> late = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> late.complete("a"));
+
+        List<String> results = FutureUtils.joinAll(
+                Arrays.asList(late, CompletableFuture.completedFuture("b")),
+                IOException.class);
+
+        assertEquals(Arrays.asList("a", "b"), results);
+    }
+
+    @Test
+    void testFirstFailureInOrderIsThrown()
+    {
+        IOException first = new IOException("first");
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> second = CompletableFuture.failedFuture(new IllegalStateException("second"));
+        CompletableFuture.runAsync(() -> pending.completeExceptionally(new CompletionException(first)));
+
+        IOException ex = assertThrows(IOException.class, () -> FutureUtils.joinAll(
+                Arrays.asList(CompletableFuture.completedFuture("a"), pending, second),
+                IOException.class));
+        assertSame(first, ex);
+        assertTrue(pending.isDone());
+    }
+
+    @Test
+    void testOtherCheckedExceptionsAreWrapped()
+    {
+        Exception other = new Exception("other");
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> FutureUtils.joinAll(
+                Arrays.asList(CompletableFuture.<String>failedFuture(other)),
+                IOException.class));
+        assertSame(other, ex.getCause());
+    }
+}
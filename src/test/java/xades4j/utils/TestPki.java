@@ -0,0 +1,170 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CRLConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates keys and certificates in memory, so that tests and benchmarks don't depend
+ * on key material stored on disk for scenarios where the specific certificates
+ * don't matter (e.g. time-stamping, benchmarking with different key types).
+ *
+ * @author Luís
+ */
+public final class TestPki
+{
+    private static final AtomicLong serialNumbers = new AtomicLong(System.currentTimeMillis());
+    private static final long VALIDITY_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private TestPki()
+    {
+    }
+
+    public static KeyPair newRsaKeyPair() throws Exception
+    {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        return kpg.generateKeyPair();
+    }
+
+    public static KeyPair newEcKeyPair() throws Exception
+    {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(new ECGenParameterSpec("secp256r1"));
+        return kpg.generateKeyPair();
+    }
+
+    /**
+     * Creates a self-signed CA certificate.
+     */
+    public static X509Certificate newCaCertificate(String subjectDN, KeyPair keyPair) throws Exception
+    {
+        X500Name subject = new X500Name(subjectDN);
+        X509v3CertificateBuilder builder = newBuilder(subject, subject, keyPair.getPublic());
+        JcaX509ExtensionUtils extUtils = new JcaX509ExtensionUtils();
+        builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(true));
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+        builder.addExtension(Extension.subjectKeyIdentifier, false, extUtils.createSubjectKeyIdentifier(keyPair.getPublic()));
+        return sign(builder, keyPair.getPrivate());
+    }
+
+    /**
+     * Creates an end-entity certificate suitable for signing XML signatures.
+     */
+    public static X509Certificate newSigningCertificate(
+            String subjectDN,
+            PublicKey publicKey,
+            X509Certificate issuerCert,
+            PrivateKey issuerKey) throws Exception
+    {
+        X509v3CertificateBuilder builder = newEndEntityBuilder(subjectDN, publicKey, issuerCert);
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.digitalSignature | KeyUsage.nonRepudiation));
+        return sign(builder, issuerKey);
+    }
+
+    /**
+     * Creates an end-entity certificate suitable for a time-stamping authority.
+     */
+    public static X509Certificate newTimeStampingCertificate(
+            String subjectDN,
+            PublicKey publicKey,
+            X509Certificate issuerCert,
+            PrivateKey issuerKey) throws Exception
+    {
+        X509v3CertificateBuilder builder = newEndEntityBuilder(subjectDN, publicKey, issuerCert);
+        builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.digitalSignature));
+        builder.addExtension(Extension.extendedKeyUsage, true, new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping));
+        return sign(builder, issuerKey);
+    }
+
+    /**
+     * Creates an empty CRL (no revoked certificates) issued by the given CA.
+     */
+    public static X509CRL newCrl(X509Certificate issuerCert, PrivateKey issuerKey) throws Exception
+    {
+        long now = System.currentTimeMillis();
+        X509v2CRLBuilder builder = new JcaX509v2CRLBuilder(issuerCert, new Date(now - TimeUnit.HOURS.toMillis(1)));
+        builder.setNextUpdate(new Date(now + VALIDITY_MILLIS));
+        builder.addExtension(Extension.authorityKeyIdentifier, false, new JcaX509ExtensionUtils().createAuthorityKeyIdentifier(issuerCert));
+        builder.addExtension(Extension.cRLNumber, false, new CRLNumber(BigInteger.ONE));
+        return new JcaX509CRLConverter().getCRL(builder.build(newContentSigner(issuerKey)));
+    }
+
+    private static X509v3CertificateBuilder newEndEntityBuilder(
+            String subjectDN,
+            PublicKey publicKey,
+            X509Certificate issuerCert) throws Exception
+    {
+        X500Name issuer = X500Name.getInstance(issuerCert.getSubjectX500Principal().getEncoded());
+        X509v3CertificateBuilder builder = newBuilder(issuer, new X500Name(subjectDN), publicKey);
+        JcaX509ExtensionUtils extUtils = new JcaX509ExtensionUtils();
+        builder.addExtension(Extension.authorityKeyIdentifier, false, extUtils.createAuthorityKeyIdentifier(issuerCert));
+        builder.addExtension(Extension.subjectKeyIdentifier, false, extUtils.createSubjectKeyIdentifier(publicKey));
+        return builder;
+    }
+
+    private static X509v3CertificateBuilder newBuilder(X500Name issuer, X500Name subject, PublicKey publicKey)
+    {
+        // Backdate the certificates a bit to avoid issues with clock skew on validation.
+        long now = System.currentTimeMillis();
+        return new JcaX509v3CertificateBuilder(
+                issuer,
+                BigInteger.valueOf(serialNumbers.incrementAndGet()),
+                new Date(now - TimeUnit.HOURS.toMillis(1)),
+                new Date(now + VALIDITY_MILLIS),
+                subject,
+                publicKey);
+    }
+
+    private static X509Certificate sign(X509v3CertificateBuilder builder, PrivateKey issuerKey) throws Exception
+    {
+        return new JcaX509CertificateConverter().getCertificate(builder.build(newContentSigner(issuerKey)));
+    }
+
+    private static ContentSigner newContentSigner(PrivateKey issuerKey) throws Exception
+    {
+        String sigAlg = "EC".equals(issuerKey.getAlgorithm()) ? "SHA256withECDSA" : "SHA256withRSA";
+        return new JcaContentSignerBuilder(sigAlg).build(issuerKey);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.utils;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import xades4j.algorithms.CanonicalXMLWithoutComments;
+import xades4j.production.TestAlgorithmsParametersMarshallingProvider;
+import xades4j.providers.DigestTimeStampVerificationProvider.ParsedTimeStampToken;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
+import xades4j.providers.impl.DefaultTimeStampVerificationProvider;
+import xades4j.providers.impl.LocalTimeStampTokenProvider;
+import xades4j.providers.impl.PKIXCertificateValidationProvider;
+import xades4j.providers.impl.TestTimeStampAuthority;
+
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Luís
+ */
+class TimeStampDigestInputFactoryImplTest
+{
+    private static final String SHA256 = MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256;
+    private static final String SHA512 = MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512;
+
+    private final TimeStampDigestInputFactory factory = new TimeStampDigestInputFactoryImpl(
+            new TestAlgorithmsParametersMarshallingProvider(),
+            new DefaultMessageDigestProvider());
+
+    @Test
+    void testDigestInputMatchesBytesInput() throws Exception
+    {
+        Document doc = SignatureServicesTestBase.getDocument("document.xml");
+        Node first = doc.getDocumentElement().getFirstChild().getNextSibling();
+
+        TimeStampDigestInput bytesInput = factory.newTimeStampDigestInput(new CanonicalXMLWithoutComments());
+        TimeStampDigestInput digestInput = factory.newTimeStampDigestInput(new CanonicalXMLWithoutComments(), List.of(SHA256, SHA512));
+
+        bytesInput.addNode(first);
+        digestInput.addNode(first);
+        assertArrayEquals(sha256(bytesInput.getBytes()), digestInput.getDigest(SHA256));
+
+        // More data can be added after getting a digest
+        bytesInput.addNode(doc.getDocumentElement());
+        digestInput.addNode(doc.getDocumentElement());
+        assertArrayEquals(sha256(bytesInput.getBytes()), digestInput.getDigest(SHA256));
+        assertArrayEquals(bytesInput.getDigest(SHA256), digestInput.getDigest(SHA256));
+        assertArrayEquals(bytesInput.getDigest(SHA512), digestInput.getDigest(SHA512));
+    }
+
+    @Test
+    void testTokenOverBytesInputVerifiesWithDigestInput() throws Exception
+    {
+        Document doc = SignatureServicesTestBase.getDocument("document.xml");
+        TimeStampDigestInput bytesInput = factory.newTimeStampDigestInput(new CanonicalXMLWithoutComments());
+        TimeStampDigestInput digestInput = factory.newTimeStampDigestInput(new CanonicalXMLWithoutComments(), List.of(SHA256));
+        bytesInput.addNode(doc.getDocumentElement());
+        digestInput.addNode(doc.getDocumentElement());
+
+        TestTimeStampAuthority tsa = TestTimeStampAuthority.getInstance();
+        byte[] tsToken = new LocalTimeStampTokenProvider(new DefaultMessageDigestProvider(), tsa)
+                .getTimeStampToken(bytesInput.getBytes(), SHA256)
+                .encodedTimeStampToken;
+
+        KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
+        ks.load(null);
+        tsa.addTrustAnchorTo(ks);
+        DefaultTimeStampVerificationProvider timeStampVerificationProvider = new DefaultTimeStampVerificationProvider(
+                PKIXCertificateValidationProvider.builder(ks).checkRevocation(false).build(),
+                new DefaultMessageDigestProvider());
+
+        ParsedTimeStampToken parsedToken = timeStampVerificationProvider.parseToken(tsToken);
+        parsedToken.verify(digestInput.getDigest(parsedToken.getDigestAlgorithm()));
+        timeStampVerificationProvider.verifyToken(tsToken, bytesInput.getBytes());
+    }
+
+    private static byte[] sha256(byte[] data) throws Exception
+    {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+}
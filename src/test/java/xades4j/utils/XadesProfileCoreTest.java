@@ -21,11 +21,13 @@ import com.google.inject.Module;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -99,6 +101,17 @@ class E
 
 }
 
+class F
+{
+    public final A a;
+
+    @Inject
+    public F(A a)
+    {
+        this.a = a;
+    }
+}
+
 /**
  * @author Luís
  */
@@ -186,4 +199,29 @@ class XadesProfileCoreTest
         assertEquals(AImpl1.class, e.as.get("A1").getClass());
         assertEquals(AImpl2.class, e.as.get("A2").getClass());
     }
+
+    @Test
+    void testGetInstanceAfterChangingBindings() throws Exception
+    {
+        Module[] modules = {b -> b.bind(A.class).to(AImpl1.class)};
+        XadesProfileCore instance = new XadesProfileCore();
+
+        assertTrue(instance.getInstance(A.class, modules, new Module[0]) instanceof AImpl1);
+        instance.addBinding(A.class, AImpl2.class);
+        assertTrue(instance.getInstance(A.class, modules, new Module[0]) instanceof AImpl2);
+    }
+
+    @Test
+    void testGetInstanceWithInstanceBindings() throws Exception
+    {
+        XadesProfileCore instance = new XadesProfileCore();
+        instance.addBinding(A.class, AImpl1.class);
+
+        A a = new AImpl2();
+        F f1 = instance.getInstance(F.class, new Module[0], new Module[0], Collections.singletonMap(A.class, a));
+        F f2 = instance.getInstance(F.class, new Module[0], new Module[0]);
+
+        assertSame(a, f1.a);
+        assertTrue(f2.a instanceof AImpl1);
+    }
 }
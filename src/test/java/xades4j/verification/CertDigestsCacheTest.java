@@ -0,0 +1,56 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import org.apache.xml.security.algorithms.MessageDigestAlgorithm;
+import org.junit.jupiter.api.Test;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
+import xades4j.utils.TestPki;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Luís
+ */
+class CertDigestsCacheTest
+{
+    @Test
+    void testGetDigest() throws Exception
+    {
+        X509Certificate cert = TestPki.newCaCertificate("CN=Test CA", TestPki.newRsaKeyPair());
+        DefaultMessageDigestProvider digestProvider = new DefaultMessageDigestProvider();
+        CertDigestsCache cache = new CertDigestsCache();
+
+        byte[] sha256 = cache.getDigest(cert, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, digestProvider);
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(cert.getEncoded()), sha256);
+        assertSame(sha256, cache.getDigest(cert, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, digestProvider));
+        // E.g. the signing certificate parsed from KeyInfo on another verification
+        X509Certificate sameCert = (X509Certificate) CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(cert.getEncoded()));
+        assertSame(sha256, cache.getDigest(sameCert, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA256, digestProvider));
+
+        byte[] sha512 = cache.getDigest(cert, MessageDigestAlgorithm.ALGO_ID_DIGEST_SHA512, digestProvider);
+        assertEquals(64, sha512.length);
+    }
+}
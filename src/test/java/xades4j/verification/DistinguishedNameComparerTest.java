@@ -1,5 +1,6 @@
 package xades4j.verification;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -17,6 +18,7 @@ import java.security.cert.X509Certificate;
 import java.util.Collection;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
@@ -88,4 +90,19 @@ public class DistinguishedNameComparerTest extends SignatureServicesTestBase
 
         assertTrue(comparer.areEqual(principal, issuerDn));
     }
+
+    @Test
+    void canCompareRepeatedly() throws Exception
+    {
+        X500Principal principal = certFromFile("my/LG.cer").getIssuerX500Principal();
+        DistinguishedNameComparer comparer = new DistinguishedNameComparer(this.nameStyle, this.x500NameStyleProvider);
+
+        for (int i = 0; i < 2; i++)
+        {
+            assertTrue(comparer.areEqual(principal, "CN=Itermediate,OU=CC,O=ISEL,C=PT"));
+            assertTrue(comparer.areEqual(principal, "c=pt, o=isel, ou=cc, cn=itermediate"));
+            assertFalse(comparer.areEqual(principal, "CN=Itermediate,OU=CC,O=ISEL,C=ES"));
+            assertFalse(comparer.areEqual(principal, "CN=Itermediate,O=ISEL,C=PT"));
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * XAdES4j - A Java library for generation and verification of XAdES signatures.
+ * Copyright (C) 2026 Luis Goncalves.
+ *
+ * XAdES4j is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or any later version.
+ *
+ * XAdES4j is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with XAdES4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package xades4j.verification;
+
+import org.apache.xml.security.Init;
+import org.apache.xml.security.signature.XMLSignature;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import xades4j.properties.data.PropertiesDataObjectsStructureVerifier;
+import xades4j.properties.data.PropertyDataObject;
+import xades4j.properties.data.SignerRoleData;
+import xades4j.properties.data.SigningTimeData;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Luís
+ */
+class QualifyingPropertiesVerifierImplTest
+{
+    private static QualifyingPropertyVerificationContext ctx;
+
+    @BeforeAll
+    static void setUpClass() throws Exception
+    {
+        Init.init();
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document doc = dbf.newDocumentBuilder().newDocument();
+        XMLSignature signature = new XMLSignature(doc, "", XMLSignature.ALGO_ID_SIGNATURE_RSA_SHA256);
+        doc.appendChild(signature.getElement());
+        ctx = new QualifyingPropertyVerificationContext(signature, null, null);
+    }
+
+    @Test
+    void testFirstFailureIsReportedInBothModes() throws Exception
+    {
+        PropertyDataObject invalid = new SigningTimeData(Calendar.getInstance());
+        PropertyDataObject withoutVerifier = new SignerRoleData(Collections.singletonList("role"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            // Sequentially and concurrently
+            for (Executor e : Arrays.asList(null, executor))
+            {
+                QualifyingPropertiesVerifierImpl verifier = newVerifier(e);
+
+                assertThrows(InvalidPropertyException.class,
+                        () -> verifier.verifyProperties(Arrays.asList(invalid, withoutVerifier), ctx));
+                assertThrows(QualifyingPropertyVerifierNotAvailableException.class,
+                        () -> verifier.verifyProperties(Arrays.asList(withoutVerifier, invalid), ctx));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static QualifyingPropertiesVerifierImpl newVerifier(Executor executor)
+    {
+        QualifyingPropertiesVerifierImpl verifier = new QualifyingPropertiesVerifierImpl(
+                new QualifyingPropertyVerifiersMapper()
+                {
+                    @Override
+                    public <TData extends PropertyDataObject> QualifyingPropertyVerifier<TData> getVerifier(TData p) throws QualifyingPropertyVerifierNotAvailableException
+                    {
+                        if (!(p instanceof SigningTimeData))
+                        {
+                            throw new QualifyingPropertyVerifierNotAvailableException(p);
+                        }
+                        return (propData, ctx) -> {
+                            throw new InvalidPropertyException()
+                            {
+                                @Override
+                                protected String getVerificationMessage()
+                                {
+                                    return "invalid";
+                                }
+
+                                @Override
+                                public String getPropertyName()
+                                {
+                                    return "SigningTime";
+                                }
+                            };
+                        };
+                    }
+                },
+                new PropertiesDataObjectsStructureVerifier(Collections.emptySet()));
+        verifier.setExecutor(executor);
+        return verifier;
+    }
+}
@@ -17,12 +17,24 @@
 package xades4j.verification;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.apache.xml.security.utils.Constants;
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import xades4j.XAdES4jXMLSigException;
 import xades4j.providers.CannotSelectCertificateException;
 import xades4j.providers.impl.PKIXCertificateValidationProvider;
+import xades4j.utils.DOMHelper;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -79,6 +91,53 @@ class XadesVerifierErrorsTest extends VerifierTestBase
         assertThrows(SignatureValueException.class, () -> verifyBadSignature("document.signed.bes.invalidsigvalue.xml", mySigsVerificationProfile));
     }
 
+    @Test
+    void testErrVerifyChangedReferences() throws Exception
+    {
+        Document doc = getDocument("document.signed.bes.xml");
+        Element signedInfo = DOMHelper.getFirstDescendant(doc.getDocumentElement(), Constants.SignatureSpecNS, Constants._TAG_SIGNEDINFO);
+        NodeList digestValues = signedInfo.getElementsByTagNameNS(Constants.SignatureSpecNS, Constants._TAG_DIGESTVALUE);
+        digestValues.item(0).setTextContent("AAAA");
+        digestValues.item(1).setTextContent("AAAA");
+
+        ReferenceValueException ex = assertThrows(
+                ReferenceValueException.class,
+                () -> mySigsVerificationProfile.newVerifier().verify(getSigElement(doc), null));
+        assertEquals(2, ex.getReferences().size());
+        assertSame(ex.getReferences().get(0), ex.getReference());
+        assertEquals("#root", ex.getReference().getURI());
+    }
+
+    @Test
+    void testErrVerifyUnresolvedReference() throws Exception
+    {
+        // No data is given for the anonymous reference
+        XAdES4jXMLSigException ex = assertThrows(XAdES4jXMLSigException.class, () -> verifySignature("detached.c.xml", nistVerificationProfile));
+        assertEquals("Error verifying the references", ex.getMessage());
+    }
+
+    @Test
+    void testErrVerifyWithReferencesVerificationExecutor() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            mySigsVerificationProfile.withReferencesVerificationExecutor(executor);
+            assertThrows(ReferenceValueException.class, () -> verifyBadSignature("document.signed.bes.invaliddataobj.xml", mySigsVerificationProfile));
+            assertThrows(SignatureValueException.class, () -> verifyBadSignature("document.signed.bes.invalidsigvalue.xml", mySigsVerificationProfile));
+
+            // The anonymous reference is digested on the executor
+            nistVerificationProfile.withReferencesVerificationExecutor(executor);
+            SignatureSpecificVerificationOptions options = new SignatureSpecificVerificationOptions()
+                    .useDataForAnonymousReference(new ByteArrayInputStream("changed".getBytes(StandardCharsets.UTF_8)));
+            assertThrows(ReferenceValueException.class, () -> verifySignature("detached.c.xml", nistVerificationProfile, options));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void testErrVerifyCMissingCertRef() throws Exception
     {
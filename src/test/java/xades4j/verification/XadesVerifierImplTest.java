@@ -41,15 +41,27 @@ import xades4j.properties.SignatureTimeStampProperty;
 import xades4j.properties.SigningCertificateProperty;
 import xades4j.properties.SigningTimeProperty;
 import xades4j.providers.CannotBuildCertificationPathException;
+import xades4j.providers.CertificateValidationProvider;
+import xades4j.providers.TimeStampVerificationProvider;
+import xades4j.providers.impl.DefaultMessageDigestProvider;
+import xades4j.providers.impl.DefaultTimeStampVerificationProvider;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -112,6 +124,98 @@ class XadesVerifierImplTest extends VerifierTestBase
         assertTrue(dataObjectTimeStamp.isPresent());
     }
 
+    @Test
+    void testVerifyAll() throws Exception
+    {
+        AtomicInteger validations = new AtomicInteger();
+        CertificateValidationProvider countingValidationProvider = (certSelector, validationDate, otherCerts) -> {
+            validations.incrementAndGet();
+            return VerifierTestBase.validationProviderMySigs.validate(certSelector, validationDate, otherCerts);
+        };
+        XadesVerifier verifier = new XadesVerificationProfile(countingValidationProvider).newVerifier();
+
+        SignatureSpecificVerificationOptions options = new SignatureSpecificVerificationOptions();
+        List<BatchVerificationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            requests.add(new BatchVerificationRequest(getSigElement(getDocument("document.signed.bes.rsa_pss.xml")), options));
+        }
+        // Certificates are expired in 2041
+        requests.add(new BatchVerificationRequest(
+                getSigElement(getDocument("document.signed.bes.rsa_pss.xml")),
+                new SignatureSpecificVerificationOptions().setDefaultVerificationDate(new GregorianCalendar(2041, 0, 1).getTime())));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            List<BatchVerificationResult> results = verifier.verifyAll(requests, executor, BatchVerificationMode.COLLECT_ALL);
+
+            assertEquals(requests.size(), results.size());
+            for (int i = 0; i < 3; i++)
+            {
+                assertTrue(results.get(i).isSuccessful());
+                assertEquals(XAdESForm.BES, results.get(i).getResult().getSignatureForm());
+            }
+            assertFalse(results.get(3).isSuccessful());
+            assertTrue(results.get(3).getException() instanceof CannotBuildCertificationPathException);
+            // The first three signatures share the validation
+            assertEquals(2, validations.get());
+
+            assertThrows(
+                    CannotBuildCertificationPathException.class,
+                    () -> verifier.verifyAll(requests, executor, BatchVerificationMode.FAIL_FAST));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testVerifyAllFailFastReportsFirstFailureInOrder() throws Exception
+    {
+        Date firstDate = new GregorianCalendar(2041, 0, 1).getTime();
+        CountDownLatch secondFailed = new CountDownLatch(1);
+        CertificateValidationProvider validationProvider = (certSelector, validationDate, otherCerts) -> {
+            if (firstDate.equals(validationDate))
+            {
+                // Make sure the second signature fails first.
+                try
+                {
+                    secondFailed.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return VerifierTestBase.validationProviderMySigs.validate(certSelector, validationDate, otherCerts);
+            }
+            secondFailed.countDown();
+            throw new IllegalStateException();
+        };
+        XadesVerifier verifier = new XadesVerificationProfile(validationProvider).newVerifier();
+
+        List<BatchVerificationRequest> requests = List.of(
+                new BatchVerificationRequest(
+                        getSigElement(getDocument("document.signed.bes.rsa_pss.xml")),
+                        new SignatureSpecificVerificationOptions().setDefaultVerificationDate(firstDate)),
+                new BatchVerificationRequest(
+                        getSigElement(getDocument("document.signed.bes.rsa_pss.xml")),
+                        new SignatureSpecificVerificationOptions()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            assertThrows(
+                    CannotBuildCertificationPathException.class,
+                    () -> verifier.verifyAll(requests, executor, BatchVerificationMode.FAIL_FAST));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void testVerifyBESWithoutKeyInfo() throws Exception
     {
@@ -178,6 +282,28 @@ class XadesVerifierImplTest extends VerifierTestBase
         assertEquals("document.xml", uri.get());
     }
 
+    @Test
+    void testVerifyDetachedBESWithReferencesVerificationExecutor() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            verificationProfile.withReferencesVerificationExecutor(executor);
+            var result = verifySignature(
+                    "detached.bes.xml",
+                    verificationProfile,
+                    new SignatureSpecificVerificationOptions()
+                            .useBaseUri(new File("src/test/xml/").toURI().toString())
+                            .useResourceResolver(new ResolverLocalFilesystem()));
+
+            assertEquals(XAdESForm.BES, result.getSignatureForm());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void testVerifyBESCounterSig() throws Exception
     {
@@ -245,12 +371,23 @@ class XadesVerifierImplTest extends VerifierTestBase
     @Test
     void testVerifyTBES() throws Exception
     {
-        var result = verifySignature("document.signed.t.bes.xml");
+        AtomicInteger tokenVerifications = new AtomicInteger();
+        TimeStampVerificationProvider tsVerifier = new DefaultTimeStampVerificationProvider(
+                VerifierTestBase.validationProviderMySigs,
+                new DefaultMessageDigestProvider());
+        verificationProfile.withTimeStampTokenVerifier((token, digestInput) -> {
+            tokenVerifications.incrementAndGet();
+            return tsVerifier.verifyToken(token, digestInput);
+        });
+
+        var result = verifySignature("document.signed.t.bes.xml", verificationProfile);
 
         assertEquals(XAdESForm.T, result.getSignatureForm());
 
         var signatureTimeStamps = result.getPropertiesFilter().getOfType(SignatureTimeStampProperty.class);
         assertEquals(1, signatureTimeStamps.size());
+        // The time-stamp used to get the validation date isn't verified again
+        assertEquals(1, tokenVerifications.get());
     }
 
     @Test
@@ -302,6 +439,35 @@ class XadesVerifierImplTest extends VerifierTestBase
         assertEquals(1, revocationRefs.size());
     }
 
+    @Test
+    void testVerifyCWithPropertiesVerificationExecutor() throws Exception
+    {
+        var expected = verifySignature("document.signed.c.xml", nistVerificationProfile);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            nistVerificationProfile.withPropertiesVerificationExecutor(executor);
+            var result = verifySignature("document.signed.c.xml", nistVerificationProfile);
+
+            assertEquals(XAdESForm.C, result.getSignatureForm());
+            List<Class<?>> expectedTypes = new ArrayList<>();
+            expected.getPropertiesAndData().forEach(p -> expectedTypes.add(p.getProperty().getClass()));
+            List<Class<?>> types = new ArrayList<>();
+            result.getPropertiesAndData().forEach(p -> types.add(p.getProperty().getClass()));
+            assertEquals(expectedTypes, types);
+
+            // Counter-signatures are verified on the calling thread
+            verificationProfile.withPropertiesVerificationExecutor(executor);
+            var csResult = verifySignature("document.signed.bes.cs.xml", verificationProfile);
+            assertEquals(1, csResult.getPropertiesFilter().getOfType(CounterSignatureProperty.class).size());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     @Test
     void testVerifyDetachedC() throws Exception
     {